@@ -0,0 +1,155 @@
+package org.example.rideshare.benchmark;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.InsertManyOptions;
+import org.bson.Document;
+import org.example.rideshare.config.MongoConversionConfig;
+import org.example.rideshare.model.GeoPoint;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.model.RideStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.DefaultDbRefResolver;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BulkRideCreateBenchmark - One save per ride vs chunked unordered insertMany
+ *
+ * Each invocation books one 1000-ride order the way the API writes it:
+ * - singleSaves: 1000 x MongoTemplate.save, as 1000 calls of POST /api/v1/rides
+ * - bulkInsert: unordered insertMany in chunks of chunkSize rides, as
+ * POST /api/v1/rides/bulk (same document mapping as
+ * RideRepositoryCustomImpl.insertAllUnordered)
+ *
+ * Scores are rides per second. The rides collection carries the same
+ * indexes as in production, and is emptied before every iteration.
+ *
+ * Needs a local MongoDB (uses database rideshare_bench):
+ * ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="BulkRideCreateBenchmark"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BulkRideCreateBenchmark {
+
+    static final int ORDER_SIZE = 1000;
+
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    @State(Scope.Benchmark)
+    public static class Chunking {
+
+        @Param({ "100", "500", "1000" })
+        int chunkSize;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        client = MongoClients.create(System.getProperty("rideshare.mongo", "mongodb://localhost:27017"));
+        mongoTemplate = mongoTemplate(client);
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyRides() {
+        mongoTemplate.getCollection("rides").drop();
+        mongoTemplate.getCollection("rides").createIndex(Indexes.compoundIndex(
+                Indexes.ascending("status", "createdAt", "_id")));
+        mongoTemplate.getCollection("rides").createIndex(Indexes.compoundIndex(
+                Indexes.ascending("userId"), Indexes.descending("createdAt")));
+        mongoTemplate.getCollection("rides").createIndex(Indexes.compoundIndex(
+                Indexes.ascending("status"), Indexes.geo2dsphere("pickupPoint")));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mongoTemplate.getCollection("rides").drop();
+        client.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDER_SIZE)
+    public int singleSaves() {
+        List<Ride> order = order();
+        for (Ride ride : order) {
+            mongoTemplate.save(ride);
+        }
+        return order.size();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDER_SIZE)
+    public int bulkInsert(Chunking chunking) {
+        List<Ride> order = order();
+        for (int from = 0; from < order.size(); from += chunking.chunkSize) {
+            List<Ride> chunk = order.subList(from, Math.min(from + chunking.chunkSize, order.size()));
+            List<Document> documents = new ArrayList<>(chunk.size());
+            for (Ride ride : chunk) {
+                Document document = new Document();
+                mongoTemplate.getConverter().write(ride, document);
+                documents.add(document);
+            }
+            mongoTemplate.getCollection("rides").insertMany(documents, new InsertManyOptions().ordered(false));
+        }
+        return order.size();
+    }
+
+    // One corporate order: ORDER_SIZE rides of one passenger around a venue
+    private List<Ride> order() {
+        Date now = new Date();
+        List<Ride> order = new ArrayList<>(ORDER_SIZE);
+        for (int i = 0; i < ORDER_SIZE; i++) {
+            order.add(Ride.builder()
+                    .userId("bench-corporate")
+                    .pickupLocation("Convention Center, Gate " + (i % 8))
+                    .dropLocation("Hotel " + random.nextInt(200))
+                    .pickupPoint(new GeoPoint(77.59 + random.nextDouble(-0.01, 0.01),
+                            12.97 + random.nextDouble(-0.01, 0.01)))
+                    .status(RideStatus.REQUESTED)
+                    .createdAt(now)
+                    .build());
+        }
+        return order;
+    }
+
+    // Template with the application's conversions (RideStatus codes)
+    private static MongoTemplate mongoTemplate(MongoClient client) {
+        SimpleMongoClientDatabaseFactory factory = new SimpleMongoClientDatabaseFactory(client, "rideshare_bench");
+        MongoCustomConversions conversions = MongoConversionConfig.conversions();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(new DefaultDbRefResolver(factory), mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return new MongoTemplate(factory, converter);
+    }
+}
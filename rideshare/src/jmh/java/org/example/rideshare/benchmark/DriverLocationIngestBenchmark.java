@@ -0,0 +1,149 @@
+package org.example.rideshare.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.rideshare.service.DriverLocationStore;
+import org.example.rideshare.service.DriverPositionIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DriverLocationIngestBenchmark - Location ping ingest rate at 200k drivers
+ *
+ * 200k drivers are online in a 55 x 55 km city; each call is one ping from a
+ * random driver who moved a few meters (a car at city speed between two pings
+ * 2-4 s apart):
+ * - storeUpdate: DriverLocationStore alone (slot lookup and array writes)
+ * - indexUpdate: the full DriverPositionIndex path behind the endpoint,
+ * including the grid update once a driver has moved more than 25 m
+ * - snapshot: writing all 200k positions to a snapshot file
+ *
+ * Setup prints the retained heap of each structure (used heap after GC,
+ * before and after filling it). Allocation per ping is reported by -prof gc:
+ * ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="DriverLocationIngestBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(4)
+public class DriverLocationIngestBenchmark {
+
+    static final int DRIVERS = 200_000;
+    static final double CENTER_LAT = 12.97;
+    static final double CENTER_LNG = 77.59;
+    static final double HALF_SPAN = 0.25;
+    // About 10 m of movement per ping
+    static final double STEP = 0.0001;
+
+    @State(Scope.Benchmark)
+    public static class Fleet {
+
+        String[] driverIds;
+        double[] lat;
+        double[] lng;
+        DriverLocationStore store;
+        DriverPositionIndex index;
+        Path snapshotFile;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            SplittableRandom random = new SplittableRandom(42);
+            driverIds = new String[DRIVERS];
+            lat = new double[DRIVERS];
+            lng = new double[DRIVERS];
+            for (int i = 0; i < DRIVERS; i++) {
+                driverIds[i] = "driver-" + i;
+                lat[i] = CENTER_LAT + random.nextDouble(-HALF_SPAN, HALF_SPAN);
+                lng[i] = CENTER_LNG + random.nextDouble(-HALF_SPAN, HALF_SPAN);
+            }
+            long now = System.currentTimeMillis();
+
+            long before = usedHeap();
+            store = new DriverLocationStore(262_144);
+            for (int i = 0; i < DRIVERS; i++) {
+                store.update(driverIds[i], lat[i], lng[i], now);
+            }
+            long afterStore = usedHeap();
+
+            index = new DriverPositionIndex(null, new SimpleMeterRegistry(), 3_600_000, 0.01, 262_144, 25, "", 0, 0);
+            for (int i = 0; i < DRIVERS; i++) {
+                index.update(driverIds[i], lat[i], lng[i], now);
+            }
+            long afterIndex = usedHeap();
+
+            System.out.printf("%nRetained heap for %d drivers: DriverLocationStore %.1f MB, "
+                    + "DriverPositionIndex (store + grid) %.1f MB%n",
+                    DRIVERS, (afterStore - before) / 1e6, (afterIndex - afterStore) / 1e6);
+
+            snapshotFile = Files.createTempFile("rideshare-driver-locations", ".bin");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            index.close();
+            Files.deleteIfExists(snapshotFile);
+        }
+
+        private static long usedHeap() {
+            Runtime runtime = Runtime.getRuntime();
+            for (int i = 0; i < 3; i++) {
+                System.gc();
+            }
+            return runtime.totalMemory() - runtime.freeMemory();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Pinger {
+
+        private final SplittableRandom random = new SplittableRandom();
+
+        int nextDriver() {
+            return random.nextInt(DRIVERS);
+        }
+
+        double step() {
+            return random.nextDouble(-STEP, STEP);
+        }
+    }
+
+    @Benchmark
+    public int storeUpdate(Fleet fleet, Pinger pinger) {
+        int driver = pinger.nextDriver();
+        return fleet.store.update(fleet.driverIds[driver], fleet.lat[driver] + pinger.step(),
+                fleet.lng[driver] + pinger.step(), System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public boolean indexUpdate(Fleet fleet, Pinger pinger) {
+        int driver = pinger.nextDriver();
+        return fleet.index.update(fleet.driverIds[driver], fleet.lat[driver] + pinger.step(),
+                fleet.lng[driver] + pinger.step(), System.currentTimeMillis());
+    }
+
+    @Benchmark
+    @Threads(1)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int snapshot(Fleet fleet) throws IOException {
+        return fleet.store.writeSnapshot(fleet.snapshotFile);
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.rideshare.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.example.rideshare.config.JwtAuthFilter;
+import org.example.rideshare.config.JwtUtil;
+import org.example.rideshare.config.VerifiedClaimsCache;
+import org.example.rideshare.model.User;
+import org.example.rideshare.repository.UserRepository;
+import org.example.rideshare.service.CustomUserDetailsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * JwtAuthFilterBenchmark - Full JwtAuthFilter pass for one authenticated request
+ *
+ * Runs doFilterInternal through OncePerRequestFilter.doFilter with a real
+ * JwtUtil and VerifiedClaimsCache and a stub-only Mockito UserRepository (no
+ * invocation recording, so memory stays flat).
+ *
+ * Parameters:
+ * - authMode: stateless (claims only) or database (user cache + repository)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthFilterBenchmark {
+
+    @Param({ "stateless", "database" })
+    public String authMode;
+
+    private JwtAuthFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private final FilterChain chain = (req, res) -> {
+    };
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = new JwtUtil(JwtUtilBenchmark.SECRET, 3600000);
+        UserRepository userRepository = mock(UserRepository.class, withSettings().stubOnly());
+        when(userRepository.findByUsername("john"))
+                .thenReturn(Optional.of(new User("u-1", "john", "hash", "ROLE_USER")));
+
+        filter = new JwtAuthFilter();
+        ReflectionTestUtils.setField(filter, "claimsCache",
+                new VerifiedClaimsCache(jwtUtil, new SimpleMeterRegistry(), 10000, 3600000));
+        ReflectionTestUtils.setField(filter, "userDetailsService",
+                new CustomUserDetailsService(userRepository, new SimpleMeterRegistry(), 10000, 300000, 30000));
+        ReflectionTestUtils.setField(filter, "authMode", authMode);
+
+        request = new MockHttpServletRequest("GET", "/api/v1/driver/rides/requests");
+        request.addHeader("Authorization", "Bearer " + jwtUtil.generateToken("u-1", "john", "ROLE_USER"));
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Object doFilter() throws Exception {
+        filter.doFilter(request, response, chain);
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.rideshare.benchmark;
+
+import io.jsonwebtoken.Claims;
+import org.example.rideshare.config.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtUtilBenchmark - Cost of JWT generation and verification
+ *
+ * Measures the raw JwtUtil operations that run on login and (without the
+ * claims cache) on every authenticated request. Run with -prof gc to see
+ * allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    static final String SECRET = "benchmark_secret_key_with_at_least_32_characters_hs256";
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 3600000);
+        token = jwtUtil.generateToken("507f1f77bcf86cd799439010", "john", "ROLE_USER");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("507f1f77bcf86cd799439010", "john", "ROLE_USER");
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public String getUsername() {
+        return jwtUtil.getUsername(token);
+    }
+
+    // The pre-cache filter path: validate, then parse again for the username
+    @Benchmark
+    public String validateThenGetUsername() {
+        return jwtUtil.validateToken(token) ? jwtUtil.getUsername(token) : null;
+    }
+
+    @Benchmark
+    public Claims verifyAndGetClaims() {
+        return jwtUtil.verifyAndGetClaims(token);
+    }
+}
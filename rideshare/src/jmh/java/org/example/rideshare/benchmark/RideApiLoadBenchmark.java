@@ -0,0 +1,118 @@
+package org.example.rideshare.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * RideApiLoadBenchmark - HTTP load against a running instance
+ *
+ * Drives GET /api/v1/user/rides and GET /api/v1/driver/rides/requests from 400
+ * concurrent clients, twice the default Tomcat pool of 200 platform threads.
+ * Compare a server started normally with one started with
+ * --spring.profiles.active=virtual-threads (Java 21+ runtime).
+ *
+ * Run (server and MongoDB must be up):
+ * ./mvnw -Pbenchmark test-compile exec:exec \
+ * -Djmh.args="RideApiLoadBenchmark -jvmArgsAppend -Drideshare.url=http://localhost:8081"
+ *
+ * Setup registers a fresh passenger and driver and creates a few rides so the
+ * driver feed is not empty. Non-2xx responses fail the benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 20)
+@Threads(400)
+@Fork(1)
+public class RideApiLoadBenchmark {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    private HttpClient client;
+    private String baseUrl;
+    private String userToken;
+    private String driverToken;
+
+    @Setup
+    public void setUp() throws Exception {
+        baseUrl = System.getProperty("rideshare.url", "http://localhost:8081");
+        client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        userToken = register("load_user_" + suffix, "ROLE_USER");
+        driverToken = register("load_driver_" + suffix, "ROLE_DRIVER");
+
+        for (int i = 0; i < 20; i++) {
+            send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/rides"))
+                    .header("Authorization", "Bearer " + userToken)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"pickupLocation\":\"Load Pickup " + i + "\",\"dropLocation\":\"Load Drop\"}"))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public int userRides() throws Exception {
+        return get("/api/v1/user/rides", userToken);
+    }
+
+    @Benchmark
+    public int driverRideRequests() throws Exception {
+        return get("/api/v1/driver/rides/requests", driverToken);
+    }
+
+    // Authenticated GET returning the status code
+    private int get(String path, String token) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build()).statusCode();
+    }
+
+    // Registers an account and returns its token
+    private String register(String username, String role) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/register"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":\"" + username + "\",\"password\":\"load1234\",\"role\":\"" + role + "\"}"))
+                .build());
+        Matcher matcher = TOKEN.matcher(response.body());
+        if (!matcher.find()) {
+            throw new IllegalStateException("No token in register response: " + response.body());
+        }
+        return matcher.group(1);
+    }
+
+    // Sends a request and fails on non-2xx status
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(request.uri() + " returned " + response.statusCode());
+        }
+        return response;
+    }
+}
@@ -0,0 +1,182 @@
+package org.example.rideshare.benchmark;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Indexes;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.example.rideshare.config.MongoConversionConfig;
+import org.example.rideshare.dto.PendingRideCard;
+import org.example.rideshare.dto.RideHistoryRow;
+import org.example.rideshare.model.GeoPoint;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.model.RideStatus;
+import org.example.rideshare.repository.RideRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.DefaultDbRefResolver;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Query;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RideListProjectionBenchmark - Full Ride entities vs projected read models
+ *
+ * Reads a 1000-ride list from MongoDB through Spring Data mapping and
+ * serializes it to JSON, as GET /api/v1/driver/rides/requests?limit=1000 and
+ * GET /api/v1/user/rides do:
+ * - pendingEntities / pendingCards: the pending feed as Ride (before) and as
+ * PendingRideCard with RideRepository.PENDING_CARD_FIELDS (after)
+ * - historyEntities / historyRows: a passenger's 1000 rides as Ride (before)
+ * and as RideHistoryRow with RideRepository.HISTORY_ROW_FIELDS (after)
+ *
+ * Sample-time mode reports p50/p99 per list. Setup prints the bytes of each
+ * list on both hops: BSON from MongoDB and JSON to the client.
+ *
+ * Needs a local MongoDB (uses database rideshare_bench):
+ * ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="RideListProjectionBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RideListProjectionBenchmark {
+
+    static final int LIST_SIZE = 1000;
+    static final String PASSENGER = "bench-user";
+    static final String PENDING_FILTER = "{ 'status': " + RideStatus.REQUESTED.code() + " }";
+    static final String HISTORY_FILTER = "{ 'userId': '" + PASSENGER + "' }";
+
+    private MongoClient client;
+    private MongoTemplate mongoTemplate;
+    private JsonMapper jsonMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        client = MongoClients.create(System.getProperty("rideshare.mongo", "mongodb://localhost:27017"));
+        mongoTemplate = mongoTemplate(client);
+        jsonMapper = JsonMapper.builder().build();
+
+        MongoCollection<Document> rides = mongoTemplate.getCollection("rides");
+        rides.drop();
+        rides.createIndex(Indexes.compoundIndex(Indexes.ascending("status", "createdAt", "_id")));
+        rides.createIndex(Indexes.compoundIndex(Indexes.ascending("userId"), Indexes.descending("createdAt")));
+
+        // 1000 finished rides of one passenger, 1000 pending rides of others
+        SplittableRandom random = new SplittableRandom(42);
+        long now = System.currentTimeMillis();
+        List<Ride> seed = new ArrayList<>(2 * LIST_SIZE);
+        for (int i = 0; i < 2 * LIST_SIZE; i++) {
+            boolean history = i < LIST_SIZE;
+            seed.add(Ride.builder()
+                    .userId(history ? PASSENGER : "user-" + i)
+                    .driverId(history ? "driver-" + random.nextInt(500) : null)
+                    .pickupLocation("Pickup " + i + ", MG Road")
+                    .dropLocation("Drop " + i + ", Airport Terminal 1")
+                    .pickupPoint(new GeoPoint(77.59 + random.nextDouble(-0.2, 0.2), 12.97 + random.nextDouble(-0.2, 0.2)))
+                    .dropPoint(new GeoPoint(77.59 + random.nextDouble(-0.2, 0.2), 12.97 + random.nextDouble(-0.2, 0.2)))
+                    .status(history ? RideStatus.COMPLETED : RideStatus.REQUESTED)
+                    .createdAt(new Date(now - i * 1000L))
+                    .build());
+        }
+        mongoTemplate.insert(seed, Ride.class);
+
+        System.out.printf("%nBytes per %d-ride list (BSON from MongoDB / JSON to client):%n", LIST_SIZE);
+        report("pending  Ride", PENDING_FILTER, "{}", pendingEntities());
+        report("pending  PendingRideCard", PENDING_FILTER, RideRepository.PENDING_CARD_FIELDS, pendingCards());
+        report("history  Ride", HISTORY_FILTER, "{}", historyEntities());
+        report("history  RideHistoryRow", HISTORY_FILTER, RideRepository.HISTORY_ROW_FIELDS, historyRows());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mongoTemplate.getCollection("rides").drop();
+        client.close();
+    }
+
+    @Benchmark
+    public byte[] pendingEntities() {
+        return jsonMapper.writeValueAsBytes(mongoTemplate.find(pending("{}"), Ride.class));
+    }
+
+    @Benchmark
+    public byte[] pendingCards() {
+        return jsonMapper.writeValueAsBytes(
+                mongoTemplate.find(pending(RideRepository.PENDING_CARD_FIELDS), PendingRideCard.class, "rides"));
+    }
+
+    @Benchmark
+    public byte[] historyEntities() {
+        return jsonMapper.writeValueAsBytes(mongoTemplate.find(history("{}"), Ride.class));
+    }
+
+    @Benchmark
+    public byte[] historyRows() {
+        return jsonMapper.writeValueAsBytes(
+                mongoTemplate.find(history(RideRepository.HISTORY_ROW_FIELDS), RideHistoryRow.class, "rides"));
+    }
+
+    // Template with the application's conversions (RideStatus codes)
+    private static MongoTemplate mongoTemplate(MongoClient client) {
+        SimpleMongoClientDatabaseFactory factory = new SimpleMongoClientDatabaseFactory(client, "rideshare_bench");
+        MongoCustomConversions conversions = MongoConversionConfig.conversions();
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(new DefaultDbRefResolver(factory), mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return new MongoTemplate(factory, converter);
+    }
+
+    // Same filter and sort as RideRepository.findCardsByStatus
+    private static Query pending(String fields) {
+        return new BasicQuery(PENDING_FILTER, fields)
+                .with(Sort.by(Sort.Direction.ASC, "createdAt").and(Sort.by(Sort.Direction.ASC, "id")))
+                .limit(LIST_SIZE);
+    }
+
+    // Same filter and sort as RideRepository.findHistoryByUserId
+    private static Query history(String fields) {
+        return new BasicQuery(HISTORY_FILTER, fields)
+                .with(Sort.by(Sort.Direction.DESC, "createdAt"))
+                .limit(LIST_SIZE);
+    }
+
+    private void report(String name, String filter, String fields, byte[] json) {
+        long bson = 0;
+        for (RawBsonDocument document : mongoTemplate.getCollection("rides")
+                .withDocumentClass(RawBsonDocument.class)
+                .find(Document.parse(filter))
+                .projection(Document.parse(fields))
+                .limit(LIST_SIZE)) {
+            bson += document.getByteBuffer().remaining();
+        }
+        System.out.printf("  %-26s %,9d / %,9d%n", name, bson, json.length);
+    }
+}
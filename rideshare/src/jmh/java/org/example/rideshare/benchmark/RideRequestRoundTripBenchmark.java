@@ -0,0 +1,157 @@
+package org.example.rideshare.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.example.rideshare.config.AuthenticatedUser;
+import org.example.rideshare.config.CurrentUserArgumentResolver;
+import org.example.rideshare.config.JwtAuthFilter;
+import org.example.rideshare.config.JwtUtil;
+import org.example.rideshare.config.VerifiedClaimsCache;
+import org.example.rideshare.controller.RideController;
+import org.example.rideshare.dto.CreateRideRequest;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.model.User;
+import org.example.rideshare.repository.UserRepository;
+import org.example.rideshare.service.CustomUserDetailsService;
+import org.example.rideshare.service.RideService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * RideRequestRoundTripBenchmark - MongoDB user lookups per POST /api/v1/rides
+ *
+ * Runs one ride request the way Spring MVC does: JwtAuthFilter, then the
+ * registered CurrentUserArgumentResolver for the @CurrentUser parameter, then
+ * RideController.createRide (RideService stubbed). UserRepository counts its
+ * calls and spins for rttMicros on each, standing in for a MongoDB round trip.
+ *
+ * Parameters:
+ * - path: legacy (database filter plus the controller's own findByUsername,
+ * as before @CurrentUser), database (filter lookup only) or stateless (no
+ * lookup)
+ * - rttMicros: simulated round-trip time per lookup
+ *
+ * The user cache TTL is 0, so every lookup reaches the repository. Teardown
+ * prints the lookups per request of each path next to its latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RideRequestRoundTripBenchmark {
+
+    @Param({ "legacy", "database", "stateless" })
+    public String path;
+
+    @Param({ "300" })
+    public long rttMicros;
+
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+
+    private UserRepository userRepository;
+    private JwtAuthFilter filter;
+    private CurrentUserArgumentResolver resolver;
+    private MethodParameter userParameter;
+    private RideController controller;
+    private CreateRideRequest body;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private final FilterChain chain = (req, res) -> {
+    };
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        JwtUtil jwtUtil = new JwtUtil(JwtUtilBenchmark.SECRET, 3600000);
+        User user = new User("u-1", "john", "hash", "ROLE_USER");
+        long rttNanos = TimeUnit.MICROSECONDS.toNanos(rttMicros);
+        userRepository = (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[] { UserRepository.class }, (proxy, method, args) -> {
+                    if (!method.getName().equals("findByUsername")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    lookups.incrementAndGet();
+                    long end = System.nanoTime() + rttNanos;
+                    while (System.nanoTime() < end) {
+                        Thread.onSpinWait();
+                    }
+                    return Optional.of(user);
+                });
+
+        filter = new JwtAuthFilter();
+        ReflectionTestUtils.setField(filter, "claimsCache",
+                new VerifiedClaimsCache(jwtUtil, new SimpleMeterRegistry(), 10000, 3600000));
+        ReflectionTestUtils.setField(filter, "userDetailsService",
+                new CustomUserDetailsService(userRepository, new SimpleMeterRegistry(), 10000, 0, 0));
+        ReflectionTestUtils.setField(filter, "authMode", "stateless".equals(path) ? "stateless" : "database");
+
+        RideService rideService = mock(RideService.class, withSettings().stubOnly());
+        when(rideService.createRide(any(CreateRideRequest.class), anyString())).thenReturn(new Ride());
+        controller = new RideController();
+        ReflectionTestUtils.setField(controller, "rideService", rideService);
+
+        resolver = new CurrentUserArgumentResolver();
+        userParameter = new MethodParameter(RideController.class.getMethod("createRide",
+                CreateRideRequest.class, AuthenticatedUser.class), 1);
+
+        body = new CreateRideRequest();
+        body.setPickupLocation("Central Station");
+        body.setDropLocation("Airport Terminal 1");
+        request = new MockHttpServletRequest("POST", "/api/v1/rides");
+        request.addHeader("Authorization", "Bearer " + jwtUtil.generateToken("u-1", "john", "ROLE_USER"));
+        response = new MockHttpServletResponse();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%nMongo user lookups per ride request (%s): %.2f%n", path,
+                (double) lookups.get() / Math.max(1, requests.get()));
+    }
+
+    @Benchmark
+    public Object createRide() throws Exception {
+        try {
+            filter.doFilter(request, response, chain);
+            AuthenticatedUser user = (AuthenticatedUser) resolver.resolveArgument(userParameter, null,
+                    new ServletWebRequest(request), null);
+            if ("legacy".equals(path)) {
+                // What each RideController method did before @CurrentUser
+                userRepository.findByUsername(user.getUsername()).orElseThrow();
+            }
+            requests.incrementAndGet();
+            return controller.createRide(body, user);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package org.example.rideshare.benchmark;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.geojson.Point;
+import com.mongodb.client.model.geojson.Position;
+import org.bson.Document;
+import org.example.rideshare.model.RideStatus;
+import org.example.rideshare.service.SpatialGridIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SpatialIndexBenchmark - In-memory grid vs MongoDB $near for proximity lookups
+ *
+ * 100k online drivers and 50k pending rides are spread uniformly over a
+ * 55 x 55 km city. Each call queries around a random point in the city:
+ * - gridNearestDrivers: 10 nearest drivers (SpatialGridIndex.nearest)
+ * - gridRidesWithin3km: 20 nearest rides within 3 km (SpatialGridIndex.within)
+ * - mongoRidesNear3km: the same ride query as a MongoDB $near on a 2dsphere
+ * index (needs a local MongoDB; uses database rideshare_bench)
+ *
+ * Run without MongoDB:
+ * ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="SpatialIndexBenchmark.grid"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpatialIndexBenchmark {
+
+    static final int DRIVERS = 100_000;
+    static final int RIDES = 50_000;
+    static final double CENTER_LAT = 12.97;
+    static final double CENTER_LNG = 77.59;
+    static final double HALF_SPAN = 0.25;
+
+    @State(Scope.Thread)
+    public static class QueryPoints {
+
+        private final double[] lat = new double[1024];
+        private final double[] lng = new double[1024];
+        private int next;
+
+        @Setup
+        public void setUp() {
+            SplittableRandom random = new SplittableRandom(7);
+            for (int i = 0; i < lat.length; i++) {
+                lat[i] = CENTER_LAT + random.nextDouble(-HALF_SPAN, HALF_SPAN);
+                lng[i] = CENTER_LNG + random.nextDouble(-HALF_SPAN, HALF_SPAN);
+            }
+        }
+
+        int advance() {
+            next = (next + 1) & (lat.length - 1);
+            return next;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Grid {
+
+        SpatialGridIndex<Long> drivers;
+        SpatialGridIndex<String> rides;
+
+        @Setup
+        public void setUp() {
+            SplittableRandom random = new SplittableRandom(42);
+            drivers = new SpatialGridIndex<>(0.01);
+            for (int i = 0; i < DRIVERS; i++) {
+                drivers.put("driver-" + i, CENTER_LAT + random.nextDouble(-HALF_SPAN, HALF_SPAN),
+                        CENTER_LNG + random.nextDouble(-HALF_SPAN, HALF_SPAN), (long) i);
+            }
+            rides = new SpatialGridIndex<>(0.01);
+            for (int i = 0; i < RIDES; i++) {
+                rides.put("ride-" + i, CENTER_LAT + random.nextDouble(-HALF_SPAN, HALF_SPAN),
+                        CENTER_LNG + random.nextDouble(-HALF_SPAN, HALF_SPAN), "ride-" + i);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Mongo {
+
+        MongoClient client;
+        MongoCollection<Document> rides;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            client = MongoClients.create(System.getProperty("rideshare.mongo", "mongodb://localhost:27017"));
+            rides = client.getDatabase("rideshare_bench").getCollection("rides");
+            rides.drop();
+            rides.createIndex(Indexes.compoundIndex(Indexes.ascending("status"), Indexes.geo2dsphere("pickupPoint")));
+
+            SplittableRandom random = new SplittableRandom(42);
+            List<Document> batch = new ArrayList<>(1000);
+            for (int i = 0; i < RIDES; i++) {
+                double lat = CENTER_LAT + random.nextDouble(-HALF_SPAN, HALF_SPAN);
+                double lng = CENTER_LNG + random.nextDouble(-HALF_SPAN, HALF_SPAN);
+                batch.add(new Document("status", RideStatus.REQUESTED.code())
+                        .append("pickupLocation", "Pickup " + i)
+                        .append("pickupPoint", new Document("type", "Point").append("coordinates", List.of(lng, lat))));
+                if (batch.size() == 1000) {
+                    rides.insertMany(batch);
+                    batch.clear();
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            rides.drop();
+            client.close();
+        }
+    }
+
+    @Benchmark
+    public int gridNearestDrivers(Grid grid, QueryPoints points) {
+        int i = points.advance();
+        return grid.drivers.nearest(points.lat[i], points.lng[i], 10, 10_000, value -> true).size();
+    }
+
+    @Benchmark
+    public int gridRidesWithin3km(Grid grid, QueryPoints points) {
+        int i = points.advance();
+        return grid.rides.within(points.lat[i], points.lng[i], 3000, 20).size();
+    }
+
+    @Benchmark
+    public int mongoRidesNear3km(Mongo mongo, QueryPoints points) {
+        int i = points.advance();
+        return mongo.rides.find(Filters.and(
+                Filters.eq("status", RideStatus.REQUESTED.code()),
+                Filters.near("pickupPoint", new Point(new Position(points.lng[i], points.lat[i])), 3000.0, null)))
+                .limit(20)
+                .into(new ArrayList<>())
+                .size();
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.rideshare.config;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
+
+/**
+ * AuthenticatedUser - Principal stored in the SecurityContext for each request
+ * 
+ * Holds the identity of the caller as resolved by JwtAuthFilter: the user's
+ * MongoDB ID, username and role. Controllers receive it through the
+ * {@link CurrentUser} annotation instead of looking the user up again.
+ * 
+ * getName() returns the username, so SecurityUtil.getCurrentUsername() keeps
+ * working unchanged.
+ * 
+ * @author RideShare Development Team
+ * @version 1.0
+ */
+public class AuthenticatedUser implements AuthenticatedPrincipal, Serializable {
+
+    // MongoDB document ID of the user
+    private final String id;
+
+    // Unique username of the user
+    private final String username;
+
+    // User role: ROLE_USER or ROLE_DRIVER
+    private final String role;
+
+    // Constructor to initialize all fields
+    public AuthenticatedUser(String id, String username, String role) {
+        this.id = id;
+        this.username = username;
+        this.role = role;
+    }
+
+    // Getter for user ID
+    public String getId() {
+        return id;
+    }
+
+    // Getter for username
+    public String getUsername() {
+        return username;
+    }
+
+    // Getter for role
+    public String getRole() {
+        return role;
+    }
+
+    // Principal name used by Spring Security (the username)
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    // Single authority derived from the role
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return Collections.singleton(new SimpleGrantedAuthority(role));
+    }
+
+    // Equality comparison based on user ID
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        AuthenticatedUser that = (AuthenticatedUser) o;
+        return Objects.equals(id, that.id);
+    }
+
+    // Hash code based on user ID
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return username;
+    }
+}
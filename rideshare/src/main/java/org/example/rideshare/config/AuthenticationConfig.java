@@ -0,0 +1,84 @@
+package org.example.rideshare.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.rideshare.service.CustomUserDetailsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * AuthenticationConfig - Password encoder and AuthenticationManager
+ *
+ * Shared by the servlet (SecurityConfig) and reactive (ReactiveSecurityConfig)
+ * stacks. The AuthenticationManager is built explicitly from
+ * CustomUserDetailsService and the password encoder, because the servlet-only
+ * AuthenticationConfiguration is not available in reactive mode.
+ *
+ * Used by: AuthServiceImpl for registration and login
+ *
+ * @author RideShare Development Team
+ * @version 1.0
+ */
+@Configuration
+public class AuthenticationConfig {
+
+    /**
+     * Authentication manager for username/password login
+     *
+     * Loads the user through CustomUserDetailsService (cached) and verifies
+     * the password with the bounded password encoder.
+     */
+    @Bean
+    public AuthenticationManager authenticationManager(CustomUserDetailsService userDetailsService,
+            PasswordEncoder passwordEncoder) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsService);
+        provider.setPasswordEncoder(passwordEncoder);
+        return new ProviderManager(provider);
+    }
+
+    /**
+     * Password encoder used for registration and login
+     *
+     * BCrypt runs on a dedicated bounded pool (BoundedPasswordEncoder) so that
+     * authentication load cannot take request threads and CPU away from the
+     * ride endpoints. A full queue is rejected with 503 + Retry-After.
+     *
+     * - app.security.password-hashing.threads: pool size (0 = CPU count)
+     * - app.security.password-hashing.queue-capacity: max waiting hashes
+     * - app.security.password-hashing.retry-after-seconds: hint for rejected clients
+     *
+     * The BCrypt cost is calibrated at startup (BCryptCostCalibrator) so one
+     * hash takes about app.security.bcrypt.target-hash-ms on this node, unless
+     * app.security.bcrypt.strength pins it. Stored hashes with a lower cost are
+     * upgraded on the next successful login. The chosen cost and measured
+     * verify latency are exported as auth.password.bcrypt.strength and
+     * auth.password.bcrypt.verify.ms.
+     */
+    @Bean
+    public BoundedPasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+            @Value("${app.security.password-hashing.threads:0}") int threads,
+            @Value("${app.security.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${app.security.password-hashing.retry-after-seconds:1}") long retryAfterSeconds,
+            @Value("${app.security.bcrypt.strength:0}") int fixedStrength,
+            @Value("${app.security.bcrypt.target-hash-ms:250}") long targetHashMs,
+            @Value("${app.security.bcrypt.min-strength:10}") int minStrength,
+            @Value("${app.security.bcrypt.max-strength:14}") int maxStrength) {
+        BCryptCostCalibrator cost = fixedStrength > 0
+                ? BCryptCostCalibrator.fixed(fixedStrength)
+                : BCryptCostCalibrator.calibrate(targetHashMs, minStrength, maxStrength);
+        Gauge.builder("auth.password.bcrypt.strength", cost, BCryptCostCalibrator::getStrength)
+                .register(meterRegistry);
+        Gauge.builder("auth.password.bcrypt.verify.ms", cost, BCryptCostCalibrator::getVerifyMillis)
+                .register(meterRegistry);
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(cost.getStrength()), poolSize,
+                queueCapacity, retryAfterSeconds, meterRegistry);
+    }
+}
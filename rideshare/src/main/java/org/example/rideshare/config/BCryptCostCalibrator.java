@@ -0,0 +1,111 @@
+package org.example.rideshare.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Arrays;
+
+/**
+ * BCryptCostCalibrator - Picks the BCrypt work factor for the current hardware
+ *
+ * Each BCrypt cost step doubles the hashing time, so a fixed cost is too cheap
+ * on fast nodes and too expensive on small ones. At startup this calibrator
+ * times a few hashes at the minimum cost, extrapolates, and chooses the
+ * highest cost whose expected hash time stays within the target.
+ *
+ * Calibration Steps:
+ * 1. Warm up and time hashes at minStrength (median of several runs)
+ * 2. Estimate time(s) = time(minStrength) * 2^(s - minStrength)
+ * 3. Choose the highest s in [minStrength, maxStrength] within targetMs
+ * 4. Measure the actual matches() latency at the chosen cost
+ *
+ * Used by: AuthenticationConfig.passwordEncoder()
+ *
+ * @author RideShare Development Team
+ * @version 1.0
+ */
+public class BCryptCostCalibrator {
+
+    private static final Logger log = LoggerFactory.getLogger(BCryptCostCalibrator.class);
+
+    // Number of timed runs per measurement (median is used)
+    private static final int SAMPLES = 3;
+
+    // Password used for calibration hashes only
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+
+    // Chosen BCrypt cost (log2 rounds)
+    private final int strength;
+
+    // Measured matches() latency at the chosen cost, in nanoseconds
+    private final long verifyNanos;
+
+    private BCryptCostCalibrator(int strength, long verifyNanos) {
+        this.strength = strength;
+        this.verifyNanos = verifyNanos;
+    }
+
+    /**
+     * Calibrate the cost against a target hash time
+     *
+     * @param targetMs    Target time for a single hash in milliseconds
+     * @param minStrength Lowest acceptable cost (used even if it exceeds the target)
+     * @param maxStrength Highest cost to consider
+     * @return Calibrator holding the chosen cost and its measured verify latency
+     */
+    public static BCryptCostCalibrator calibrate(long targetMs, int minStrength, int maxStrength) {
+        long baseNanos = medianNanos(new BCryptPasswordEncoder(minStrength), null);
+
+        int chosen = minStrength;
+        long targetNanos = targetMs * 1_000_000L;
+        while (chosen < maxStrength && (baseNanos << (chosen + 1 - minStrength)) <= targetNanos) {
+            chosen++;
+        }
+
+        BCryptCostCalibrator result = fixed(chosen);
+        log.info("BCrypt calibrated: cost={} (base {} ms at cost {}, target {} ms), verify latency {} ms",
+                chosen, baseNanos / 1_000_000, minStrength, targetMs, result.getVerifyMillis());
+        return result;
+    }
+
+    /**
+     * Use a fixed cost and only measure its verify latency
+     *
+     * @param strength BCrypt cost to use
+     * @return Calibrator holding the cost and its measured verify latency
+     */
+    public static BCryptCostCalibrator fixed(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        String hash = encoder.encode(SAMPLE_PASSWORD);
+        return new BCryptCostCalibrator(strength, medianNanos(encoder, hash));
+    }
+
+    // Getter for chosen cost
+    public int getStrength() {
+        return strength;
+    }
+
+    // Getter for measured verify latency in milliseconds
+    public double getVerifyMillis() {
+        return verifyNanos / 1_000_000.0;
+    }
+
+    // Median time of encode() (hash == null) or matches() against hash, after one warm-up run
+    private static long medianNanos(BCryptPasswordEncoder encoder, String hash) {
+        long[] samples = new long[SAMPLES];
+        for (int i = -1; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            if (hash == null) {
+                encoder.encode(SAMPLE_PASSWORD);
+            } else {
+                encoder.matches(SAMPLE_PASSWORD, hash);
+            }
+            if (i >= 0) {
+                samples[i] = System.nanoTime() - start;
+            }
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+}
@@ -0,0 +1,184 @@
+package org.example.rideshare.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.rideshare.exception.ServiceOverloadedException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BoundedPasswordEncoder - Runs password hashing on a dedicated, bounded pool
+ *
+ * BCrypt is deliberately slow. Running it on servlet request threads lets a
+ * login storm consume the CPU and threads that ride endpoints need. This
+ * decorator moves encode() and matches() onto a fixed-size pool with a bounded
+ * queue:
+ * - At most {@code threads} hashes run at once, whatever the request rate
+ * - At most {@code queueCapacity} hashes wait; further calls are rejected
+ * immediately with ServiceOverloadedException (503 + Retry-After)
+ * - upgradeEncoding() only parses the stored hash and runs on the caller
+ * - encodeAll() hashes a batch in parallel, keeping at most {@code threads}
+ * of its hashes on the pool so that a large batch leaves queue room for logins
+ *
+ * Metrics:
+ * - auth.password.hash{op=encode|matches}: hashing time on the pool
+ * - auth.password.queue.depth: hashes waiting for a pool thread
+ * - auth.password.active: hashes currently running
+ * - auth.password.rejected: calls rejected because the queue was full
+ *
+ * Created by: AuthenticationConfig.passwordEncoder()
+ *
+ * @author RideShare Development Team
+ * @version 1.0
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    // Encoder doing the actual hashing (BCrypt)
+    private final PasswordEncoder delegate;
+
+    // Fixed-size pool with bounded queue and abort-on-full policy
+    private final ThreadPoolExecutor executor;
+
+    // Pool size, also the number of hashes one encodeAll() batch keeps in flight
+    private final int threads;
+
+    // Retry-After hint returned to rejected clients
+    private final long retryAfterSeconds;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+            long retryAfterSeconds, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.threads = threads;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new HashingThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = Timer.builder("auth.password.hash").tag("op", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("auth.password.hash").tag("op", "matches")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("auth.password.rejected").register(meterRegistry);
+        Gauge.builder("auth.password.queue.depth", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return runBounded(() -> delegate.encode(rawPassword), encodeTimer);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return runBounded(() -> delegate.matches(rawPassword, encodedPassword), matchesTimer);
+    }
+
+    /**
+     * Hash a batch of passwords in parallel on the pool
+     *
+     * At most {@code threads} hashes of the batch are submitted at a time. An
+     * entry that finds the queue full (logins competing for the pool) fails on
+     * its own with ServiceOverloadedException; the other entries still run.
+     *
+     * @param rawPasswords Passwords to hash
+     * @return One future per password, in input order
+     */
+    public List<CompletableFuture<String>> encodeAll(List<? extends CharSequence> rawPasswords) {
+        List<CompletableFuture<String>> hashes = new ArrayList<>(rawPasswords.size());
+        Deque<CompletableFuture<String>> inFlight = new ArrayDeque<>();
+        for (CharSequence rawPassword : rawPasswords) {
+            if (inFlight.size() == threads) {
+                // Outcome is read by the caller; only wait for a slot here
+                inFlight.poll().handle((hash, error) -> null).join();
+            }
+            CompletableFuture<String> hash;
+            try {
+                hash = CompletableFuture.supplyAsync(() -> encodeTimer.record(() -> delegate.encode(rawPassword)),
+                        executor);
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                hash = CompletableFuture.failedFuture(new ServiceOverloadedException(
+                        "Authentication service is busy, please retry later", retryAfterSeconds));
+            }
+            hashes.add(hash);
+            inFlight.add(hash);
+        }
+        return hashes;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    // Hashes waiting for a pool thread
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    // Submits the task to the pool and waits for it; rejects fast when the queue is full
+    private <T> T runBounded(Callable<T> task, Timer timer) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceOverloadedException(
+                    "Authentication service is busy, please retry later", retryAfterSeconds);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * HashingThreadFactory - Named daemon threads for the hashing pool
+     */
+    private static class HashingThreadFactory implements java.util.concurrent.ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
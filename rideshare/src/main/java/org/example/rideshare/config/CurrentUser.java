@@ -0,0 +1,24 @@
+package org.example.rideshare.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * CurrentUser - Injects the authenticated caller into a controller method
+ * 
+ * Annotate a parameter of type {@link AuthenticatedUser} to receive the
+ * principal built by JwtAuthFilter. No database access is involved.
+ * 
+ * Example:
+ * public ResponseEntity<Ride> createRide(@CurrentUser AuthenticatedUser user)
+ * 
+ * Resolved by: CurrentUserArgumentResolver
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CurrentUser {
+}
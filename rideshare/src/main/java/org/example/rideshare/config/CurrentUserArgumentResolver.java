@@ -0,0 +1,37 @@
+package org.example.rideshare.config;
+
+import org.example.rideshare.util.SecurityUtil;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * CurrentUserArgumentResolver - Resolves {@link CurrentUser} parameters
+ * 
+ * Reads the AuthenticatedUser principal from the SecurityContext populated by
+ * JwtAuthFilter. Throws AuthenticationCredentialsNotFoundException (401) if the
+ * request is not authenticated.
+ * 
+ * Registered by: WebMvcConfig
+ */
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+                && AuthenticatedUser.class.isAssignableFrom(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+            NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        AuthenticatedUser user = SecurityUtil.getCurrentUser();
+        if (user == null) {
+            throw new AuthenticationCredentialsNotFoundException("No authenticated user");
+        }
+        return user;
+    }
+}
@@ -1,14 +1,16 @@
 package org.example.rideshare.config;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.example.rideshare.service.CustomUserDetailsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -25,12 +27,22 @@ import java.io.IOException;
  * 
  * Request Flow:
  * 1. Extract "Bearer {token}" from Authorization header
- * 2. Validate token signature and expiration using JwtUtil
- * 3. Extract username from valid token
- * 4. Load user details from database
- * 5. Create Spring Security authentication token
+ * 2. Validate token signature and expiration (cached in VerifiedClaimsCache)
+ * 3. Extract username from the verified claims
+ * 4. Take role from the token claims (stateless mode) or load user details
+ * from database (database mode)
+ * 5. Create Spring Security authentication token whose principal is an
+ * AuthenticatedUser (id, username, role)
  * 6. Store authentication in SecurityContext
  * 
+ * Authentication Modes (app.security.auth-mode):
+ * - stateless (default): role and user id are read from the signed token, no
+ * database access. Tokens without the uid claim fall back to a database lookup.
+ * - database: every request loads the user through CustomUserDetailsService.
+ * Role changes and deleted accounts take effect once the cached entry expires,
+ * i.e. within app.security.user-cache.ttl-ms (at once on the instance that
+ * evicted it)
+ * 
  * Security Filter Behavior:
  * - Runs once per request (extends OncePerRequestFilter)
  * - Only processes Authorization headers with "Bearer " prefix
@@ -43,23 +55,28 @@ import java.io.IOException;
  * @version 1.0
  */
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class JwtAuthFilter extends OncePerRequestFilter {
 
-    // JWT utility for token operations
+    // Cache of verified token claims (parses and verifies on a miss)
     @Autowired
-    private JwtUtil jwtUtil;
+    private VerifiedClaimsCache claimsCache;
 
     // Custom user details service for loading user information
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
+    // Authentication mode: "stateless" (token claims only) or "database"
+    @Value("${app.security.auth-mode:stateless}")
+    private String authMode;
+
     /**
      * Process HTTP request and validate JWT token if present
      * 
      * This method is called for each HTTP request. It:
      * 1. Extracts JWT token from Authorization header (Bearer token)
      * 2. Validates token signature and expiration
-     * 3. Loads user details if token is valid
+     * 3. Resolves the user's authority from the token or the database
      * 4. Sets Spring Security authentication context
      * 5. Proceeds with filter chain
      * 
@@ -78,28 +95,23 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         // Get Authorization header from request
         String header = request.getHeader("Authorization");
-        String token = null;
-        String username = null;
+        Claims claims = null;
 
         // Extract token from "Bearer {token}" format
         if (StringUtils.hasText(header) && header.startsWith("Bearer ")) {
-            token = header.substring(7);
-            // Validate token signature and expiration
-            if (jwtUtil.validateToken(token)) {
-                // Extract username from valid token
-                username = jwtUtil.getUsername(token);
-            }
+            String token = header.substring(7);
+            // Validate token signature and expiration once, reusing earlier results
+            claims = claimsCache.getVerifiedClaims(token);
         }
 
         // Set authentication context if token is valid and not already authenticated
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-
-            // Load user details from database
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (claims != null && claims.getSubject() != null
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            // Create Spring Security authentication token with user details and authorities
-            UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                    userDetails, null, userDetails.getAuthorities());
+            // Build authentication from the token, or from the database when required
+            UsernamePasswordAuthenticationToken auth = isStateless(claims)
+                    ? fromClaims(claims)
+                    : fromDatabase(claims.getSubject());
 
             // Set additional request details
             auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -111,4 +123,26 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         // Proceed with the filter chain
         filterChain.doFilter(request, response);
     }
+
+    // Claims are trusted alone only in stateless mode and only if they carry id and role
+    private boolean isStateless(Claims claims) {
+        return "stateless".equalsIgnoreCase(authMode)
+                && claims.get(JwtUtil.CLAIM_USER_ID) != null
+                && claims.get(JwtUtil.CLAIM_ROLE) != null;
+    }
+
+    // Authentication built purely from the signed token claims (no database access)
+    private UsernamePasswordAuthenticationToken fromClaims(Claims claims) {
+        AuthenticatedUser user = new AuthenticatedUser(
+                claims.get(JwtUtil.CLAIM_USER_ID).toString(),
+                claims.getSubject(),
+                claims.get(JwtUtil.CLAIM_ROLE).toString());
+        return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
+
+    // Authentication built from the current database state of the user
+    private UsernamePasswordAuthenticationToken fromDatabase(String username) {
+        AuthenticatedUser user = userDetailsService.loadAuthenticatedUser(username);
+        return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
 }
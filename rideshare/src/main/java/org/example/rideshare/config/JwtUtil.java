@@ -10,7 +10,7 @@
  * - Algorithm: HMAC-SHA256 for token signing
  * - Secret: Loaded from application.properties (app.jwt.secret)
  * - Expiration: Configured in application.properties (app.jwt.expiration-ms)
- * - Claims: Includes username (subject) and role as custom claim
+ * - Claims: Includes username (subject), user id and role as custom claims
  * 
  * Configuration Properties:
  * - app.jwt.secret: Secret key for token signing (should be >256 bits)
@@ -34,12 +34,21 @@ import java.util.Date;
 @Component
 public class JwtUtil {
 
+    // Custom claim carrying the user's role (ROLE_USER or ROLE_DRIVER)
+    public static final String CLAIM_ROLE = "role";
+
+    // Custom claim carrying the user's MongoDB document ID
+    public static final String CLAIM_USER_ID = "uid";
+
     // Cryptographic key for HMAC-SHA256 signing
     private final Key key;
 
     // Token validity duration in milliseconds
     private final long expirationMs;
 
+    // Immutable, thread-safe parser built once and shared by every verification
+    private final JwtParser parser;
+
     /**
      * Constructor - Initializes JWT utility with secret key and expiration
      * 
@@ -52,15 +61,18 @@ public class JwtUtil {
     /**
      * Generate a new JWT token for a user
      * 
-     * Creates a digitally signed JWT token containing the username and role.
-     * The token can be used in subsequent API requests for authentication.
+     * Creates a digitally signed JWT token containing the user id, username and
+     * role. The token carries everything needed to authenticate subsequent API
+     * requests without a database lookup.
      * 
      * Token Claims:
      * - subject (sub): Username of the authenticated user
+     * - uid: MongoDB ID of the authenticated user
      * - role: User role (ROLE_USER or ROLE_DRIVER)
      * - iat (issuedAt): Token generation timestamp
      * - exp (expiration): Token expiration timestamp
      * 
+     * @param userId   The user ID to embed in the token
      * @param username The username to embed in the token
      * @param role     The user role to embed in the token
      * @return Signed JWT token as a compact serialized string
@@ -91,6 +103,16 @@ public class JwtUtil {
      * @param token The JWT token to validate
      * @return true if token is valid, false otherwise
      */
+    /**
+     * Verify a JWT token and return its claims in a single pass
+     * 
+     * Unlike calling validateToken() followed by getUsername(), this checks the
+     * signature and expiration exactly once. Used by VerifiedClaimsCache to
+     * populate its entries.
+     * 
+     * @param token The JWT token to verify
+     * @return The verified claims, or null if the token is invalid or expired
+     */
     /**
      * Parse and verify JWT token claims
      * 
@@ -107,15 +129,19 @@ public class JwtUtil {
             @Value("${app.jwt.expiration-ms}") long expirationMs) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
         this.expirationMs = expirationMs;
+        this.parser = Jwts.parser()
+                .verifyWith((javax.crypto.SecretKey) key)
+                .build();
     }
 
-    public String generateToken(String username, String role) {
+    public String generateToken(String userId, String username, String role) {
         Date now = new Date();
         Date expiry = new Date(now.getTime() + expirationMs);
 
         return Jwts.builder()
                 .setSubject(username)
-                .claim("role", role)
+                .claim(CLAIM_USER_ID, userId)
+                .claim(CLAIM_ROLE, role)
                 .setIssuedAt(now)
                 .setExpiration(expiry)
                 .signWith(key, SignatureAlgorithm.HS256)
@@ -127,7 +153,7 @@ public class JwtUtil {
     }
 
     public String getRole(String token) {
-        Object role = parseClaims(token).get("role");
+        Object role = parseClaims(token).get(CLAIM_ROLE);
         return role != null ? role.toString() : null;
     }
 
@@ -140,11 +166,15 @@ public class JwtUtil {
         }
     }
 
+    public Claims verifyAndGetClaims(String token) {
+        try {
+            return parseClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     private Claims parseClaims(String token) {
-        return (Claims) Jwts.parser()
-                .verifyWith((javax.crypto.SecretKey) key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 }
@@ -0,0 +1,66 @@
+package org.example.rideshare.config;
+
+import org.example.rideshare.model.RideStatus;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import java.util.List;
+
+/**
+ * MongoConversionConfig - Custom MongoDB type conversions
+ * 
+ * Registers the converters below with both the blocking and the reactive
+ * MongoTemplate (Spring Boot picks up the MongoCustomConversions bean):
+ * - RideStatus is written as its integer code and read back from it; query
+ * parameters and updates with a RideStatus are converted the same way
+ * - Documents written before the codes (status as "REQUESTED", ...) still
+ * read; RideStatusMigration rewrites them at startup so queries match them
+ */
+@Configuration
+public class MongoConversionConfig {
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return conversions();
+    }
+
+    // Shared with code that builds its own MongoTemplate (benchmarks)
+    public static MongoCustomConversions conversions() {
+        return new MongoCustomConversions(List.of(
+                new RideStatusToCode(), new CodeToRideStatus(), new NameToRideStatus()));
+    }
+
+    // RideStatus -> persisted code
+    @WritingConverter
+    static class RideStatusToCode implements Converter<RideStatus, Integer> {
+
+        @Override
+        public Integer convert(RideStatus status) {
+            return status.code();
+        }
+    }
+
+    // Persisted code -> RideStatus
+    @ReadingConverter
+    static class CodeToRideStatus implements Converter<Integer, RideStatus> {
+
+        @Override
+        public RideStatus convert(Integer code) {
+            return RideStatus.fromCode(code);
+        }
+    }
+
+    // Legacy string status -> RideStatus (documents not migrated yet)
+    @ReadingConverter
+    static class NameToRideStatus implements Converter<String, RideStatus> {
+
+        @Override
+        public RideStatus convert(String name) {
+            return RideStatus.valueOf(name);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.rideshare.config;
+
+import org.bson.Document;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MongoIndexVerifier - Checks at startup that declared indexes exist
+ *
+ * The queries in RideRepository and UserRepository rely on the indexes
+ * declared on Ride (@CompoundIndex) and User (@Indexed). Without them they fall
+ * back to collection scans, which get slower as the collections grow. That
+ * happens when spring.data.mongodb.auto-index-creation is off and nobody
+ * created the indexes by hand.
+ *
+ * At startup the verifier resolves the index definitions from the entity
+ * mappings and compares their keys with the indexes that exist in MongoDB.
+ *
+ * Modes (app.mongo.index-verification):
+ * - warn (default): log every missing index
+ * - fail: abort startup with IllegalStateException if any index is missing
+ * - off: skip the check
+ *
+ * @author RideShare Development Team
+ * @version 1.0
+ */
+@Component
+public class MongoIndexVerifier implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoIndexVerifier.class);
+
+    // Entities whose declared indexes must exist
+    private static final List<Class<?>> ENTITIES = List.of(Ride.class, User.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+    private final String mode;
+
+    public MongoIndexVerifier(MongoTemplate mongoTemplate, MongoMappingContext mappingContext,
+            @Value("${app.mongo.index-verification:warn}") String mode) {
+        this.mongoTemplate = mongoTemplate;
+        this.mappingContext = mappingContext;
+        this.mode = mode;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if ("off".equalsIgnoreCase(mode)) {
+            return;
+        }
+
+        List<String> missing = findMissingIndexes();
+        if (missing.isEmpty()) {
+            log.info("MongoDB index verification passed for {}", ENTITIES.stream().map(Class::getSimpleName).toList());
+            return;
+        }
+
+        for (String index : missing) {
+            log.warn("Missing MongoDB index {}; queries using it will scan the whole collection", index);
+        }
+        if ("fail".equalsIgnoreCase(mode)) {
+            throw new IllegalStateException("Missing MongoDB indexes: " + missing);
+        }
+    }
+
+    /**
+     * Compare declared and existing index keys
+     *
+     * @return "collection {keys}" for every declared index that does not exist
+     */
+    public List<String> findMissingIndexes() {
+        IndexResolver resolver = IndexResolver.create(mappingContext);
+        List<String> missing = new ArrayList<>();
+
+        for (Class<?> entity : ENTITIES) {
+            String collection = mongoTemplate.getCollectionName(entity);
+            List<String> existing = new ArrayList<>();
+            if (mongoTemplate.collectionExists(collection)) {
+                for (Document index : mongoTemplate.getCollection(collection).listIndexes()) {
+                    existing.add(normalize(index.get("key", Document.class)));
+                }
+            }
+
+            for (IndexDefinition definition : resolver.resolveIndexFor(entity)) {
+                String keys = normalize(definition.getIndexKeys());
+                if (!existing.contains(keys)) {
+                    missing.add(collection + " " + keys);
+                }
+            }
+        }
+        return missing;
+    }
+
+    // Key spec as "{field=direction, ...}" in key order; numeric directions as int (1.0 == 1)
+    private static String normalize(Document keys) {
+        Map<String, Object> normalized = new LinkedHashMap<>();
+        keys.forEach((field, direction) -> normalized.put(field,
+                direction instanceof Number number ? (Object) number.intValue() : direction));
+        return normalized.toString();
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.rideshare.config;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.reactive.BindingContext;
+import org.springframework.web.reactive.result.method.HandlerMethodArgumentResolver;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * ReactiveCurrentUserArgumentResolver - Resolves {@link CurrentUser} in WebFlux
+ * 
+ * Reads the AuthenticatedUser principal from the Reactor context populated by
+ * ReactiveJwtAuthFilter. Signals AuthenticationCredentialsNotFoundException if
+ * the request is not authenticated.
+ * 
+ * Registered by: WebFluxConfig
+ */
+public class ReactiveCurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+                && AuthenticatedUser.class.isAssignableFrom(parameter.getParameterType());
+    }
+
+    @Override
+    public Mono<Object> resolveArgument(MethodParameter parameter, BindingContext bindingContext,
+            ServerWebExchange exchange) {
+        return ReactiveSecurityContextHolder.getContext()
+                .flatMap(context -> Mono.justOrEmpty(context.getAuthentication()))
+                .filter(auth -> auth.getPrincipal() instanceof AuthenticatedUser)
+                .map(auth -> auth.getPrincipal())
+                .switchIfEmpty(Mono.error(
+                        () -> new AuthenticationCredentialsNotFoundException("No authenticated user")));
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.rideshare.config;
+
+import io.jsonwebtoken.Claims;
+import org.example.rideshare.repository.ReactiveUserRepository;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+/**
+ * ReactiveJwtAuthFilter - WebFlux equivalent of JwtAuthFilter
+ *
+ * Validates the JWT bearer token of each request and stores the resulting
+ * authentication in the Reactor context (ReactiveSecurityContextHolder)
+ * instead of a thread-local SecurityContext.
+ *
+ * Request Flow:
+ * 1. Extract "Bearer {token}" from Authorization header
+ * 2. Validate token signature and expiration (cached in VerifiedClaimsCache,
+ * CPU only, safe on the event loop)
+ * 3. Take id and role from the token claims (stateless mode) or load the user
+ * with ReactiveUserRepository (database mode, non-blocking)
+ * 4. Continue the chain with an AuthenticatedUser principal in the context
+ *
+ * Invalid tokens and unknown users leave the request unauthenticated; the
+ * authorization rules of ReactiveSecurityConfig then reject it.
+ *
+ * Registered by: ReactiveSecurityConfig (not a bean, so WebFlux does not add
+ * it to the handler chain a second time)
+ *
+ * @author RideShare Development Team
+ * @version 1.0
+ */
+public class ReactiveJwtAuthFilter implements WebFilter {
+
+    // Cache of verified token claims (parses and verifies on a miss)
+    private final VerifiedClaimsCache claimsCache;
+
+    // Non-blocking user lookups for database mode
+    private final ReactiveUserRepository userRepository;
+
+    // Authentication mode: "stateless" (token claims only) or "database"
+    private final String authMode;
+
+    public ReactiveJwtAuthFilter(VerifiedClaimsCache claimsCache, ReactiveUserRepository userRepository,
+            String authMode) {
+        this.claimsCache = claimsCache;
+        this.userRepository = userRepository;
+        this.authMode = authMode;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        // Get Authorization header from request
+        String header = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (!StringUtils.hasText(header) || !header.startsWith("Bearer ")) {
+            return chain.filter(exchange);
+        }
+
+        // Validate token signature and expiration once, reusing earlier results
+        Claims claims = claimsCache.getVerifiedClaims(header.substring(7));
+        if (claims == null || claims.getSubject() == null) {
+            return chain.filter(exchange);
+        }
+
+        // Resolve the caller, then run the rest of the chain with it in the context
+        Mono<AuthenticatedUser> user = isStateless(claims)
+                ? Mono.just(fromClaims(claims))
+                : fromDatabase(claims.getSubject());
+
+        return user.map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(resolved -> resolved
+                        .map(principal -> chain.filter(exchange).contextWrite(
+                                ReactiveSecurityContextHolder.withAuthentication(
+                                        new UsernamePasswordAuthenticationToken(principal, null,
+                                                principal.getAuthorities()))))
+                        .orElseGet(() -> chain.filter(exchange)));
+    }
+
+    // Claims are trusted alone only in stateless mode and only if they carry id and role
+    private boolean isStateless(Claims claims) {
+        return "stateless".equalsIgnoreCase(authMode)
+                && claims.get(JwtUtil.CLAIM_USER_ID) != null
+                && claims.get(JwtUtil.CLAIM_ROLE) != null;
+    }
+
+    // Principal built purely from the signed token claims (no database access)
+    private AuthenticatedUser fromClaims(Claims claims) {
+        return new AuthenticatedUser(
+                claims.get(JwtUtil.CLAIM_USER_ID).toString(),
+                claims.getSubject(),
+                claims.get(JwtUtil.CLAIM_ROLE).toString());
+    }
+
+    // Principal built from the current database state of the user (empty if deleted)
+    private Mono<AuthenticatedUser> fromDatabase(String username) {
+        return userRepository.findByUsername(username)
+                .map(user -> new AuthenticatedUser(user.getId(), user.getUsername(), user.getRole()));
+    }
+}
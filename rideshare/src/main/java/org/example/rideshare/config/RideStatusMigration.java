@@ -0,0 +1,97 @@
+package org.example.rideshare.config;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Updates;
+import org.bson.Document;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.model.RideStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RideStatusMigration - Rewrites string ride statuses as RideStatus codes
+ *
+ * Rides written before RideStatus was stored as a code carry the status as a
+ * string ("REQUESTED", ...). Such rides still read correctly, but queries by
+ * status compare codes and would not find them. They are converted at startup
+ * once all singletons exist (SmartInitializingSingleton), which is before the
+ * web server accepts connections, before ApplicationRunners and before the
+ * pending-ride index loads. Startup takes as long as the conversion; a large
+ * backlog delays readiness rather than serving status queries that miss rides.
+ *
+ * The collection is rewritten in batches of app.rides.status-migration.batch-size
+ * rides (read the _ids of a batch, then one updateMany on those _ids), so no
+ * single write holds the collection for long. Each update re-checks the old
+ * value, so a ride changed in between is left alone. Once nothing is left to
+ * convert the runner costs one indexed query per status; it is safe to keep
+ * enabled and to run on several instances at once.
+ *
+ * Deploy all instances together: an instance without this change writes
+ * string statuses that the others only convert at their next start.
+ *
+ * @author RideShare Development Team
+ * @version 1.0
+ */
+@Component
+public class RideStatusMigration implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(RideStatusMigration.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public RideStatusMigration(MongoTemplate mongoTemplate,
+            @Value("${app.rides.status-migration.enabled:true}") boolean enabled,
+            @Value("${app.rides.status-migration.batch-size:1000}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled) {
+            migrate();
+        }
+    }
+
+    /**
+     * Convert every string status in the rides collection
+     *
+     * @return Number of rides converted
+     */
+    public long migrate() {
+        MongoCollection<Document> rides = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Ride.class));
+        long converted = 0;
+        for (RideStatus status : RideStatus.values()) {
+            while (true) {
+                List<Object> ids = new ArrayList<>(batchSize);
+                for (Document ride : rides.find(Filters.eq("status", status.name()))
+                        .projection(Projections.include("_id"))
+                        .limit(batchSize)) {
+                    ids.add(ride.get("_id"));
+                }
+                if (ids.isEmpty()) {
+                    break;
+                }
+                converted += rides.updateMany(
+                        Filters.and(Filters.in("_id", ids), Filters.eq("status", status.name())),
+                        Updates.set("status", status.code())).getModifiedCount();
+            }
+        }
+        if (converted > 0) {
+            log.info("Converted {} ride statuses to RideStatus codes", converted);
+        }
+        return converted;
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.rideshare.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * VerifiedClaimsCache - Bounded cache of already-verified JWT claims
+ *
+ * Clients such as polling driver apps send the same bearer token many times
+ * per minute. Parsing and HMAC-verifying it on every request is wasted CPU, so
+ * this cache remembers the claims of tokens that have passed verification.
+ *
+ * Cache Behavior:
+ * - Key: SHA-256 digest of the raw token (the token itself is never stored)
+ * - Value: Claims returned by JwtUtil after signature and expiry checks
+ * - Each entry expires exactly when its token expires
+ * - Size bounded by app.jwt.claims-cache.max-size (least-recently-used evicted)
+ * - Invalid tokens are never cached, so garbage tokens cannot flood the cache
+ *
+ * Metrics (Micrometer, cache name "jwt.claims"):
+ * - cache.gets{result=hit|miss}, cache.evictions, cache.size
+ *
+ * Used by: JwtAuthFilter for per-request token verification
+ *
+ * @author RideShare Development Team
+ * @version 1.0
+ */
+@Component
+public class VerifiedClaimsCache {
+
+    // JWT utility performing the actual signature verification on a miss
+    private final JwtUtil jwtUtil;
+
+    // Token digest -> verified claims
+    private final Cache<ByteBuffer, Claims> cache;
+
+    public VerifiedClaimsCache(JwtUtil jwtUtil,
+            MeterRegistry meterRegistry,
+            @Value("${app.jwt.claims-cache.max-size:10000}") long maxSize,
+            @Value("${app.jwt.expiration-ms}") long expirationMs) {
+        this.jwtUtil = jwtUtil;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry(expirationMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.claims");
+    }
+
+    /**
+     * Return the verified claims for a token, verifying it only on a cache miss
+     *
+     * @param token The raw JWT token from the Authorization header
+     * @return The verified claims, or null if the token is invalid or expired
+     */
+    public Claims getVerifiedClaims(String token) {
+        return cache.get(digest(token), key -> jwtUtil.verifyAndGetClaims(token));
+    }
+
+    // Snapshot of hit/miss/eviction counters
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    // SHA-256 of the token; MessageDigest is not thread-safe so one is created per call
+    private static ByteBuffer digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * TokenExpiry - Expires each entry at its token's "exp" claim
+     *
+     * Tokens without an expiration claim are kept for at most the configured
+     * token lifetime.
+     */
+    private static class TokenExpiry implements Expiry<ByteBuffer, Claims> {
+
+        private final long fallbackTtlMs;
+
+        TokenExpiry(long fallbackTtlMs) {
+            this.fallbackTtlMs = fallbackTtlMs;
+        }
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            long ttlMs = expiration != null
+                    ? expiration.getTime() - System.currentTimeMillis()
+                    : fallbackTtlMs;
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, ttlMs));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
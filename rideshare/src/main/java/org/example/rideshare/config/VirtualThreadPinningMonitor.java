@@ -0,0 +1,110 @@
+package org.example.rideshare.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * VirtualThreadPinningMonitor - Reports virtual threads that pin their carrier
+ *
+ * Active when spring.threads.virtual.enabled=true (profile "virtual-threads")
+ * and the runtime is Java 21+.
+ * In that mode Tomcat runs every request, including the blocking MongoDB
+ * calls, on a virtual thread. A virtual thread that blocks while pinned
+ * (inside a synchronized block or native frame) holds its carrier thread and
+ * silently brings back the platform-thread limit.
+ *
+ * This monitor subscribes to the JFR event jdk.VirtualThreadPinned and:
+ * - Counts events in jvm.threads.virtual.pinned{source=mongodb|security|app|other}
+ * - Logs the top frames of each pinned stack as a warning
+ *
+ * The source tag is taken from the first recognised frame: the MongoDB
+ * driver, Spring Security / the JWT filter, or other application code.
+ *
+ * The build targets Java 17. Virtual threads need a Java 21+ runtime; on
+ * older runtimes Spring Boot ignores the property, requests keep using
+ * platform threads and this monitor is not created.
+ *
+ * @author RideShare Development Team
+ * @version 1.0
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    // JFR event emitted when a virtual thread parks while pinned (JDK 21+)
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    // Number of stack frames logged per pinning event
+    private static final int LOGGED_FRAMES = 8;
+
+    private final MeterRegistry meterRegistry;
+
+    // Background JFR stream
+    private final RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+            @Value("${app.virtual-threads.pinning-threshold-ms:20}") long thresholdMs) {
+        this.meterRegistry = meterRegistry;
+
+        this.stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Virtual threads enabled; monitoring carrier pinning above {} ms", thresholdMs);
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+
+    // Counts and logs one pinning event
+    private void onPinned(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        String source = classify(stackTrace);
+        meterRegistry.counter("jvm.threads.virtual.pinned", "source", source).increment();
+
+        StringBuilder frames = new StringBuilder();
+        if (stackTrace != null) {
+            stackTrace.getFrames().stream().limit(LOGGED_FRAMES).forEach(frame -> frames
+                    .append("\n\tat ").append(frame.getMethod().getType().getName())
+                    .append('.').append(frame.getMethod().getName()));
+        }
+        log.warn("Virtual thread pinned its carrier for {} ms (source={}){}",
+                event.getDuration().toMillis(), source, frames);
+    }
+
+    // Attributes the event to the first recognised frame of the stack
+    private static String classify(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "other";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith("com.mongodb.") || type.startsWith("org.springframework.data.mongodb.")) {
+                return "mongodb";
+            }
+            if (type.startsWith("org.springframework.security.")
+                    || type.startsWith("org.example.rideshare.config.")) {
+                return "security";
+            }
+            if (type.startsWith("org.example.rideshare.")) {
+                return "app";
+            }
+        }
+        return "other";
+    }
+}
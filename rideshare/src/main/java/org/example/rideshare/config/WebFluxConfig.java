@@ -0,0 +1,22 @@
+package org.example.rideshare.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+
+/**
+ * WebFluxConfig - Spring WebFlux customizations (reactive profile)
+ * 
+ * Registers the {@link ReactiveCurrentUserArgumentResolver} so reactive
+ * controllers can declare {@code @CurrentUser AuthenticatedUser} parameters.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class WebFluxConfig implements WebFluxConfigurer {
+
+    @Override
+    public void configureArgumentResolvers(ArgumentResolverConfigurer configurer) {
+        configurer.addCustomResolver(new ReactiveCurrentUserArgumentResolver());
+    }
+}
@@ -6,6 +6,7 @@ import org.example.rideshare.dto.LoginRequest;
 import org.example.rideshare.dto.RegisterRequest;
 import org.example.rideshare.service.AuthService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 
@@ -35,6 +36,7 @@ import org.springframework.web.bind.annotation.*;
  */
 @RestController
 @RequestMapping("/api/auth")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class AuthController {
 
     @Autowired
@@ -54,11 +56,11 @@ public class AuthController {
      *                Process:
      *                1. Validate input using @Valid annotation (username size, role
      *                pattern, etc.)
-     *                2. Check for duplicate username in database
-     *                3. Hash password using BCryptPasswordEncoder
-     *                4. Save user to MongoDB
-     *                5. Generate JWT token using JwtUtil (expires in 1 hour)
-     *                6. Return token in response body
+     *                2. Hash password using BCryptPasswordEncoder
+     *                3. Insert user into MongoDB (duplicate usernames are
+     *                rejected by the unique index)
+     *                4. Generate JWT token using JwtUtil (expires in 1 hour)
+     *                5. Return token in response body
      * 
      * @return ResponseEntity with status 201 (Created) and AuthResponse containing
      *         JWT token
@@ -0,0 +1,120 @@
+package org.example.rideshare.controller;
+
+import jakarta.validation.Valid;
+import org.example.rideshare.config.AuthenticatedUser;
+import org.example.rideshare.config.CurrentUser;
+import org.example.rideshare.dto.DriverLocationBatchRequest;
+import org.example.rideshare.dto.DriverLocationRequest;
+import org.example.rideshare.service.DriverPositionIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * DriverController - Driver presence and position
+ * 
+ * Endpoints:
+ * - PUT /api/v1/driver/location : Report current position (DRIVER only)
+ * - POST /api/v1/driver/locations : Report a batch of buffered pings (DRIVER only)
+ * - DELETE /api/v1/driver/location : Go offline (DRIVER only)
+ * 
+ * Positions are kept in memory only (DriverPositionIndex) and never block,
+ * so this controller serves both the servlet and the reactive stack.
+ * 
+ * Author: RideShare Development Team
+ * Version: 1.0
+ */
+@RestController
+@RequestMapping("/api/v1/driver")
+public class DriverController {
+
+    @Autowired
+    private DriverPositionIndex driverPositionIndex;
+
+    /**
+     * Report the driver's current position
+     * 
+     * Endpoint: PUT /api/v1/driver/location
+     * Access: DRIVER only (requires ROLE_DRIVER)
+     * 
+     * Send every few seconds while online; a driver who stops reporting for
+     * app.drivers.location.ttl-ms is treated as offline.
+     * 
+     * Example Request:
+     * PUT /api/v1/driver/location
+     * Authorization: Bearer <JWT_TOKEN>
+     * 
+     * { "latitude": 12.9716, "longitude": 77.5946, "timestamp": 1760000000000 }
+     * 
+     * timestamp (epoch millis) is optional; a ping older than the stored
+     * position is ignored.
+     * 
+     * @return 204 (No Content)
+     * 
+     *         Errors:
+     *         - 400 Bad Request: Missing or out-of-range coordinates
+     *         - 401 Unauthorized: Missing or invalid JWT token
+     *         - 403 Forbidden: User lacks ROLE_DRIVER authority
+     *         - 503 Service Unavailable: Driver capacity reached
+     */
+    @PutMapping("/location")
+    @PreAuthorize("hasAuthority('ROLE_DRIVER')")
+    public ResponseEntity<Void> updateLocation(@Valid @RequestBody DriverLocationRequest request,
+            @CurrentUser AuthenticatedUser driver) {
+        driverPositionIndex.update(driver.getId(), List.of(request));
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Report a batch of buffered pings
+     * 
+     * Endpoint: POST /api/v1/driver/locations
+     * Access: DRIVER only (requires ROLE_DRIVER)
+     * 
+     * For apps that buffer pings, e.g. while the connection is poor. Only the
+     * latest ping (by timestamp; pings without one count as taken on
+     * arrival) is kept.
+     * 
+     * Example Request:
+     * POST /api/v1/driver/locations
+     * Authorization: Bearer <JWT_TOKEN>
+     * 
+     * { "pings": [
+     *     { "latitude": 12.9716, "longitude": 77.5946, "timestamp": 1760000000000 },
+     *     { "latitude": 12.9721, "longitude": 77.5950, "timestamp": 1760000003000 } ] }
+     * 
+     * @return 204 (No Content)
+     * 
+     *         Errors:
+     *         - 400 Bad Request: No pings, more than 100, or out-of-range
+     *         coordinates
+     *         - 401 Unauthorized: Missing or invalid JWT token
+     *         - 403 Forbidden: User lacks ROLE_DRIVER authority
+     *         - 503 Service Unavailable: Driver capacity reached
+     */
+    @PostMapping("/locations")
+    @PreAuthorize("hasAuthority('ROLE_DRIVER')")
+    public ResponseEntity<Void> reportLocations(@Valid @RequestBody DriverLocationBatchRequest request,
+            @CurrentUser AuthenticatedUser driver) {
+        driverPositionIndex.update(driver.getId(), request.getPings());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Go offline
+     * 
+     * Endpoint: DELETE /api/v1/driver/location
+     * Access: DRIVER only (requires ROLE_DRIVER)
+     * 
+     * @return 204 (No Content)
+     */
+    @DeleteMapping("/location")
+    @PreAuthorize("hasAuthority('ROLE_DRIVER')")
+    public ResponseEntity<Void> goOffline(@CurrentUser AuthenticatedUser driver) {
+        driverPositionIndex.remove(driver.getId());
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.rideshare.controller;
+
+import jakarta.validation.Valid;
+import org.example.rideshare.dto.LoginRequest;
+import org.example.rideshare.dto.RegisterRequest;
+import org.example.rideshare.service.AuthService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.*;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * ReactiveAuthController - WebFlux variant of AuthController
+ * 
+ * Purpose: Registration and login for the reactive profile, same routes and
+ * responses as AuthController.
+ * 
+ * Endpoints:
+ * - POST /api/auth/register : Create new user account with JWT token (PUBLIC)
+ * - POST /api/auth/login : Authenticate user and return JWT token (PUBLIC)
+ * 
+ * AuthService is blocking (MongoDB writes, BCrypt on the bounded hashing
+ * pool), so each call is moved to Reactor's boundedElastic scheduler and
+ * never runs on an event-loop thread. Login and registration are short,
+ * infrequent requests; the long-lived driver connections this profile is
+ * meant for only use the non-blocking ride endpoints.
+ * 
+ * Error Handling:
+ * - 400 Bad Request: Invalid input data or duplicate username
+ * - 401 Unauthorized: Invalid credentials during login
+ * - 503 Service Unavailable: Password hashing queue full (Retry-After)
+ * 
+ * Author: RideShare Development Team
+ * Version: 1.0
+ */
+@RestController
+@RequestMapping("/api/auth")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuthController {
+
+    @Autowired
+    private AuthService authService;
+
+    /**
+     * Register a new user
+     * 
+     * Endpoint: POST /api/auth/register
+     * Access: PUBLIC (no authentication required)
+     * 
+     * @param request RegisterRequest with username, password and role
+     * @return Mono of 201 (Created) with AuthResponse, or 400 with
+     *         {"message": ...} if the username already exists
+     */
+    @PostMapping("/register")
+    public Mono<ResponseEntity<?>> register(@Valid @RequestBody RegisterRequest request) {
+        return Mono.fromCallable(() -> authService.register(request))
+                .subscribeOn(Schedulers.boundedElastic())
+                .<ResponseEntity<?>>map(response -> ResponseEntity.status(HttpStatus.CREATED).body(response))
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(
+                        ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                                .body(new AuthController.ErrorResponse(e.getMessage()))));
+    }
+
+    /**
+     * Login a user
+     * 
+     * Endpoint: POST /api/auth/login
+     * Access: PUBLIC (no authentication required)
+     * 
+     * @param request LoginRequest with username and password
+     * @return Mono of 200 (OK) with AuthResponse, or 401 with {"message": ...}
+     *         if the credentials are invalid
+     */
+    @PostMapping("/login")
+    public Mono<ResponseEntity<?>> login(@Valid @RequestBody LoginRequest request) {
+        return Mono.fromCallable(() -> authService.login(request))
+                .subscribeOn(Schedulers.boundedElastic())
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .onErrorResume(AuthenticationException.class, e -> Mono.just(
+                        ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                                .body(new AuthController.ErrorResponse("Invalid username or password"))));
+    }
+}
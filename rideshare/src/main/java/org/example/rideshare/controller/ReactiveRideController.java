@@ -0,0 +1,165 @@
+package org.example.rideshare.controller;
+
+import jakarta.validation.Valid;
+import org.example.rideshare.config.AuthenticatedUser;
+import org.example.rideshare.config.CurrentUser;
+import org.example.rideshare.dto.CreateRideRequest;
+import org.example.rideshare.dto.PendingRideCard;
+import org.example.rideshare.dto.RideHistoryRow;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.service.ReactiveRideService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * ReactiveRideController - WebFlux variant of RideController
+ * 
+ * Purpose: Serves the ride API without blocking a thread per request, so a
+ * small event-loop pool can hold tens of thousands of idle driver connections.
+ * Active only when the application runs as a reactive web application
+ * (--spring.profiles.active=reactive); RideController serves the same routes
+ * otherwise.
+ * 
+ * Endpoints (same routes, roles and JSON as RideController):
+ * - POST /api/v1/rides : Create ride (USER only)
+ * - GET /api/v1/user/rides : View my rides (USER only)
+ * - GET /api/v1/driver/rides/requests : View pending rides (DRIVER only)
+ * - GET /api/v1/driver/rides/nearby : Pending rides near the driver (DRIVER only)
+ * - POST /api/v1/driver/rides/{id}/accept : Accept ride (DRIVER only)
+ * - POST /api/v1/rides/{id}/complete : Complete ride (USER/DRIVER)
+ * 
+ * Security: ReactiveJwtAuthFilter authenticates the Bearer token and
+ * @PreAuthorize is enforced by reactive method security. The caller is
+ * injected as @CurrentUser AuthenticatedUser from the Reactor context.
+ * 
+ * Author: RideShare Development Team
+ * Version: 1.0
+ */
+@RestController
+@RequestMapping("/api/v1")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRideController {
+
+    @Autowired
+    private ReactiveRideService rideService;
+
+    /**
+     * Create a new ride request
+     * 
+     * Endpoint: POST /api/v1/rides
+     * Access: USER only (requires ROLE_USER)
+     * 
+     * @param request CreateRideRequest with pickupLocation and dropLocation
+     * @return Mono of 200 (OK) with the created Ride (status "REQUESTED")
+     */
+    @PostMapping("/rides")
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    public Mono<ResponseEntity<Ride>> createRide(@Valid @RequestBody CreateRideRequest request,
+            @CurrentUser AuthenticatedUser user) {
+        return rideService.createRide(request, user.getId()).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Retrieve all rides created by current user
+     * 
+     * Endpoint: GET /api/v1/user/rides
+     * Access: USER only (requires ROLE_USER)
+     * 
+     * @return 200 (OK) with the user's rides, streamed from MongoDB into a
+     *         JSON array
+     */
+    @GetMapping("/user/rides")
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    public Mono<ResponseEntity<Flux<RideHistoryRow>>> getMyRides(@CurrentUser AuthenticatedUser user) {
+        return Mono.just(ResponseEntity.ok(rideService.getUserRides(user.getId())));
+    }
+
+    /**
+     * Retrieve pending ride requests (unaccepted rides), one page at a time
+     * 
+     * Endpoint: GET /api/v1/driver/rides/requests?limit={n}&cursor={token}
+     * Access: DRIVER only (requires ROLE_DRIVER)
+     * 
+     * Same keyset pagination as RideController.getPendingRides(): JSON array
+     * body, X-Next-Cursor header when more rides follow.
+     * 
+     * @return Mono of 200 (OK) with up to limit rides in status "REQUESTED";
+     *         400 if the cursor is malformed
+     */
+    @GetMapping("/driver/rides/requests")
+    @PreAuthorize("hasAuthority('ROLE_DRIVER')")
+    public Mono<ResponseEntity<List<PendingRideCard>>> getPendingRides(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "0") int limit) {
+        return rideService.getPendingRides(cursor, limit).map(page -> {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(RideController.NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getRides());
+        });
+    }
+
+    /**
+     * Retrieve the pending ride requests nearest to the driver
+     * 
+     * Endpoint: GET /api/v1/driver/rides/nearby?lat={lat}&lng={lng}&radius={m}&limit={n}
+     * Access: DRIVER only (requires ROLE_DRIVER)
+     * 
+     * Same parameters and limits as RideController.getNearbyRides().
+     * 
+     * @return Mono of 200 (OK) with up to limit rides, nearest first; 400 if
+     *         the coordinates are out of range
+     */
+    @GetMapping("/driver/rides/nearby")
+    @PreAuthorize("hasAuthority('ROLE_DRIVER')")
+    public Mono<ResponseEntity<List<PendingRideCard>>> getNearbyRides(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "0") double radius,
+            @RequestParam(defaultValue = "0") int limit) {
+        return rideService.getNearbyPendingRides(lat, lng, radius, limit).collectList().map(ResponseEntity::ok);
+    }
+
+    /**
+     * Accept a pending ride request
+     * 
+     * Endpoint: POST /api/v1/driver/rides/{rideId}/accept
+     * Access: DRIVER only (requires ROLE_DRIVER)
+     * 
+     * @param rideId MongoDB ObjectId of the ride to accept
+     * @return Mono of 200 (OK) with the updated Ride (status "ACCEPTED");
+     *         404 if the ride does not exist, 400 if it is not REQUESTED
+     */
+    @PostMapping("/driver/rides/{rideId}/accept")
+    @PreAuthorize("hasAuthority('ROLE_DRIVER')")
+    public Mono<ResponseEntity<Ride>> acceptRide(@PathVariable String rideId,
+            @CurrentUser AuthenticatedUser driver) {
+        return rideService.acceptRide(rideId, driver.getId()).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Complete a ride
+     * 
+     * Endpoint: POST /api/v1/rides/{rideId}/complete
+     * Access: USER or DRIVER (requires either ROLE_USER or ROLE_DRIVER)
+     * 
+     * @param rideId MongoDB ObjectId of the ride to complete
+     * @return Mono of 200 (OK) with the updated Ride (status "COMPLETED");
+     *         404 if the ride does not exist, 403 if the caller is neither its
+     *         passenger nor its driver, 400 if it is not ACCEPTED
+     */
+    @PostMapping("/rides/{rideId}/complete")
+    @PreAuthorize("hasAnyAuthority('ROLE_USER','ROLE_DRIVER')")
+    public Mono<ResponseEntity<Ride>> completeRide(@PathVariable String rideId,
+            @CurrentUser AuthenticatedUser user) {
+        return rideService.completeRide(rideId, user.getId()).map(ResponseEntity::ok);
+    }
+}
@@ -1,16 +1,24 @@
 package org.example.rideshare.controller;
 
 import jakarta.validation.Valid;
+import org.example.rideshare.config.AuthenticatedUser;
+import org.example.rideshare.config.CurrentUser;
+import org.example.rideshare.dto.BulkRideRequest;
+import org.example.rideshare.dto.BulkRideResponse;
 import org.example.rideshare.dto.CreateRideRequest;
+import org.example.rideshare.dto.PendingRideCard;
+import org.example.rideshare.dto.RideFeedPage;
+import org.example.rideshare.dto.RideHistoryRow;
 import org.example.rideshare.model.Ride;
-import org.example.rideshare.model.User;
-import org.example.rideshare.repository.UserRepository;
+import org.example.rideshare.service.RideEventBroadcaster;
 import org.example.rideshare.service.RideService;
-import org.example.rideshare.util.SecurityUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -22,8 +30,11 @@ import java.util.List;
  * 
  * Endpoints:
  * - POST /api/v1/rides : Create ride (USER only)
+ * - POST /api/v1/rides/bulk : Create many rides at once (USER only)
  * - GET /api/v1/user/rides : View my rides (USER only)
- * - GET /api/v1/driver/rides/requests : View pending rides (DRIVER only)
+ * - GET /api/v1/driver/rides/requests : View pending rides, paginated (DRIVER only)
+ * - GET /api/v1/driver/rides/stream : Live ride events, SSE (DRIVER only)
+ * - GET /api/v1/driver/rides/nearby : Pending rides near the driver (DRIVER only)
  * - POST /api/v1/driver/rides/{id}/accept : Accept ride (DRIVER only)
  * - POST /api/v1/rides/{id}/complete : Complete ride (USER/DRIVER)
  * 
@@ -35,22 +46,27 @@ import java.util.List;
  * 1. JWT token extracted from Authorization header by JwtAuthFilter
  * 2. Token signature validated using secret key
  * 3. Token expiration checked
- * 4. User role extracted from token claims
+ * 4. User id and role extracted from token claims
  * 5. @PreAuthorize evaluates role requirements
  * 6. Request allowed or rejected based on role
+ * 7. Caller injected as @CurrentUser AuthenticatedUser (no database lookup)
  * 
  * Author: RideShare Development Team
  * Version: 1.0
  */
 @RestController
 @RequestMapping("/api/v1")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class RideController {
 
+    // Response header carrying the continuation token of a paginated feed
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private RideService rideService;
 
     @Autowired
-    private UserRepository userRepository;
+    private RideEventBroadcaster rideEventBroadcaster;
 
     /**
      * Create a new ride request
@@ -64,13 +80,13 @@ public class RideController {
      *                - dropLocation (required, non-blank)
      * 
      *                Process:
-     *                1. Extract current user from JWT token using SecurityUtil
-     *                2. Retrieve User object from database by username
-     *                3. Create ride with userId, default status "REQUESTED", null
+     *                1. Receive current user from the security context
+     *                (@CurrentUser)
+     *                2. Create ride with userId, default status "REQUESTED", null
      *                driverId
-     *                4. Set createdAt timestamp
-     *                5. Save ride to MongoDB
-     *                6. Return created ride object
+     *                3. Set createdAt timestamp
+     *                4. Save ride to MongoDB
+     *                5. Return created ride object
      * 
      * @return ResponseEntity with status 201 (Created) and Ride object
      *         Ride object includes: id, userId, driverId (null), pickupLocation,
@@ -94,28 +110,82 @@ public class RideController {
      *         "driverId": null,
      *         "pickupLocation": "Central Station",
      *         "dropLocation": "Airport Terminal 1",
+     *         "pickupPoint": null,
+     *         "dropPoint": null,
      *         "status": "REQUESTED",
-     *         "createdAt": "2024-01-15T10:30:00Z"
+     *         "createdAt": "2024-01-15T10:30:00Z",
+     *         "completedAt": null
      *         }
      * 
      *         Errors:
      *         - 400 Bad Request: Invalid input (pickup/drop blank)
      *         - 401 Unauthorized: Missing or invalid JWT token
      *         - 403 Forbidden: User lacks ROLE_USER authority
+     *         - 429 Too Many Requests: Ingest queue full
+     *         (app.rides.ingest.batched=true); retry after Retry-After seconds
      */
     @PostMapping("/rides")
     @PreAuthorize("hasAuthority('ROLE_USER')")
-    public ResponseEntity<Ride> createRide(@Valid @RequestBody CreateRideRequest request) {
-        // Extract current authenticated username from security context
-        String username = SecurityUtil.getCurrentUsername();
-        // Retrieve user from database (guaranteed to exist due to authentication)
-        User user = userRepository.findByUsername(username).orElseThrow();
+    public ResponseEntity<Ride> createRide(@Valid @RequestBody CreateRideRequest request,
+            @CurrentUser AuthenticatedUser user) {
         // Delegate to service layer to create ride with user's ID
         Ride ride = rideService.createRide(request, user.getId());
         // Return 201 Created with created ride object
         return ResponseEntity.ok(ride);
     }
 
+    /**
+     * Create many ride requests in one call
+     * 
+     * Endpoint: POST /api/v1/rides/bulk
+     * Access: USER only (requires ROLE_USER)
+     * Security: Requires valid JWT Bearer token
+     * 
+     * @param request BulkRideRequest containing up to 1000 CreateRideRequest
+     *                entries (same validation as POST /api/v1/rides)
+     * 
+     *                Process:
+     *                1. Validate every entry
+     *                2. Insert the rides with unordered insertMany calls of
+     *                app.rides.bulk.chunk-size rides each
+     *                3. Report each entry as CREATED, INVALID or FAILED
+     * 
+     *                All rides belong to the caller and start as REQUESTED.
+     * 
+     * @return ResponseEntity with status 200 (OK) and BulkRideResponse
+     * 
+     *         Example Request:
+     *         {
+     *         "rides": [
+     *         { "pickupLocation": "Convention Center", "dropLocation": "Hotel A" },
+     *         { "pickupLocation": "Convention Center", "dropLocation": "Hotel B",
+     *         "pickupPoint": { "type": "Point", "coordinates": [200.0, 12.97] } }
+     *         ]
+     *         }
+     * 
+     *         Example Response (200):
+     *         {
+     *         "created": 1,
+     *         "failed": 1,
+     *         "results": [
+     *         { "index": 0, "status": "CREATED", "id": "507f...", "message": null },
+     *         { "index": 1, "status": "INVALID", "id": null, "message": "Invalid pickupPoint" }
+     *         ]
+     *         }
+     * 
+     *         Errors:
+     *         - 400 Bad Request: Empty list, more than 1000 entries or blank
+     *         pickup/drop in an entry
+     *         - 401 Unauthorized: Missing or invalid JWT token
+     *         - 403 Forbidden: User lacks ROLE_USER authority
+     */
+    @PostMapping("/rides/bulk")
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    public ResponseEntity<BulkRideResponse> createRides(@Valid @RequestBody BulkRideRequest request,
+            @CurrentUser AuthenticatedUser user) {
+        return ResponseEntity.ok(rideService.createRides(request.getRides(), user.getId()));
+    }
+
     /**
      * Retrieve all rides created by current user
      * 
@@ -124,12 +194,14 @@ public class RideController {
      * Security: Requires valid JWT Bearer token
      * 
      * Process:
-     * 1. Extract current user from JWT token using SecurityUtil
-     * 2. Retrieve User object from database by username
-     * 3. Query all rides where userId matches current user
-     * 4. Return list of rides (could be empty)
+     * 1. Receive current user from the security context (@CurrentUser)
+     * 2. Query all rides where userId matches current user
+     * 3. Return list of rides (could be empty), newest first
      * 
-     * @return ResponseEntity with status 200 (OK) and List<Ride>
+     * Only the history columns are read from MongoDB (RideHistoryRow); the
+     * passenger ID and coordinates are not included.
+     * 
+     * @return ResponseEntity with status 200 (OK) and List<RideHistoryRow>
      *         Returns all rides created by user regardless of status
      *         (REQUESTED, ACCEPTED, COMPLETED)
      * 
@@ -141,7 +213,6 @@ public class RideController {
      *         [
      *         {
      *         "id": "507f1f77bcf86cd799439011",
-     *         "userId": "507f1f77bcf86cd799439010",
      *         "driverId": "507f1f77bcf86cd799439012",
      *         "pickupLocation": "Central Station",
      *         "dropLocation": "Airport Terminal 1",
@@ -150,7 +221,6 @@ public class RideController {
      *         },
      *         {
      *         "id": "507f1f77bcf86cd799439013",
-     *         "userId": "507f1f77bcf86cd799439010",
      *         "driverId": null,
      *         "pickupLocation": "Hotel Downtown",
      *         "dropLocation": "Train Station",
@@ -165,59 +235,174 @@ public class RideController {
      */
     @GetMapping("/user/rides")
     @PreAuthorize("hasAuthority('ROLE_USER')")
-    public ResponseEntity<List<Ride>> getMyRides() {
-        // Extract current authenticated username from security context
-        String username = SecurityUtil.getCurrentUsername();
-        // Retrieve user from database (guaranteed to exist due to authentication)
-        User user = userRepository.findByUsername(username).orElseThrow();
+    public ResponseEntity<List<RideHistoryRow>> getMyRides(@CurrentUser AuthenticatedUser user) {
         // Get all rides for this user and return
         return ResponseEntity.ok(rideService.getUserRides(user.getId()));
     }
 
     /**
-     * Retrieve all pending ride requests (unaccepted rides)
+     * Retrieve pending ride requests (unaccepted rides), one page at a time
      * 
-     * Endpoint: GET /api/v1/driver/rides/requests
+     * Endpoint: GET /api/v1/driver/rides/requests?limit={n}&cursor={token}
      * Access: DRIVER only (requires ROLE_DRIVER)
      * Security: Requires valid JWT Bearer token
      * 
-     * Purpose: Allow drivers to see all ride requests available to accept
+     * Purpose: Allow drivers to see ride requests available to accept
      * A ride is "pending" when status = "REQUESTED" and driverId = null
      * 
-     * Process:
-     * 1. Query all rides with status = "REQUESTED"
-     * 2. Return list of rides available for driver to accept
-     * 
-     * @return ResponseEntity with status 200 (OK) and List<Ride>
-     *         Returns all rides with status "REQUESTED"
+     * Pagination (keyset on createdAt, id):
+     * - limit: page size (optional, default app.rides.pending-feed.default-page-size,
+     * capped at app.rides.pending-feed.max-page-size)
+     * - cursor: value of X-Next-Cursor from the previous page (optional, omit
+     * for the first page)
+     * - The body stays a plain JSON array; the X-Next-Cursor response header is
+     * present only when more rides follow
+     * - Each page is an index range read, so its cost does not grow with the
+     * number of pending rides
+     * 
+     * Rides are returned as PendingRideCard: only what a driver needs to
+     * decide and accept (no passenger ID, status or drop coordinates).
+     * 
+     * @return ResponseEntity with status 200 (OK) and List<PendingRideCard>
+     *         Returns up to limit rides with status "REQUESTED"
      *         Ordered by creation time (oldest first)
      * 
      *         Example Request:
-     *         GET /api/v1/driver/rides/requests
+     *         GET /api/v1/driver/rides/requests?limit=1
      *         Authorization: Bearer <JWT_TOKEN>
      * 
      *         Example Response (200):
+     *         X-Next-Cursor: MTcwNTMxNDYwMDAwMDo1MDdmMWY3N2JjZjg2Y2Q3OTk0MzkwMTE
      *         [
      *         {
      *         "id": "507f1f77bcf86cd799439011",
-     *         "userId": "507f1f77bcf86cd799439010",
-     *         "driverId": null,
      *         "pickupLocation": "Central Station",
      *         "dropLocation": "Airport Terminal 1",
-     *         "status": "REQUESTED",
+     *         "pickupPoint": { "type": "Point", "coordinates": [77.5950, 12.9720] },
      *         "createdAt": "2024-01-15T10:30:00Z"
      *         }
      *         ]
      * 
      *         Errors:
+     *         - 400 Bad Request: Malformed cursor
      *         - 401 Unauthorized: Missing or invalid JWT token
      *         - 403 Forbidden: User lacks ROLE_DRIVER authority
      */
     @GetMapping("/driver/rides/requests")
     @PreAuthorize("hasAuthority('ROLE_DRIVER')")
-    public ResponseEntity<List<Ride>> getPendingRides() {
-        // Retrieve and return all pending rides from service layer
-        return ResponseEntity.ok(rideService.getPendingRides());
+    public ResponseEntity<List<PendingRideCard>> getPendingRides(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "0") int limit) {
+        // Retrieve one page of pending rides from service layer
+        RideFeedPage page = rideService.getPendingRides(cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getRides());
+    }
+
+    /**
+     * Retrieve the pending ride requests nearest to the driver
+     * 
+     * Endpoint: GET /api/v1/driver/rides/nearby?lat={lat}&lng={lng}&radius={m}&limit={n}
+     * Access: DRIVER only (requires ROLE_DRIVER)
+     * Security: Requires valid JWT Bearer token
+     * 
+     * Purpose: Let a driver download only the few requests worth driving to
+     * instead of the whole pending backlog
+     * 
+     * Parameters:
+     * - lat, lng: driver's current position in degrees (required)
+     * - radius: search radius in meters (optional, default
+     * app.rides.nearby.default-radius-meters, capped at
+     * app.rides.nearby.max-radius-meters)
+     * - limit: maximum rides (optional, default app.rides.nearby.default-limit,
+     * capped at app.rides.nearby.max-limit)
+     * 
+     * Only rides created with a pickupPoint are considered. The query is a
+     * 2dsphere index $near search on (status, pickupPoint).
+     * 
+     * @return ResponseEntity with status 200 (OK) and List<PendingRideCard>,
+     *         nearest pickup first
+     * 
+     *         Example Request:
+     *         GET /api/v1/driver/rides/nearby?lat=12.9716&lng=77.5946&radius=3000&limit=5
+     *         Authorization: Bearer <JWT_TOKEN>
+     * 
+     *         Example Response (200):
+     *         [
+     *         {
+     *         "id": "507f1f77bcf86cd799439011",
+     *         "pickupLocation": "Central Station",
+     *         "dropLocation": "Airport Terminal 1",
+     *         "pickupPoint": { "type": "Point", "coordinates": [77.5950, 12.9720] },
+     *         "createdAt": "2024-01-15T10:30:00Z"
+     *         }
+     *         ]
+     * 
+     *         Errors:
+     *         - 400 Bad Request: Missing or out-of-range coordinates
+     *         - 401 Unauthorized: Missing or invalid JWT token
+     *         - 403 Forbidden: User lacks ROLE_DRIVER authority
+     */
+    @GetMapping("/driver/rides/nearby")
+    @PreAuthorize("hasAuthority('ROLE_DRIVER')")
+    public ResponseEntity<List<PendingRideCard>> getNearbyRides(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "0") double radius,
+            @RequestParam(defaultValue = "0") int limit) {
+        // Nearest pending rides within the radius
+        return ResponseEntity.ok(rideService.getNearbyPendingRides(lat, lng, radius, limit));
+    }
+
+    /**
+     * Stream ride events to a driver (Server-Sent Events)
+     * 
+     * Endpoint: GET /api/v1/driver/rides/stream
+     * Access: DRIVER only (requires ROLE_DRIVER)
+     * Security: Requires valid JWT Bearer token
+     * 
+     * Purpose: Push instead of polling GET /api/v1/driver/rides/requests.
+     * Load the feed once, then keep this stream open and apply its events.
+     * 
+     * Events (data is JSON):
+     * - subscribed: first event of a new stream; data {}
+     * - ride-created: a new REQUESTED ride; data is its card, the same fields
+     * as the pending-ride feed
+     * - ride-taken: a ride was accepted or dispatched; data {"id": "<rideId>"}
+     * - resync: events since Last-Event-ID are no longer available; reload the
+     * pending-ride feed
+     * - ": heartbeat" comment lines every app.rides.events.heartbeat-ms
+     * 
+     * Reconnects (after a network error, timeout or slow-consumer eviction)
+     * send the Last-Event-ID header, which EventSource does automatically, and
+     * receive every event that was missed.
+     * 
+     * @param lastEventId Last-Event-ID header (optional)
+     * @return text/event-stream response
+     * 
+     *         Example Request:
+     *         GET /api/v1/driver/rides/stream
+     *         Authorization: Bearer <JWT_TOKEN>
+     *         Accept: text/event-stream
+     * 
+     *         Example Response (200):
+     *         id:lq3k2x0a-41
+     *         event:ride-created
+     *         data:{"id":"507f1f77bcf86cd799439011","pickupLocation":"Central Station",...}
+     * 
+     *         Errors:
+     *         - 401 Unauthorized: Missing or invalid JWT token
+     *         - 403 Forbidden: User lacks ROLE_DRIVER authority
+     */
+    @GetMapping(path = "/driver/rides/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAuthority('ROLE_DRIVER')")
+    public SseEmitter streamRideEvents(
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        // Register the stream; events are written by RideEventBroadcaster
+        return rideEventBroadcaster.subscribe(lastEventId);
     }
 
     /**
@@ -231,13 +416,16 @@ public class RideController {
      *               Must be a valid MongoDB ObjectId (24 hex characters)
      * 
      *               Process:
-     *               1. Extract current driver from JWT token using SecurityUtil
-     *               2. Retrieve Driver User object from database by username
-     *               3. Find ride by rideId
-     *               4. Verify ride exists and status is "REQUESTED"
-     *               5. Update ride: set driverId, change status to "ACCEPTED"
-     *               6. Save updated ride to MongoDB
-     *               7. Return updated ride object
+     *               1. Receive current driver from the security context
+     *               (@CurrentUser)
+     *               2. In one atomic findAndModify, match the ride by rideId
+     *               and status "REQUESTED", set driverId and status "ACCEPTED"
+     *               3. If nothing matched, report 404 (no such ride) or a
+     *               conflict (already accepted or completed)
+     *               4. Return updated ride object
+     * 
+     *               Of several drivers accepting the same ride at once, exactly
+     *               one succeeds; the others get the conflict error.
      * 
      * @return ResponseEntity with status 200 (OK) and updated Ride object
      *         Ride object now includes: driverId assigned, status = "ACCEPTED"
@@ -266,12 +454,8 @@ public class RideController {
      */
     @PostMapping("/driver/rides/{rideId}/accept")
     @PreAuthorize("hasAuthority('ROLE_DRIVER')")
-    public ResponseEntity<Ride> acceptRide(@PathVariable String rideId) {
-        // Extract current authenticated driver from security context
-        String username = SecurityUtil.getCurrentUsername();
-        // Retrieve driver user from database (guaranteed to exist due to
-        // authentication)
-        User driver = userRepository.findByUsername(username).orElseThrow();
+    public ResponseEntity<Ride> acceptRide(@PathVariable String rideId,
+            @CurrentUser AuthenticatedUser driver) {
         // Accept ride with driver's ID and return updated ride
         return ResponseEntity.ok(rideService.acceptRide(rideId, driver.getId()));
     }
@@ -291,11 +475,14 @@ public class RideController {
      *               acceptor)
      * 
      *               Process:
-     *               1. Find ride by rideId
-     *               2. Verify ride exists and status is "ACCEPTED"
-     *               3. Update ride: change status to "COMPLETED"
-     *               4. Save updated ride to MongoDB
-     *               5. Return updated ride object
+     *               1. Receive current user from the security context
+     *               (@CurrentUser)
+     *               2. In one atomic findAndModify, match the ride by rideId,
+     *               status "ACCEPTED" and the caller as passenger or driver,
+     *               and set status "COMPLETED"
+     *               3. If nothing matched, report 404 (no such ride), 403 (caller
+     *               not part of the ride) or 400 (not ACCEPTED)
+     *               4. Return updated ride object
      * 
      * @return ResponseEntity with status 200 (OK) and updated Ride object
      *         Ride object now has: status = "COMPLETED"
@@ -317,16 +504,17 @@ public class RideController {
      *         }
      * 
      *         Errors:
-     *         - 400 Bad Request: Invalid ride ID format
+     *         - 400 Bad Request: Invalid ride ID format, or ride not in ACCEPTED
+     *         status (already completed or still requested)
      *         - 401 Unauthorized: Missing or invalid JWT token
+     *         - 403 Forbidden: Caller is neither the passenger nor the driver
      *         - 404 Not Found: Ride does not exist
-     *         - 409 Conflict: Ride not in ACCEPTED status (already completed or
-     *         still requested)
      */
     @PostMapping("/rides/{rideId}/complete")
     @PreAuthorize("hasAnyAuthority('ROLE_USER','ROLE_DRIVER')")
-    public ResponseEntity<Ride> completeRide(@PathVariable String rideId) {
-        // Complete ride and return updated ride object from service layer
-        return ResponseEntity.ok(rideService.completeRide(rideId));
+    public ResponseEntity<Ride> completeRide(@PathVariable String rideId,
+            @CurrentUser AuthenticatedUser user) {
+        // Complete ride as the caller and return updated ride object from service layer
+        return ResponseEntity.ok(rideService.completeRide(rideId, user.getId()));
     }
 }
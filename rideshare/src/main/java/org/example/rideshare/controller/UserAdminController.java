@@ -0,0 +1,81 @@
+package org.example.rideshare.controller;
+
+import jakarta.validation.Valid;
+import org.example.rideshare.dto.BulkRegisterRequest;
+import org.example.rideshare.dto.BulkRegisterResponse;
+import org.example.rideshare.service.AuthService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * UserAdminController - Administrative user management endpoints
+ * 
+ * Purpose: Onboard driver fleets from partner companies in bulk
+ * 
+ * Endpoints:
+ * - POST /api/v1/admin/users/bulk : Create many accounts at once (ADMIN only)
+ * 
+ * Security: Requires a JWT Bearer token with ROLE_ADMIN. Admin accounts are
+ * provisioned directly in the database; they cannot be self-registered.
+ * 
+ * Author: RideShare Development Team
+ * Version: 1.0
+ */
+@RestController
+@RequestMapping("/api/v1/admin/users")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class UserAdminController {
+
+    @Autowired
+    private AuthService authService;
+
+    /**
+     * Register many users in one request
+     * 
+     * Endpoint: POST /api/v1/admin/users/bulk
+     * Access: ADMIN only (requires ROLE_ADMIN)
+     * 
+     * @param request BulkRegisterRequest containing up to 1000 RegisterRequest
+     *                entries (same validation as /api/auth/register)
+     * 
+     *                Process:
+     *                1. Validate every entry
+     *                2. Hash all passwords in parallel on the bounded
+     *                hashing pool (entries it rejects are reported FAILED)
+     *                3. Insert all users with one unordered insertMany
+     *                4. Report each entry as CREATED, DUPLICATE or FAILED
+     * 
+     * @return ResponseEntity with status 200 (OK) and BulkRegisterResponse
+     * 
+     *         Example Request:
+     *         {
+     *         "users": [
+     *         { "username": "fleet_driver_1", "password": "1234", "role": "ROLE_DRIVER" },
+     *         { "username": "fleet_driver_2", "password": "1234", "role": "ROLE_DRIVER" }
+     *         ]
+     *         }
+     * 
+     *         Example Response (200):
+     *         {
+     *         "created": 1,
+     *         "failed": 1,
+     *         "results": [
+     *         { "username": "fleet_driver_1", "status": "CREATED", "id": "507f...", "message": null },
+     *         { "username": "fleet_driver_2", "status": "DUPLICATE", "id": null, "message": "Username already exists" }
+     *         ]
+     *         }
+     * 
+     *         Errors:
+     *         - 400 Bad Request: Empty list, more than 1000 entries or invalid entry
+     *         - 401 Unauthorized: Missing or invalid JWT token
+     *         - 403 Forbidden: User lacks ROLE_ADMIN authority
+     */
+    @PostMapping("/bulk")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<BulkRegisterResponse> bulkRegister(@Valid @RequestBody BulkRegisterRequest request) {
+        return ResponseEntity.ok(authService.registerAll(request.getUsers()));
+    }
+}
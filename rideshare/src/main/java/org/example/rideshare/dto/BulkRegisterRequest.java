@@ -0,0 +1,43 @@
+package org.example.rideshare.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * BulkRegisterRequest - Data Transfer Object for bulk user registration
+ * 
+ * Wraps a list of RegisterRequest entries, used to onboard whole driver fleets
+ * from partner companies in one call. Every entry is validated with the same
+ * rules as single registration.
+ * 
+ * Validation Rules:
+ * - users: Must contain between 1 and 1000 entries
+ * - each entry: Same rules as RegisterRequest
+ * 
+ * Used by: UserAdminController.bulkRegister()
+ */
+public class BulkRegisterRequest {
+
+    // Accounts to create
+    @NotEmpty(message = "At least one user is required")
+    @Size(max = 1000, message = "At most 1000 users per request")
+    @Valid
+    private List<RegisterRequest> users;
+
+    // Default constructor for deserialization
+    public BulkRegisterRequest() {
+    }
+
+    // Getter for users
+    public List<RegisterRequest> getUsers() {
+        return users;
+    }
+
+    // Setter for users
+    public void setUsers(List<RegisterRequest> users) {
+        this.users = users;
+    }
+}
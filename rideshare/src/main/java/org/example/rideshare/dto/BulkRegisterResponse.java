@@ -0,0 +1,105 @@
+package org.example.rideshare.dto;
+
+import java.util.List;
+
+/**
+ * BulkRegisterResponse - Data Transfer Object for bulk registration results
+ * 
+ * Reports the outcome of every entry of a BulkRegisterRequest, in request
+ * order. One failing entry (e.g. a duplicate username) never prevents the
+ * others from being created.
+ * 
+ * Item Status Values:
+ * - CREATED: Account created, id is set
+ * - DUPLICATE: Username already exists
+ * - FAILED: Password hashing pool busy, or rejected by the database for
+ * another reason (see message)
+ * 
+ * Used by: UserAdminController.bulkRegister()
+ */
+public class BulkRegisterResponse {
+
+    // Number of accounts created
+    private int created;
+
+    // Number of entries not created
+    private int failed;
+
+    // Per-entry outcome in request order
+    private List<Item> results;
+
+    // Default constructor for deserialization
+    public BulkRegisterResponse() {
+    }
+
+    // Constructor with results; counts are derived from the items
+    public BulkRegisterResponse(List<Item> results) {
+        this.results = results;
+        this.created = (int) results.stream().filter(r -> "CREATED".equals(r.getStatus())).count();
+        this.failed = results.size() - created;
+    }
+
+    // Getter for created count
+    public int getCreated() {
+        return created;
+    }
+
+    // Getter for failed count
+    public int getFailed() {
+        return failed;
+    }
+
+    // Getter for per-entry results
+    public List<Item> getResults() {
+        return results;
+    }
+
+    /**
+     * Item - Outcome of a single bulk registration entry
+     */
+    public static class Item {
+        // Requested username
+        private String username;
+
+        // CREATED, DUPLICATE or FAILED
+        private String status;
+
+        // ID of the created user (null unless CREATED)
+        private String id;
+
+        // Error description (null if CREATED)
+        private String message;
+
+        // Default constructor for deserialization
+        public Item() {
+        }
+
+        // Constructor to initialize all fields
+        public Item(String username, String status, String id, String message) {
+            this.username = username;
+            this.status = status;
+            this.id = id;
+            this.message = message;
+        }
+
+        // Getter for username
+        public String getUsername() {
+            return username;
+        }
+
+        // Getter for status
+        public String getStatus() {
+            return status;
+        }
+
+        // Getter for user ID
+        public String getId() {
+            return id;
+        }
+
+        // Getter for error message
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.rideshare.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * BulkRideRequest - Data Transfer Object for booking many rides at once
+ * 
+ * Wraps a list of CreateRideRequest entries, used by corporate and event
+ * customers who book hundreds of rides in one go. Every entry is validated
+ * with the same rules as a single ride request.
+ * 
+ * Validation Rules:
+ * - rides: Must contain between 1 and 1000 entries
+ * - each entry: Same rules as CreateRideRequest
+ * 
+ * Used by: RideController.createRides()
+ * 
+ * Security: Requires authentication (Bearer token with ROLE_USER)
+ */
+public class BulkRideRequest {
+
+    // Rides to create
+    @NotEmpty(message = "At least one ride is required")
+    @Size(max = 1000, message = "At most 1000 rides per request")
+    @Valid
+    private List<CreateRideRequest> rides;
+
+    // Default constructor for deserialization
+    public BulkRideRequest() {
+    }
+
+    // Getter for rides
+    public List<CreateRideRequest> getRides() {
+        return rides;
+    }
+
+    // Setter for rides
+    public void setRides(List<CreateRideRequest> rides) {
+        this.rides = rides;
+    }
+}
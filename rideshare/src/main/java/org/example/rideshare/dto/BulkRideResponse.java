@@ -0,0 +1,103 @@
+package org.example.rideshare.dto;
+
+import java.util.List;
+
+/**
+ * BulkRideResponse - Data Transfer Object for bulk ride creation results
+ * 
+ * Reports the outcome of every entry of a BulkRideRequest, in request order.
+ * One failing entry never prevents the others from being created.
+ * 
+ * Item Status Values:
+ * - CREATED: Ride created with status REQUESTED, id is set
+ * - INVALID: Rejected before writing (e.g. coordinates out of range)
+ * - FAILED: Rejected by the database (see message)
+ * 
+ * Used by: RideController.createRides()
+ */
+public class BulkRideResponse {
+
+    // Number of rides created
+    private int created;
+
+    // Number of entries not created
+    private int failed;
+
+    // Per-entry outcome in request order
+    private List<Item> results;
+
+    // Default constructor for deserialization
+    public BulkRideResponse() {
+    }
+
+    // Constructor with results; counts are derived from the items
+    public BulkRideResponse(List<Item> results) {
+        this.results = results;
+        this.created = (int) results.stream().filter(r -> "CREATED".equals(r.getStatus())).count();
+        this.failed = results.size() - created;
+    }
+
+    // Getter for created count
+    public int getCreated() {
+        return created;
+    }
+
+    // Getter for failed count
+    public int getFailed() {
+        return failed;
+    }
+
+    // Getter for per-entry results
+    public List<Item> getResults() {
+        return results;
+    }
+
+    /**
+     * Item - Outcome of a single bulk ride entry
+     */
+    public static class Item {
+        // Position of the entry in the request
+        private int index;
+
+        // CREATED, INVALID or FAILED
+        private String status;
+
+        // ID of the created ride (null unless CREATED)
+        private String id;
+
+        // Error description (null if CREATED)
+        private String message;
+
+        // Default constructor for deserialization
+        public Item() {
+        }
+
+        // Constructor to initialize all fields
+        public Item(int index, String status, String id, String message) {
+            this.index = index;
+            this.status = status;
+            this.id = id;
+            this.message = message;
+        }
+
+        // Getter for entry index
+        public int getIndex() {
+            return index;
+        }
+
+        // Getter for status
+        public String getStatus() {
+            return status;
+        }
+
+        // Getter for ride ID
+        public String getId() {
+            return id;
+        }
+
+        // Getter for error message
+        public String getMessage() {
+            return message;
+        }
+    }
+}
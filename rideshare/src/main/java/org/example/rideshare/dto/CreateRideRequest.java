@@ -1,6 +1,7 @@
 package org.example.rideshare.dto;
 
 import jakarta.validation.constraints.NotBlank;
+import org.example.rideshare.model.GeoPoint;
 
 /**
  * CreateRideRequest - Data Transfer Object for creating a new ride
@@ -11,6 +12,9 @@ import jakarta.validation.constraints.NotBlank;
  * Validation Rules:
  * - pickupLocation: Must not be blank
  * - dropLocation: Must not be blank
+ * - pickupPoint, dropPoint: Optional GeoJSON Points
+ * ({"type": "Point", "coordinates": [lng, lat]}); when given, coordinates
+ * must be in range. Rides with a pickupPoint appear in the nearby-rides query.
  * 
  * Used by: RideController.createRide()
  * 
@@ -26,6 +30,12 @@ public class CreateRideRequest {
     @NotBlank(message = "Drop is required")
     private String dropLocation;
 
+    // Pickup coordinates (optional)
+    private GeoPoint pickupPoint;
+
+    // Destination coordinates (optional)
+    private GeoPoint dropPoint;
+
     // Default constructor for deserialization
     public CreateRideRequest() {
     }
@@ -49,4 +59,24 @@ public class CreateRideRequest {
     public void setDropLocation(String dropLocation) {
         this.dropLocation = dropLocation;
     }
+
+    // Getter for pickup coordinates
+    public GeoPoint getPickupPoint() {
+        return pickupPoint;
+    }
+
+    // Setter for pickup coordinates
+    public void setPickupPoint(GeoPoint pickupPoint) {
+        this.pickupPoint = pickupPoint;
+    }
+
+    // Getter for drop-off coordinates
+    public GeoPoint getDropPoint() {
+        return dropPoint;
+    }
+
+    // Setter for drop-off coordinates
+    public void setDropPoint(GeoPoint dropPoint) {
+        this.dropPoint = dropPoint;
+    }
 }
@@ -0,0 +1,46 @@
+package org.example.rideshare.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * DriverLocationBatchRequest - Data Transfer Object for a batch of driver
+ * position pings
+ * 
+ * Lets the driver app buffer pings (for example while the connection is poor)
+ * and send them in one request. Only the latest ping is kept; the others
+ * are accepted and dropped.
+ * 
+ * Validation Rules:
+ * - pings: Must contain between 1 and 100 entries
+ * - each entry: Same rules as DriverLocationRequest
+ * 
+ * Used by: DriverController.reportLocations()
+ * 
+ * Security: Requires authentication (Bearer token with ROLE_DRIVER)
+ */
+public class DriverLocationBatchRequest {
+
+    // Buffered pings, in any order
+    @NotEmpty(message = "At least one ping is required")
+    @Size(max = 100, message = "At most 100 pings per request")
+    @Valid
+    private List<DriverLocationRequest> pings;
+
+    // Default constructor for deserialization
+    public DriverLocationBatchRequest() {
+    }
+
+    // Getter for pings
+    public List<DriverLocationRequest> getPings() {
+        return pings;
+    }
+
+    // Setter for pings
+    public void setPings(List<DriverLocationRequest> pings) {
+        this.pings = pings;
+    }
+}
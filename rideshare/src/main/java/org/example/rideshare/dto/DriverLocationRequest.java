@@ -0,0 +1,70 @@
+package org.example.rideshare.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * DriverLocationRequest - Data Transfer Object for a driver position update
+ * 
+ * Validation Rules:
+ * - latitude: Required, -90..90 degrees
+ * - longitude: Required, -180..180 degrees
+ * - timestamp: Optional, epoch millis when the position was taken; defaults
+ * to the time the request arrives, and times in the future are treated as now
+ * 
+ * Used by: DriverController.updateLocation(), DriverLocationBatchRequest
+ * 
+ * Security: Requires authentication (Bearer token with ROLE_DRIVER)
+ */
+public class DriverLocationRequest {
+
+    // Current latitude in degrees
+    @NotNull(message = "Latitude is required")
+    @DecimalMin(value = "-90", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+
+    // Current longitude in degrees
+    @NotNull(message = "Longitude is required")
+    @DecimalMin(value = "-180", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+
+    // When the position was taken (epoch millis), optional
+    private Long timestamp;
+
+    // Default constructor for deserialization
+    public DriverLocationRequest() {
+    }
+
+    // Getter for latitude
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    // Setter for latitude
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    // Getter for longitude
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    // Setter for longitude
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    // Getter for timestamp
+    public Long getTimestamp() {
+        return timestamp;
+    }
+
+    // Setter for timestamp
+    public void setTimestamp(Long timestamp) {
+        this.timestamp = timestamp;
+    }
+}
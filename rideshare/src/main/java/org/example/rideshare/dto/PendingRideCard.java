@@ -0,0 +1,101 @@
+package org.example.rideshare.dto;
+
+import org.example.rideshare.model.GeoPoint;
+import org.example.rideshare.model.Ride;
+
+import java.util.Date;
+
+/**
+ * PendingRideCard - Read model for a pending ride in the driver's feed
+ * 
+ * Carries only what a driver needs to decide on a ride and accept it. The
+ * passenger ID, status (always REQUESTED), driver and drop coordinates of the
+ * full Ride are left out.
+ * 
+ * Read from MongoDB with a field projection (RideRepository.PENDING_CARD_FIELDS)
+ * or built from an in-memory Ride with from().
+ * 
+ * Used by: RideService.getPendingRides(), RideService.getNearbyPendingRides()
+ */
+public class PendingRideCard {
+
+    // Ride ID, used to accept the ride
+    private String id;
+
+    // Starting location for the ride
+    private String pickupLocation;
+
+    // Destination location for the ride
+    private String dropLocation;
+
+    // Pickup coordinates (GeoJSON Point), null if the ride has none
+    private GeoPoint pickupPoint;
+
+    // Timestamp when the ride was created
+    private Date createdAt;
+
+    // Default constructor for MongoDB mapping
+    public PendingRideCard() {
+    }
+
+    // Card for a ride already in memory
+    public static PendingRideCard from(Ride ride) {
+        PendingRideCard card = new PendingRideCard();
+        card.id = ride.getId();
+        card.pickupLocation = ride.getPickupLocation();
+        card.dropLocation = ride.getDropLocation();
+        card.pickupPoint = ride.getPickupPoint();
+        card.createdAt = ride.getCreatedAt();
+        return card;
+    }
+
+    // Getter for ride ID
+    public String getId() {
+        return id;
+    }
+
+    // Setter for ride ID
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    // Getter for pickup location
+    public String getPickupLocation() {
+        return pickupLocation;
+    }
+
+    // Setter for pickup location
+    public void setPickupLocation(String pickupLocation) {
+        this.pickupLocation = pickupLocation;
+    }
+
+    // Getter for drop-off location
+    public String getDropLocation() {
+        return dropLocation;
+    }
+
+    // Setter for drop-off location
+    public void setDropLocation(String dropLocation) {
+        this.dropLocation = dropLocation;
+    }
+
+    // Getter for pickup coordinates
+    public GeoPoint getPickupPoint() {
+        return pickupPoint;
+    }
+
+    // Setter for pickup coordinates
+    public void setPickupPoint(GeoPoint pickupPoint) {
+        this.pickupPoint = pickupPoint;
+    }
+
+    // Getter for creation timestamp
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    // Setter for creation timestamp
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+}
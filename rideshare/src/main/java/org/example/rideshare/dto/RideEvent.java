@@ -0,0 +1,62 @@
+package org.example.rideshare.dto;
+
+import org.example.rideshare.model.Ride;
+
+/**
+ * RideEvent - Ride change pushed to drivers over Server-Sent Events
+ * 
+ * Published as a Spring application event by RideServiceImpl and delivered by
+ * RideEventBroadcaster to every connected driver stream.
+ * 
+ * Types:
+ * - ride-created: a new REQUESTED ride; carries its PendingRideCard, the same
+ * fields as the pending-ride feed (no passenger ID, status or drop
+ * coordinates)
+ * - ride-taken: a ride was accepted (or dispatched) and is no longer
+ * available; carries only the ride ID, so drivers do not learn who got it
+ */
+public class RideEvent {
+
+    public static final String RIDE_CREATED = "ride-created";
+    public static final String RIDE_TAKEN = "ride-taken";
+
+    // Event type (SSE event name)
+    private final String type;
+
+    // ID of the ride the event is about
+    private final String rideId;
+
+    // Feed card of the ride for ride-created, null otherwise
+    private final PendingRideCard card;
+
+    private RideEvent(String type, String rideId, PendingRideCard card) {
+        this.type = type;
+        this.rideId = rideId;
+        this.card = card;
+    }
+
+    // Event for a newly requested ride
+    public static RideEvent created(Ride ride) {
+        return new RideEvent(RIDE_CREATED, ride.getId(), PendingRideCard.from(ride));
+    }
+
+    // Event for a ride that a driver has accepted or was dispatched to
+    public static RideEvent taken(String rideId) {
+        return new RideEvent(RIDE_TAKEN, rideId, null);
+    }
+
+    // Getter for event type
+    public String getType() {
+        return type;
+    }
+
+    // Getter for ride ID
+    public String getRideId() {
+        return rideId;
+    }
+
+    // Getter for the ride's feed card (ride-created only)
+    public PendingRideCard getCard() {
+        return card;
+    }
+}
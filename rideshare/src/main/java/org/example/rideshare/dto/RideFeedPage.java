@@ -0,0 +1,38 @@
+package org.example.rideshare.dto;
+
+import java.util.List;
+
+/**
+ * RideFeedPage - One page of a keyset-paginated ride feed
+ * 
+ * Holds the rides of the page (as PendingRideCard) and the continuation token
+ * for the next page (null when this is the last page). The controller returns
+ * the rides as the JSON body and the token in the X-Next-Cursor response
+ * header, so existing clients that expect a plain JSON array keep working.
+ * 
+ * Used by: RideService.getPendingRides(), RideController.getPendingRides()
+ */
+public class RideFeedPage {
+
+    // Rides on this page, ordered by (createdAt, id)
+    private final List<PendingRideCard> rides;
+
+    // Opaque token for the next page, null if there is none
+    private final String nextCursor;
+
+    // Constructor to initialize all fields
+    public RideFeedPage(List<PendingRideCard> rides, String nextCursor) {
+        this.rides = rides;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getter for rides on this page
+    public List<PendingRideCard> getRides() {
+        return rides;
+    }
+
+    // Getter for next page token
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,146 @@
+package org.example.rideshare.dto;
+
+import org.example.rideshare.model.RideStatus;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * RideHistoryRow - Read model for one row of a passenger's ride history
+ * 
+ * Carries the columns of the "my rides" list. Coordinates and the passenger
+ * ID (always the caller) of the full Ride are left out.
+ * 
+ * Read from MongoDB with a field projection (RideRepository.HISTORY_ROW_FIELDS),
+ * from the rides collection and from rides_archive; merge() joins the two.
+ * 
+ * Used by: RideService.getUserRides()
+ */
+public class RideHistoryRow {
+
+    // Ride ID
+    private String id;
+
+    // Driver who accepted the ride (null if pending)
+    private String driverId;
+
+    // Starting location for the ride
+    private String pickupLocation;
+
+    // Destination location for the ride
+    private String dropLocation;
+
+    // Current status: REQUESTED, ACCEPTED, or COMPLETED
+    private RideStatus status;
+
+    // Timestamp when the ride was created
+    private Date createdAt;
+
+    // Default constructor for MongoDB mapping
+    public RideHistoryRow() {
+    }
+
+    // Getter for ride ID
+    public String getId() {
+        return id;
+    }
+
+    // Setter for ride ID
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    // Getter for driver user ID
+    public String getDriverId() {
+        return driverId;
+    }
+
+    // Setter for driver user ID
+    public void setDriverId(String driverId) {
+        this.driverId = driverId;
+    }
+
+    // Getter for pickup location
+    public String getPickupLocation() {
+        return pickupLocation;
+    }
+
+    // Setter for pickup location
+    public void setPickupLocation(String pickupLocation) {
+        this.pickupLocation = pickupLocation;
+    }
+
+    // Getter for drop-off location
+    public String getDropLocation() {
+        return dropLocation;
+    }
+
+    // Setter for drop-off location
+    public void setDropLocation(String dropLocation) {
+        this.dropLocation = dropLocation;
+    }
+
+    // Getter for ride status
+    public RideStatus getStatus() {
+        return status;
+    }
+
+    // Setter for ride status
+    public void setStatus(RideStatus status) {
+        this.status = status;
+    }
+
+    // Getter for creation timestamp
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    // Setter for creation timestamp
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Merge hot and archived rows, both newest first, into one list newest first
+     * 
+     * A ride in both lists (archived but not yet deleted from the rides
+     * collection) appears once, as its hot row.
+     * 
+     * @param hot      Rows from the rides collection
+     * @param archived Rows from the rides_archive collection
+     * @return All rows, newest first
+     */
+    public static List<RideHistoryRow> merge(List<RideHistoryRow> hot, List<RideHistoryRow> archived) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        Set<String> hotIds = new HashSet<>();
+        for (RideHistoryRow row : hot) {
+            hotIds.add(row.getId());
+        }
+        List<RideHistoryRow> merged = new ArrayList<>(hot.size() + archived.size());
+        int h = 0;
+        int a = 0;
+        while (h < hot.size() || a < archived.size()) {
+            if (a < archived.size() && hotIds.contains(archived.get(a).getId())) {
+                a++;
+            } else if (a == archived.size() || h < hot.size() && !isOlder(hot.get(h), archived.get(a))) {
+                merged.add(hot.get(h++));
+            } else {
+                merged.add(archived.get(a++));
+            }
+        }
+        return merged;
+    }
+
+    // True if row was created before other (rows without createdAt sort last)
+    private static boolean isOlder(RideHistoryRow row, RideHistoryRow other) {
+        if (row.getCreatedAt() == null) {
+            return other.getCreatedAt() != null;
+        }
+        return other.getCreatedAt() != null && row.getCreatedAt().before(other.getCreatedAt());
+    }
+}
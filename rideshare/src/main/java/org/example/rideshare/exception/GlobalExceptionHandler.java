@@ -3,6 +3,7 @@ package org.example.rideshare.exception;
 import org.springframework.http.*;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 import java.time.Instant;
 import java.util.HashMap;
@@ -20,7 +21,13 @@ import java.util.Map;
  * Handled Exceptions:
  * 1. NotFoundException - Returns 404 (NOT_FOUND)
  * 2. MethodArgumentNotValidException - Returns 400 (VALIDATION_ERROR)
+ * (WebExchangeBindException in the reactive profile)
  * 3. IllegalStateException - Returns 400 (BAD_REQUEST)
+ * 4. ServiceOverloadedException - Returns 503 (SERVICE_UNAVAILABLE) with
+ * Retry-After
+ * 5. IllegalArgumentException - Returns 400 (BAD_REQUEST)
+ * 6. TooManyRequestsException - Returns 429 (TOO_MANY_REQUESTS) with
+ * Retry-After
  * 
  * Error Response Format:
  * {
@@ -84,6 +91,35 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
     }
 
+    /**
+     * Handle WebExchangeBindException - Validation failed in WebFlux (400)
+     * 
+     * Reactive counterpart of MethodArgumentNotValidException, raised when a
+     * @Valid request body fails validation in the reactive profile. Returns
+     * the same VALIDATION_ERROR body.
+     * 
+     * @param ex The WebExchangeBindException containing validation errors
+     * @return ResponseEntity with validation error details and 400 status
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Map<String, Object>> handleReactiveValidation(WebExchangeBindException ex) {
+        // Create error response body
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", "VALIDATION_ERROR");
+        body.put("timestamp", Instant.now().toString());
+
+        // Extract first validation error message
+        String message = ex.getFieldErrors()
+                .stream()
+                .findFirst()
+                .map(err -> err.getField() + ": " + err.getDefaultMessage())
+                .orElse("Validation error");
+        body.put("message", message);
+
+        // Return 400 response with validation error
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
+    }
+
     /**
      * Handle IllegalStateException - Invalid business logic state (400)
      * 
@@ -103,4 +139,70 @@ public class GlobalExceptionHandler {
         // Return 400 response
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
     }
+
+    /**
+     * Handle IllegalArgumentException - Invalid request parameter (400)
+     * 
+     * Triggered when a request parameter cannot be interpreted
+     * (e.g., a malformed pagination cursor).
+     * 
+     * @param ex The IllegalArgumentException containing the error message
+     * @return ResponseEntity with error details and 400 status
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, Object>> handleIllegalArgument(IllegalArgumentException ex) {
+        // Create error response body
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", "BAD_REQUEST");
+        body.put("message", ex.getMessage());
+        body.put("timestamp", Instant.now().toString());
+        // Return 400 response
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
+    }
+
+    /**
+     * Handle ServiceOverloadedException - Bounded resource saturated (503)
+     * 
+     * Triggered when work is rejected by admission control (e.g., the password
+     * hashing queue is full). Returns HTTP 503 with a Retry-After header so
+     * clients back off instead of piling up.
+     * 
+     * @param ex The ServiceOverloadedException containing the retry hint
+     * @return ResponseEntity with error details, Retry-After and 503 status
+     */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<Map<String, Object>> handleOverloaded(ServiceOverloadedException ex) {
+        // Create error response body
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", "SERVICE_UNAVAILABLE");
+        body.put("message", ex.getMessage());
+        body.put("timestamp", Instant.now().toString());
+        // Return 503 response with retry hint
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(body);
+    }
+
+    /**
+     * Handle TooManyRequestsException - Intake queue full (429)
+     * 
+     * Triggered when a request cannot be queued (e.g., the ride ingest queue
+     * is full). More specific than ServiceOverloadedException, so it is
+     * handled here. Returns HTTP 429 with a Retry-After header.
+     * 
+     * @param ex The TooManyRequestsException containing the retry hint
+     * @return ResponseEntity with error details, Retry-After and 429 status
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<Map<String, Object>> handleTooManyRequests(TooManyRequestsException ex) {
+        // Create error response body
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", "TOO_MANY_REQUESTS");
+        body.put("message", ex.getMessage());
+        body.put("timestamp", Instant.now().toString());
+        // Return 429 response with retry hint
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(body);
+    }
 }
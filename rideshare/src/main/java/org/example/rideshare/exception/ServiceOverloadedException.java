@@ -0,0 +1,30 @@
+package org.example.rideshare.exception;
+
+/**
+ * ServiceOverloadedException - Request rejected because a bounded resource is
+ * saturated
+ * 
+ * Thrown when work cannot be admitted without queueing unboundedly, for
+ * example when the password hashing pool and its queue are full. It is caught
+ * by the GlobalExceptionHandler and returns a 503 (Service Unavailable) HTTP
+ * response with a Retry-After header.
+ * 
+ * Used by: BoundedPasswordEncoder
+ * Handled by: GlobalExceptionHandler
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    // Seconds the client should wait before retrying
+    private final long retryAfterSeconds;
+
+    // Constructor that accepts an error message and retry hint
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    // Getter for retry hint in seconds
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
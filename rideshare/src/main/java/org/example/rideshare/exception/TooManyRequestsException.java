@@ -0,0 +1,20 @@
+package org.example.rideshare.exception;
+
+/**
+ * TooManyRequestsException - Request rejected because an intake queue is full
+ * 
+ * A ServiceOverloadedException for work that is queued per request, where
+ * the client's own request rate is what fills the queue, for example the
+ * ride ingest queue. It is caught by the GlobalExceptionHandler and returns a
+ * 429 (Too Many Requests) HTTP response with a Retry-After header.
+ * 
+ * Used by: RideIngestPipeline
+ * Handled by: GlobalExceptionHandler
+ */
+public class TooManyRequestsException extends ServiceOverloadedException {
+
+    // Constructor that accepts an error message and retry hint
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message, retryAfterSeconds);
+    }
+}
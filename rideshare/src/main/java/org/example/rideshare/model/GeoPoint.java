@@ -0,0 +1,81 @@
+package org.example.rideshare.model;
+
+import java.util.Arrays;
+
+/**
+ * GeoPoint - GeoJSON Point (longitude, latitude)
+ *
+ * Stored and serialized in GeoJSON form, so the same shape is used in
+ * MongoDB (where the 2dsphere index reads it) and in the JSON API:
+ *
+ * { "type": "Point", "coordinates": [ longitude, latitude ] }
+ *
+ * Note the GeoJSON order: longitude first.
+ *
+ * Used by: Ride (pickupPoint, dropPoint), CreateRideRequest
+ *
+ * @author RideShare Development Team
+ * @version 1.0
+ */
+public class GeoPoint {
+
+    public static final String POINT = "Point";
+
+    // GeoJSON geometry type, always "Point"
+    private String type = POINT;
+
+    // [longitude, latitude] in degrees
+    private double[] coordinates;
+
+    // Default constructor for MongoDB and frameworks
+    public GeoPoint() {
+    }
+
+    // Constructor from longitude and latitude in degrees
+    public GeoPoint(double longitude, double latitude) {
+        this.coordinates = new double[] { longitude, latitude };
+    }
+
+    /**
+     * Check that a point is a GeoJSON Point with coordinates in range
+     *
+     * MongoDB rejects writes of out-of-range points to a 2dsphere-indexed
+     * field, so requests are checked before they reach the database.
+     *
+     * @param point The point to check (may be null)
+     * @return true if the point is non-null and valid
+     */
+    public static boolean isValid(GeoPoint point) {
+        return point != null
+                && POINT.equals(point.type)
+                && point.coordinates != null
+                && point.coordinates.length == 2
+                && point.coordinates[0] >= -180 && point.coordinates[0] <= 180
+                && point.coordinates[1] >= -90 && point.coordinates[1] <= 90;
+    }
+
+    // Getter for geometry type
+    public String getType() {
+        return type;
+    }
+
+    // Setter for geometry type
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    // Getter for [longitude, latitude]
+    public double[] getCoordinates() {
+        return coordinates;
+    }
+
+    // Setter for [longitude, latitude]
+    public void setCoordinates(double[] coordinates) {
+        this.coordinates = coordinates;
+    }
+
+    @Override
+    public String toString() {
+        return type + Arrays.toString(coordinates);
+    }
+}
@@ -1,6 +1,8 @@
 package org.example.rideshare.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
@@ -22,13 +24,33 @@ import java.util.Objects;
  * accepted)
  * 
  * Stored in MongoDB "rides" collection for scalability and flexibility.
+ * COMPLETED rides older than app.rides.archive.min-age-days are moved to
+ * "rides_archive" (ARCHIVE_COLLECTION) by RideArchiver, in the same shape.
+ * 
+ * Indexes (verified at startup by MongoIndexVerifier):
+ * - status_createdAt: {status, createdAt, _id} - pending-ride feed, keyset
+ * pages in (createdAt, id) order without an in-memory sort
+ * - userId_createdAt: {userId, createdAt desc} - a passenger's rides
+ * - status_pickupPoint: {status, pickupPoint 2dsphere} - pending rides near
+ * a driver; rides without a pickupPoint are not in this index
+ * - status_completedAt: {status, completedAt, _id} - rides due for archiving,
+ * in (completedAt, id) order
  * 
  * @author RideShare Development Team
  * @version 1.0
  */
 @Document(collection = "rides")
+@CompoundIndexes({
+        @CompoundIndex(name = "status_createdAt", def = "{ 'status': 1, 'createdAt': 1, '_id': 1 }"),
+        @CompoundIndex(name = "userId_createdAt", def = "{ 'userId': 1, 'createdAt': -1 }"),
+        @CompoundIndex(name = "status_pickupPoint", def = "{ 'status': 1, 'pickupPoint': '2dsphere' }"),
+        @CompoundIndex(name = "status_completedAt", def = "{ 'status': 1, 'completedAt': 1, '_id': 1 }")
+})
 public class Ride {
 
+    // Collection holding archived (old COMPLETED) rides
+    public static final String ARCHIVE_COLLECTION = "rides_archive";
+
     // MongoDB document ID - automatically generated
     @Id
     private String id;
@@ -45,19 +67,28 @@ public class Ride {
     // Destination location for the ride
     private String dropLocation;
 
-    // Current status: REQUESTED, ACCEPTED, or COMPLETED
-    private String status;
+    // Pickup coordinates (GeoJSON Point), optional
+    private GeoPoint pickupPoint;
+
+    // Destination coordinates (GeoJSON Point), optional
+    private GeoPoint dropPoint;
+
+    // Current status: REQUESTED, ACCEPTED, or COMPLETED (stored as a code)
+    private RideStatus status;
 
     // Timestamp when the ride was created
     private Date createdAt;
 
+    // Timestamp when the ride was completed (null until COMPLETED)
+    private Date completedAt;
+
     // Default constructor for MongoDB and frameworks
     public Ride() {
     }
 
     // Constructor to initialize all fields
-    public Ride(String id, String userId, String driverId, String pickupLocation, String dropLocation, String status,
-            Date createdAt) {
+    public Ride(String id, String userId, String driverId, String pickupLocation, String dropLocation,
+            RideStatus status, Date createdAt) {
         this.id = id;
         this.userId = userId;
         this.driverId = driverId;
@@ -117,13 +148,33 @@ public class Ride {
         this.dropLocation = dropLocation;
     }
 
+    // Getter for pickup coordinates
+    public GeoPoint getPickupPoint() {
+        return pickupPoint;
+    }
+
+    // Setter for pickup coordinates
+    public void setPickupPoint(GeoPoint pickupPoint) {
+        this.pickupPoint = pickupPoint;
+    }
+
+    // Getter for drop-off coordinates
+    public GeoPoint getDropPoint() {
+        return dropPoint;
+    }
+
+    // Setter for drop-off coordinates
+    public void setDropPoint(GeoPoint dropPoint) {
+        this.dropPoint = dropPoint;
+    }
+
     // Getter for ride status
-    public String getStatus() {
+    public RideStatus getStatus() {
         return status;
     }
 
     // Setter for ride status
-    public void setStatus(String status) {
+    public void setStatus(RideStatus status) {
         this.status = status;
     }
 
@@ -137,6 +188,16 @@ public class Ride {
         this.createdAt = createdAt;
     }
 
+    // Getter for completion timestamp
+    public Date getCompletedAt() {
+        return completedAt;
+    }
+
+    // Setter for completion timestamp
+    public void setCompletedAt(Date completedAt) {
+        this.completedAt = completedAt;
+    }
+
     // Equality comparison based on ride ID
     @Override
     public boolean equals(Object o) {
@@ -164,7 +225,7 @@ public class Ride {
      * 
      * Provides a clean and readable way to build Ride objects with optional fields.
      * Example: Ride ride =
-     * Ride.builder().userId("user1").status("REQUESTED").build();
+     * Ride.builder().userId("user1").status(RideStatus.REQUESTED).build();
      */
     public static class Builder {
         private String id;
@@ -172,8 +233,11 @@ public class Ride {
         private String driverId;
         private String pickupLocation;
         private String dropLocation;
-        private String status;
+        private GeoPoint pickupPoint;
+        private GeoPoint dropPoint;
+        private RideStatus status;
         private Date createdAt;
+        private Date completedAt;
 
         // Set the ride ID
         public Builder id(String id) {
@@ -205,8 +269,20 @@ public class Ride {
             return this;
         }
 
+        // Set the pickup coordinates
+        public Builder pickupPoint(GeoPoint pickupPoint) {
+            this.pickupPoint = pickupPoint;
+            return this;
+        }
+
+        // Set the drop-off coordinates
+        public Builder dropPoint(GeoPoint dropPoint) {
+            this.dropPoint = dropPoint;
+            return this;
+        }
+
         // Set the ride status
-        public Builder status(String status) {
+        public Builder status(RideStatus status) {
             this.status = status;
             return this;
         }
@@ -217,9 +293,19 @@ public class Ride {
             return this;
         }
 
+        // Set the completion timestamp
+        public Builder completedAt(Date completedAt) {
+            this.completedAt = completedAt;
+            return this;
+        }
+
         // Build and return the Ride object
         public Ride build() {
-            return new Ride(id, userId, driverId, pickupLocation, dropLocation, status, createdAt);
+            Ride ride = new Ride(id, userId, driverId, pickupLocation, dropLocation, status, createdAt);
+            ride.setPickupPoint(pickupPoint);
+            ride.setDropPoint(dropPoint);
+            ride.setCompletedAt(completedAt);
+            return ride;
         }
     }
 }
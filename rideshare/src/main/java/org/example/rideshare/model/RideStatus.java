@@ -0,0 +1,57 @@
+package org.example.rideshare.model;
+
+/**
+ * RideStatus - Lifecycle state of a Ride
+ *
+ * REQUESTED -> ACCEPTED -> COMPLETED
+ *
+ * The JSON API uses the constant names ("REQUESTED", ...). MongoDB stores the
+ * small integer code instead (see MongoConversionConfig): 4 bytes per
+ * document and per status index entry instead of a 9-10 character string.
+ * Codes are persisted, so never renumber or reuse one.
+ *
+ * Used by: Ride, RideHistoryRow, RideRepository, RideService
+ *
+ * @author RideShare Development Team
+ * @version 1.0
+ */
+public enum RideStatus {
+
+    // Created by a passenger, waiting for a driver
+    REQUESTED(1),
+
+    // A driver has accepted the ride
+    ACCEPTED(2),
+
+    // The ride is over
+    COMPLETED(3);
+
+    // Codes indexed by value, for decoding without a search
+    private static final RideStatus[] BY_CODE = { null, REQUESTED, ACCEPTED, COMPLETED };
+
+    // Persisted form
+    private final int code;
+
+    RideStatus(int code) {
+        this.code = code;
+    }
+
+    // Getter for persisted code
+    public int code() {
+        return code;
+    }
+
+    /**
+     * Decode a persisted code
+     *
+     * @param code Value stored in MongoDB
+     * @return The matching status
+     * @throws IllegalArgumentException if the code is unknown
+     */
+    public static RideStatus fromCode(int code) {
+        if (code <= 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("Unknown ride status code: " + code);
+        }
+        return BY_CODE[code];
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.rideshare.repository;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.WriteConcern;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * BulkInsertSupport - Unordered insertMany shared by the repository fragments
+ * 
+ * Used by RideRepositoryCustomImpl and UserRepositoryCustomImpl for their
+ * insertAllUnordered methods.
+ */
+final class BulkInsertSupport {
+
+    private BulkInsertSupport() {
+    }
+
+    /**
+     * Insert entities with a single unordered insertMany
+     * 
+     * Entities are mapped with the regular converter (same format as save()).
+     * Every document is attempted even if some fail; the inserted entities get
+     * the ID the driver generated.
+     * 
+     * @param mongoTemplate Template whose converter and collection are used
+     * @param entities      The entities to insert (IDs should be null)
+     * @param type          Entity class, which names the collection
+     * @param writeConcern  Acknowledgement to wait for (null = collection default)
+     * @param setId         Sets the generated ID (hex string) on an entity
+     * @return Write errors of the failed entries, empty if all were inserted
+     * @throws MongoBulkWriteException if the write concern could not be
+     *                                 satisfied; no entry can then be reported
+     *                                 as stored
+     */
+    static <T> List<BulkWriteError> insertAllUnordered(MongoTemplate mongoTemplate, List<T> entities,
+            Class<T> type, WriteConcern writeConcern, BiConsumer<T, String> setId) {
+        List<Document> documents = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            Document document = new Document();
+            mongoTemplate.getConverter().write(entity, document);
+            documents.add(document);
+        }
+
+        MongoCollection<Document> collection = mongoTemplate.getCollection(mongoTemplate.getCollectionName(type));
+        if (writeConcern != null) {
+            collection = collection.withWriteConcern(writeConcern);
+        }
+        List<BulkWriteError> errors = Collections.emptyList();
+        try {
+            collection.insertMany(documents, new InsertManyOptions().ordered(false));
+        } catch (MongoBulkWriteException e) {
+            // Not acknowledged as requested: no entry can be reported as stored
+            if (e.getWriteConcernError() != null) {
+                throw e;
+            }
+            errors = e.getWriteErrors();
+        }
+
+        // The driver assigns _id to each document; copy it back to the inserted entities
+        Set<Integer> failed = new HashSet<>();
+        errors.forEach(error -> failed.add(error.getIndex()));
+        for (int i = 0; i < entities.size(); i++) {
+            if (!failed.contains(i)) {
+                setId.accept(entities.get(i), documents.get(i).getObjectId("_id").toHexString());
+            }
+        }
+        return errors;
+    }
+}
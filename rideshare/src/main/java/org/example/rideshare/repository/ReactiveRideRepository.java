@@ -0,0 +1,83 @@
+package org.example.rideshare.repository;
+
+import org.bson.types.ObjectId;
+import org.example.rideshare.dto.PendingRideCard;
+import org.example.rideshare.dto.RideHistoryRow;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.model.RideStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+import java.util.Date;
+
+/**
+ * ReactiveRideRepository - Non-blocking data access for Ride entities
+ * 
+ * Reactive counterpart of RideRepository on the reactive MongoDB driver.
+ * Queries return Mono/Flux and never block the calling thread, so the
+ * reactive ride API can serve many connections from a small event-loop pool.
+ * 
+ * Inherited Methods (from ReactiveMongoRepository):
+ * - save(Ride) - Create or update a ride
+ * - findById(String) - Get ride by ID
+ * 
+ * Custom Methods:
+ * - acceptIfRequested(String, String) - Atomic accept (see ReactiveRideRepositoryCustom)
+ * 
+ * Projections: findHistoryByUserId and findCardsByStatus* read only the
+ * fields of the read model, as in RideRepository.
+ * 
+ * Used by: ReactiveRideServiceImpl
+ */
+public interface ReactiveRideRepository extends ReactiveMongoRepository<Ride, String>, ReactiveRideRepositoryCustom {
+
+    /**
+     * A passenger's rides as history rows, newest first
+     * 
+     * @param userId The passenger user ID
+     * @return Flux of all rides created by this user
+     */
+    @Query(value = "{ 'userId': ?0 }", fields = RideRepository.HISTORY_ROW_FIELDS, sort = "{ 'createdAt': -1 }")
+    Flux<RideHistoryRow> findHistoryByUserId(String userId);
+
+    /**
+     * First page of rides with a specific status, as cards
+     * 
+     * @param status   The ride status to filter by
+     * @param pageable Page size and (createdAt, id) sort; page number must be 0
+     * @return Flux of up to pageable.getPageSize() cards
+     */
+    @Query(value = "{ 'status': ?0 }", fields = RideRepository.PENDING_CARD_FIELDS)
+    Flux<PendingRideCard> findCardsByStatus(RideStatus status, Pageable pageable);
+
+    /**
+     * Next page of rides with a specific status, as cards (keyset pagination)
+     * 
+     * @param status    The ride status to filter by
+     * @param createdAt Creation time of the last ride already returned
+     * @param id        ObjectId of the last ride already returned
+     * @param pageable  Page size and (createdAt, id) sort; page number must be 0
+     * @return Flux of up to pageable.getPageSize() cards after the position
+     */
+    @Query(value = "{ 'status': ?0, '$or': [ { 'createdAt': { '$gt': ?1 } }, { 'createdAt': ?1, '_id': { '$gt': ?2 } } ] }", fields = RideRepository.PENDING_CARD_FIELDS)
+    Flux<PendingRideCard> findCardsByStatusAfter(RideStatus status, Date createdAt, ObjectId id, Pageable pageable);
+
+    /**
+     * Rides with a specific status nearest to a point, as cards (GeoJSON $near)
+     * 
+     * Uses the status_pickupPoint 2dsphere index, nearest first; rides without
+     * a pickupPoint are never returned. Pass an unsorted PageRequest.of(0, limit).
+     * 
+     * @param status            The ride status to filter by
+     * @param longitude         Longitude of the point in degrees
+     * @param latitude          Latitude of the point in degrees
+     * @param maxDistanceMeters Search radius in meters
+     * @param pageable          Maximum number of rides (unsorted, page 0)
+     * @return Up to pageable.getPageSize() cards ordered by distance
+     */
+    @Query(value = "{ 'status': ?0, 'pickupPoint': { '$near': { '$geometry': { 'type': 'Point', 'coordinates': [ ?1, ?2 ] }, '$maxDistance': ?3 } } }", fields = RideRepository.PENDING_CARD_FIELDS)
+    Flux<PendingRideCard> findCardsByStatusNear(RideStatus status, double longitude, double latitude,
+            double maxDistanceMeters, Pageable pageable);
+}
@@ -0,0 +1,50 @@
+package org.example.rideshare.repository;
+
+import org.example.rideshare.dto.RideHistoryRow;
+import org.example.rideshare.model.Ride;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * ReactiveRideRepositoryCustom - Hand-written reactive Ride queries
+ * 
+ * Custom Methods:
+ * - acceptIfRequested(String, String) - Atomic REQUESTED -> ACCEPTED transition
+ * - completeIfAccepted(String, String) - Atomic ACCEPTED -> COMPLETED by a participant
+ * - findArchivedHistoryByUserId(String) - History rows from the rides_archive collection
+ * 
+ * Implemented by: ReactiveRideRepositoryCustomImpl
+ */
+public interface ReactiveRideRepositoryCustom {
+
+    /**
+     * Accept a ride only if it is still REQUESTED, in one findAndModify
+     * 
+     * @param rideId   The ID of the ride to accept
+     * @param driverId The ID of the accepting driver
+     * @return Mono emitting the updated ride, or empty if no REQUESTED ride
+     *         with this ID exists
+     */
+    Mono<Ride> acceptIfRequested(String rideId, String driverId);
+
+    /**
+     * Complete a ride only if it is ACCEPTED and the caller takes part in it
+     * 
+     * Matches on _id, status = ACCEPTED and driverId or userId equal to the
+     * caller, and sets status = COMPLETED in the same atomic operation.
+     * 
+     * @param rideId   The ID of the ride to complete
+     * @param callerId The ID of the passenger or driver completing the ride
+     * @return Mono emitting the updated ride, or empty if no ride
+     *         matched
+     */
+    Mono<Ride> completeIfAccepted(String rideId, String callerId);
+
+    /**
+     * A passenger's archived rides as history rows, newest first
+     * 
+     * @param userId The passenger user ID
+     * @return This user's archived rides
+     */
+    Flux<RideHistoryRow> findArchivedHistoryByUserId(String userId);
+}
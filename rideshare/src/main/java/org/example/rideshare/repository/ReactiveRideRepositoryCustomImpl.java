@@ -0,0 +1,55 @@
+package org.example.rideshare.repository;
+
+import org.bson.Document;
+import org.example.rideshare.dto.RideHistoryRow;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.model.RideStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * ReactiveRideRepositoryCustomImpl - ReactiveMongoTemplate-based implementation
+ * of ReactiveRideRepositoryCustom
+ * 
+ * Picked up by Spring Data as a repository fragment of ReactiveRideRepository.
+ */
+public class ReactiveRideRepositoryCustomImpl implements ReactiveRideRepositoryCustom {
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Ride> acceptIfRequested(String rideId, String driverId) {
+        Query query = Query.query(where("id").is(rideId).and("status").is(RideStatus.REQUESTED));
+        Update update = new Update().set("status", RideStatus.ACCEPTED).set("driverId", driverId);
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+                Ride.class);
+    }
+
+    @Override
+    public Mono<Ride> completeIfAccepted(String rideId, String callerId) {
+        Query query = Query.query(where("id").is(rideId).and("status").is(RideStatus.ACCEPTED)
+                .orOperator(where("driverId").is(callerId), where("userId").is(callerId)));
+        Update update = new Update().set("status", RideStatus.COMPLETED).set("completedAt", new Date());
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+                Ride.class);
+    }
+
+    @Override
+    public Flux<RideHistoryRow> findArchivedHistoryByUserId(String userId) {
+        Query query = new BasicQuery(new Document("userId", userId), Document.parse(RideRepository.HISTORY_ROW_FIELDS))
+                .with(Sort.by(Sort.Direction.DESC, "createdAt"));
+        return mongoTemplate.find(query, RideHistoryRow.class, Ride.ARCHIVE_COLLECTION);
+    }
+}
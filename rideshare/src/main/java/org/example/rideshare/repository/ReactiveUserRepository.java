@@ -0,0 +1,26 @@
+package org.example.rideshare.repository;
+
+import org.example.rideshare.model.User;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Mono;
+
+/**
+ * ReactiveUserRepository - Non-blocking data access for User entities
+ * 
+ * Reactive counterpart of UserRepository on the reactive MongoDB driver.
+ * 
+ * Custom Methods:
+ * - findByUsername(String) - Find user by unique username
+ * 
+ * Used by: ReactiveJwtAuthFilter in database authentication mode
+ */
+public interface ReactiveUserRepository extends ReactiveMongoRepository<User, String> {
+
+    /**
+     * Find a user by their username
+     * 
+     * @param username The username to search for
+     * @return Mono emitting the user, or empty if not found
+     */
+    Mono<User> findByUsername(String username);
+}
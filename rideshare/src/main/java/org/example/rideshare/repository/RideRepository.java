@@ -1,8 +1,16 @@
 package org.example.rideshare.repository;
 
+import org.bson.types.ObjectId;
+import org.example.rideshare.dto.PendingRideCard;
+import org.example.rideshare.dto.RideHistoryRow;
 import org.example.rideshare.model.Ride;
+import org.example.rideshare.model.RideStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -22,12 +30,26 @@ import java.util.List;
  * - deleteById(String) - Delete ride by ID
  * 
  * Custom Methods:
- * - findByStatus(String) - Find all rides with a specific status
- * - findByUserId(String) - Find all rides for a specific passenger
+ * - findByStatus(RideStatus) - Find all rides with a specific status
+ * - acceptIfRequested(String, String) - Atomic accept (see RideRepositoryCustom)
+ * - findDriverIdsByStatus(RideStatus) - Drivers on a ride (see RideRepositoryCustom)
+ * 
+ * Projections (list endpoints): MongoDB returns only the fields of the read
+ * model, and Spring Data maps them straight into the DTO:
+ * - findCardsByStatus(RideStatus, Pageable) - First page of a keyset feed by status
+ * - findCardsByStatusAfter(...) - Next page of a keyset feed, after a (createdAt, id)
+ * - findCardsByStatusNear(...) - Rides with a status nearest to a point, within a radius
+ * - findHistoryByUserId(String) - RideHistoryRow for a passenger's rides
  * 
  * Used by: RideService for ride lookups and queries
  */
-public interface RideRepository extends MongoRepository<Ride, String> {
+public interface RideRepository extends MongoRepository<Ride, String>, RideRepositoryCustom {
+
+    // Fields read for a PendingRideCard
+    String PENDING_CARD_FIELDS = "{ 'pickupLocation': 1, 'dropLocation': 1, 'pickupPoint': 1, 'createdAt': 1 }";
+
+    // Fields read for a RideHistoryRow
+    String HISTORY_ROW_FIELDS = "{ 'driverId': 1, 'pickupLocation': 1, 'dropLocation': 1, 'status': 1, 'createdAt': 1 }";
 
     /**
      * Find all rides with a specific status
@@ -38,16 +60,65 @@ public interface RideRepository extends MongoRepository<Ride, String> {
      * @param status The ride status to filter by
      * @return List of rides with the specified status
      */
-    List<Ride> findByStatus(String status);
+    List<Ride> findByStatus(RideStatus status);
 
     /**
-     * Find all rides for a specific passenger (user)
+     * A passenger's rides as history rows, newest first
      * 
-     * Returns all ride requests created by a particular user,
-     * regardless of their status.
+     * Reads only HISTORY_ROW_FIELDS, in userId_createdAt index order.
      * 
      * @param userId The passenger user ID
-     * @return List of all rides created by this user
+     * @return All rides created by this user
+     */
+    @Query(value = "{ 'userId': ?0 }", fields = HISTORY_ROW_FIELDS, sort = "{ 'createdAt': -1 }")
+    List<RideHistoryRow> findHistoryByUserId(String userId);
+
+    /**
+     * First page of rides with a specific status, as cards
+     * 
+     * Pass PageRequest.of(0, size, Sort by createdAt, id ascending). The Slice
+     * reads one extra document to report hasNext() without counting. Reads
+     * only PENDING_CARD_FIELDS.
+     * 
+     * @param status   The ride status to filter by
+     * @param pageable Page size and (createdAt, id) sort; page number must be 0
+     * @return Slice of up to pageable.getPageSize() cards
+     */
+    @Query(value = "{ 'status': ?0 }", fields = PENDING_CARD_FIELDS)
+    Slice<PendingRideCard> findCardsByStatus(RideStatus status, Pageable pageable);
+
+    /**
+     * Next page of rides with a specific status, as cards (keyset pagination)
+     * 
+     * Returns rides strictly after the given (createdAt, id) position, so every
+     * page is an index range seek on (status, createdAt) instead of a skip over
+     * all earlier rides. Use the same Pageable as findCardsByStatus().
+     * 
+     * @param status    The ride status to filter by
+     * @param createdAt Creation time of the last ride already returned
+     * @param id        ObjectId of the last ride already returned
+     * @param pageable  Page size and (createdAt, id) sort; page number must be 0
+     * @return Slice of up to pageable.getPageSize() cards after the position
+     */
+    @Query(value = "{ 'status': ?0, '$or': [ { 'createdAt': { '$gt': ?1 } }, { 'createdAt': ?1, '_id': { '$gt': ?2 } } ] }", fields = PENDING_CARD_FIELDS)
+    Slice<PendingRideCard> findCardsByStatusAfter(RideStatus status, Date createdAt, ObjectId id, Pageable pageable);
+
+    /**
+     * Rides with a specific status nearest to a point, as cards (GeoJSON $near)
+     * 
+     * Uses the status_pickupPoint 2dsphere index: only rides within
+     * maxDistanceMeters of the point are read, nearest first. Rides without a
+     * pickupPoint are never returned. Pass an unsorted PageRequest.of(0, limit);
+     * a sort would replace the distance order.
+     * 
+     * @param status            The ride status to filter by
+     * @param longitude         Longitude of the point in degrees
+     * @param latitude          Latitude of the point in degrees
+     * @param maxDistanceMeters Search radius in meters
+     * @param pageable          Maximum number of rides (unsorted, page 0)
+     * @return Up to pageable.getPageSize() cards ordered by distance
      */
-    List<Ride> findByUserId(String userId);
+    @Query(value = "{ 'status': ?0, 'pickupPoint': { '$near': { '$geometry': { 'type': 'Point', 'coordinates': [ ?1, ?2 ] }, '$maxDistance': ?3 } } }", fields = PENDING_CARD_FIELDS)
+    List<PendingRideCard> findCardsByStatusNear(RideStatus status, double longitude, double latitude,
+            double maxDistanceMeters, Pageable pageable);
 }
@@ -0,0 +1,94 @@
+package org.example.rideshare.repository;
+
+import com.mongodb.WriteConcern;
+import com.mongodb.bulk.BulkWriteError;
+import org.example.rideshare.dto.RideHistoryRow;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.model.RideStatus;
+
+import java.util.List;
+
+/**
+ * RideRepositoryCustom - Hand-written Ride queries beyond derived methods
+ * 
+ * Custom Methods:
+ * - acceptIfRequested(String, String) - Atomic REQUESTED -> ACCEPTED transition
+ * - completeIfAccepted(String, String) - Atomic ACCEPTED -> COMPLETED by a participant
+ * - findArchivedHistoryByUserId(String) - History rows from the rides_archive collection
+ * - findDriverIdsByStatus(RideStatus) - Distinct drivers of the rides with a status
+ * - insertAllUnordered(List[, WriteConcern]) - Unordered insertMany reporting per-entry errors
+ * 
+ * Implemented by: RideRepositoryCustomImpl
+ */
+public interface RideRepositoryCustom {
+
+    /**
+     * Accept a ride only if it is still REQUESTED, in one findAndModify
+     * 
+     * Matches on _id and status = REQUESTED and sets status = ACCEPTED and the
+     * driver in the same atomic operation, so of several concurrent callers
+     * exactly one succeeds.
+     * 
+     * @param rideId   The ID of the ride to accept
+     * @param driverId The ID of the accepting driver
+     * @return The updated ride, or null if no REQUESTED ride with this ID exists
+     */
+    Ride acceptIfRequested(String rideId, String driverId);
+
+    /**
+     * Complete a ride only if it is ACCEPTED and the caller takes part in it
+     * 
+     * Matches on _id, status = ACCEPTED and driverId or userId equal to the
+     * caller, and sets status = COMPLETED and completedAt in the same atomic
+     * operation.
+     * 
+     * @param rideId   The ID of the ride to complete
+     * @param callerId The ID of the passenger or driver completing the ride
+     * @return The updated ride, or null if no ride matched
+     */
+    Ride completeIfAccepted(String rideId, String callerId);
+
+    /**
+     * A passenger's archived rides as history rows, newest first
+     * 
+     * Same projection and order as RideRepository.findHistoryByUserId, read
+     * from Ride.ARCHIVE_COLLECTION (userId_createdAt index, see RideArchiver).
+     * 
+     * @param userId The passenger user ID
+     * @return This user's archived rides
+     */
+    List<RideHistoryRow> findArchivedHistoryByUserId(String userId);
+
+    /**
+     * Distinct driver IDs of the rides with a status
+     * 
+     * One distinct command on driverId; rides without a driver are skipped.
+     * 
+     * @param status The ride status to match
+     * @return IDs of the drivers of those rides
+     */
+    List<String> findDriverIdsByStatus(RideStatus status);
+
+    /**
+     * Insert rides with a single unordered insertMany
+     * 
+     * Every document is attempted even if some fail. Successfully inserted
+     * rides get their generated ID set.
+     * 
+     * @param rides The rides to insert (IDs should be null)
+     * @return Write errors of the failed entries, empty if all were inserted
+     */
+    List<BulkWriteError> insertAllUnordered(List<Ride> rides);
+
+    /**
+     * Insert rides with a single unordered insertMany, acknowledged with the
+     * given write concern
+     * 
+     * @param rides        The rides to insert (IDs should be null)
+     * @param writeConcern Acknowledgement to wait for (null = collection default)
+     * @return Write errors of the failed entries, empty if all were inserted
+     * @throws com.mongodb.MongoBulkWriteException if the write concern could
+     *                                             not be satisfied
+     */
+    List<BulkWriteError> insertAllUnordered(List<Ride> rides, WriteConcern writeConcern);
+}
@@ -0,0 +1,72 @@
+package org.example.rideshare.repository;
+
+import com.mongodb.WriteConcern;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.Document;
+import org.example.rideshare.dto.RideHistoryRow;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.model.RideStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * RideRepositoryCustomImpl - MongoTemplate-based implementation of
+ * RideRepositoryCustom
+ * 
+ * Picked up by Spring Data as a repository fragment of RideRepository.
+ */
+public class RideRepositoryCustomImpl implements RideRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public Ride acceptIfRequested(String rideId, String driverId) {
+        Query query = Query.query(where("id").is(rideId).and("status").is(RideStatus.REQUESTED));
+        Update update = new Update().set("status", RideStatus.ACCEPTED).set("driverId", driverId);
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+                Ride.class);
+    }
+
+    @Override
+    public Ride completeIfAccepted(String rideId, String callerId) {
+        Query query = Query.query(where("id").is(rideId).and("status").is(RideStatus.ACCEPTED)
+                .orOperator(where("driverId").is(callerId), where("userId").is(callerId)));
+        Update update = new Update().set("status", RideStatus.COMPLETED).set("completedAt", new Date());
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true),
+                Ride.class);
+    }
+
+    @Override
+    public List<RideHistoryRow> findArchivedHistoryByUserId(String userId) {
+        Query query = new BasicQuery(new Document("userId", userId), Document.parse(RideRepository.HISTORY_ROW_FIELDS))
+                .with(Sort.by(Sort.Direction.DESC, "createdAt"));
+        return mongoTemplate.find(query, RideHistoryRow.class, Ride.ARCHIVE_COLLECTION);
+    }
+
+    @Override
+    public List<String> findDriverIdsByStatus(RideStatus status) {
+        Query query = Query.query(where("status").is(status).and("driverId").ne(null));
+        return mongoTemplate.findDistinct(query, "driverId", Ride.class, String.class);
+    }
+
+    @Override
+    public List<BulkWriteError> insertAllUnordered(List<Ride> rides) {
+        return insertAllUnordered(rides, null);
+    }
+
+    @Override
+    public List<BulkWriteError> insertAllUnordered(List<Ride> rides, WriteConcern writeConcern) {
+        return BulkInsertSupport.insertAllUnordered(mongoTemplate, rides, Ride.class, writeConcern, Ride::setId);
+    }
+}
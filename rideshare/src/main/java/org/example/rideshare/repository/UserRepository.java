@@ -23,10 +23,11 @@ import java.util.Optional;
  * 
  * Custom Methods:
  * - findByUsername(String) - Find user by unique username
+ * - insertAllUnordered(List) - Bulk insert (see UserRepositoryCustom)
  * 
  * Used by: AuthService for user lookups
  */
-public interface UserRepository extends MongoRepository<User, String> {
+public interface UserRepository extends MongoRepository<User, String>, UserRepositoryCustom {
     /**
      * Find a user by their username
      * 
@@ -0,0 +1,44 @@
+package org.example.rideshare.repository;
+
+import com.mongodb.bulk.BulkWriteError;
+import org.example.rideshare.model.User;
+
+import java.util.List;
+
+/**
+ * UserRepositoryCustom - Hand-written User queries beyond derived methods
+ * 
+ * Custom Methods:
+ * - insertAllUnordered(List) - Unordered insertMany reporting per-entry errors
+ * - replacePassword(id, expected, replacement) - Conditional password update
+ * 
+ * Implemented by: UserRepositoryCustomImpl
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Insert users with a single unordered insertMany
+     * 
+     * Every document is attempted even if some fail (e.g. duplicate username on
+     * the unique index). Successfully inserted users get their generated ID set.
+     * 
+     * @param users The users to insert (IDs should be null)
+     * @return Write errors of the failed entries, empty if all were inserted
+     * @throws com.mongodb.MongoBulkWriteException if the write concern could
+     *                                             not be satisfied
+     */
+    List<BulkWriteError> insertAllUnordered(List<User> users);
+
+    /**
+     * Set a user's password hash only if it still equals the expected one
+     * 
+     * A single updateOne on {_id, password}: a concurrent password change wins
+     * over this update, and no other field of the document is written.
+     * 
+     * @param id          The user's ID
+     * @param expected    The hash the caller read
+     * @param replacement The new hash
+     * @return true if the hash was replaced, false if it had changed meanwhile
+     */
+    boolean replacePassword(String id, String expected, String replacement);
+}
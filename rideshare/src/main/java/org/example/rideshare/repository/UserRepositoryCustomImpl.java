@@ -0,0 +1,36 @@
+package org.example.rideshare.repository;
+
+import com.mongodb.bulk.BulkWriteError;
+import org.example.rideshare.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * UserRepositoryCustomImpl - MongoTemplate-based implementation of
+ * UserRepositoryCustom
+ * 
+ * Picked up by Spring Data as a repository fragment of UserRepository.
+ */
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public List<BulkWriteError> insertAllUnordered(List<User> users) {
+        return BulkInsertSupport.insertAllUnordered(mongoTemplate, users, User.class, null, User::setId);
+    }
+
+    @Override
+    public boolean replacePassword(String id, String expected, String replacement) {
+        Query query = new Query(where("id").is(id).and("password").is(expected));
+        return mongoTemplate.updateFirst(query, Update.update("password", replacement), User.class)
+                .getModifiedCount() > 0;
+    }
+}
@@ -1,9 +1,12 @@
 package org.example.rideshare.service;
 
 import org.example.rideshare.dto.AuthResponse;
+import org.example.rideshare.dto.BulkRegisterResponse;
 import org.example.rideshare.dto.LoginRequest;
 import org.example.rideshare.dto.RegisterRequest;
 
+import java.util.List;
+
 /**
  * AuthService - Service interface for user authentication and registration
  * 
@@ -26,6 +29,18 @@ public interface AuthService {
      */
     AuthResponse register(RegisterRequest request);
 
+    /**
+     * Register many users at once
+     * 
+     * Creates all accounts with a single unordered insert. Entries that fail
+     * (e.g. duplicate usernames) are reported individually and do not stop the
+     * others. No tokens are issued; users log in separately.
+     * 
+     * @param requests RegisterRequest entries, already validated
+     * @return BulkRegisterResponse with one result per entry, in request order
+     */
+    BulkRegisterResponse registerAll(List<RegisterRequest> requests);
+
     /**
      * Authenticate a user and return JWT token
      * 
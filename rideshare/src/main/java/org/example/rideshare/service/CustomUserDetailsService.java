@@ -1,12 +1,22 @@
 package org.example.rideshare.service;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.rideshare.config.AuthenticatedUser;
 import org.example.rideshare.model.User;
 import org.example.rideshare.repository.UserRepository;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.stereotype.Service;
 
 import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * CustomUserDetailsService - Spring Security integration for user
@@ -22,7 +32,23 @@ import java.util.Collections;
  * Security UserDetails objects that include username, password hash, and
  * authorities.
  * 
- * Used by: Spring Security's AuthenticationProvider during login
+ * User Cache:
+ * - Lookups by username go through a bounded local cache (Caffeine)
+ * - Size bound: app.security.user-cache.max-size
+ * - Found users expire after app.security.user-cache.ttl-ms
+ * - Unknown usernames are cached too, for app.security.user-cache.negative-ttl-ms
+ * - Writers (registration, password or role changes) must call evict()
+ * - evict() only clears this instance's cache. Changes made directly in
+ * MongoDB or on another instance are seen after the entry expires, so a
+ * revoked role or deleted account can keep working for up to
+ * app.security.user-cache.ttl-ms (lower it if revocation must be faster)
+ * - The MongoDB query runs on the calling thread outside the cache's internal
+ * lock, so a virtual thread waiting on MongoDB never pins its carrier thread
+ * - Metrics exported as cache "users" (hit ratio via cache.gets, load latency
+ * via cache.load.duration)
+ * 
+ * Used by: Spring Security's AuthenticationProvider during login,
+ * JwtAuthFilter in database authentication mode
  * 
  * @author RideShare Development Team
  * @version 1.0
@@ -31,8 +57,24 @@ import java.util.Collections;
 public class CustomUserDetailsService implements UserDetailsService {
 
         // Injected UserRepository for database access
-        @Autowired
-        private UserRepository userRepository;
+        private final UserRepository userRepository;
+
+        // Username -> user document (empty Optional for unknown usernames)
+        private final AsyncCache<String, Optional<User>> userCache;
+
+        public CustomUserDetailsService(UserRepository userRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.security.user-cache.max-size:10000}") long maxSize,
+                        @Value("${app.security.user-cache.ttl-ms:300000}") long ttlMs,
+                        @Value("${app.security.user-cache.negative-ttl-ms:30000}") long negativeTtlMs) {
+                this.userRepository = userRepository;
+                this.userCache = Caffeine.newBuilder()
+                                .maximumSize(maxSize)
+                                .expireAfter(new PresenceExpiry(ttlMs, negativeTtlMs))
+                                .recordStats()
+                                .buildAsync();
+                CaffeineCacheMetrics.monitor(meterRegistry, userCache.synchronous(), "users");
+        }
 
         /**
          * Load user authentication details by username
@@ -49,8 +91,8 @@ public class CustomUserDetailsService implements UserDetailsService {
         public UserDetails loadUserByUsername(String username)
                         throws UsernameNotFoundException {
 
-                // Retrieve user from database, throw exception if not found
-                User user = userRepository.findByUsername(username)
+                // Retrieve user from cache or database, throw exception if not found
+                User user = findUser(username)
                                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
                 // Create and return Spring Security UserDetails
@@ -59,4 +101,99 @@ public class CustomUserDetailsService implements UserDetailsService {
                                 user.getPassword(), // BCrypt-hashed password
                                 Collections.singleton(() -> user.getRole())); // Authority (role)
         }
+
+        /**
+         * Load the request principal for a username
+         * 
+         * Used by JwtAuthFilter in database authentication mode, so the
+         * principal carries the user's ID and current role from MongoDB.
+         * 
+         * @param username The username to load
+         * @return AuthenticatedUser with id, username and role
+         * @throws UsernameNotFoundException if user not found in database
+         */
+        public AuthenticatedUser loadAuthenticatedUser(String username)
+                        throws UsernameNotFoundException {
+
+                User user = findUser(username)
+                                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+
+                return new AuthenticatedUser(user.getId(), user.getUsername(), user.getRole());
+        }
+
+        /**
+         * Find a user by username through the local cache
+         * 
+         * Cached replacement for UserRepository.findByUsername(). Callers must
+         * not modify the returned User.
+         * 
+         * @param username The username to look up
+         * @return Optional containing the user if found, empty otherwise
+         */
+        public Optional<User> findUser(String username) {
+                CompletableFuture<Optional<User>> pending = new CompletableFuture<>();
+                CompletableFuture<Optional<User>> entry = userCache.get(username, (key, executor) -> pending);
+
+                // The caller that installed the entry loads it; concurrent callers wait on it
+                if (entry == pending) {
+                        try {
+                                pending.complete(userRepository.findByUsername(username));
+                        } catch (RuntimeException e) {
+                                pending.completeExceptionally(e);
+                        }
+                }
+
+                try {
+                        return entry.join();
+                } catch (CompletionException e) {
+                        if (e.getCause() instanceof RuntimeException cause) {
+                                throw cause;
+                        }
+                        throw e;
+                }
+        }
+
+        /**
+         * Invalidate the cached entry for a username
+         * 
+         * Must be called after any write that changes what findUser() returns:
+         * registration (clears a cached "not found"), password changes and role
+         * changes.
+         * 
+         * @param username The username whose entry should be dropped
+         */
+        public void evict(String username) {
+                userCache.synchronous().invalidate(username);
+        }
+
+        /**
+         * PresenceExpiry - Separate lifetimes for found and not-found entries
+         */
+        private static class PresenceExpiry implements Expiry<String, Optional<User>> {
+
+                private final long ttlNanos;
+                private final long negativeTtlNanos;
+
+                PresenceExpiry(long ttlMs, long negativeTtlMs) {
+                        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+                        this.negativeTtlNanos = TimeUnit.MILLISECONDS.toNanos(negativeTtlMs);
+                }
+
+                @Override
+                public long expireAfterCreate(String key, Optional<User> value, long currentTime) {
+                        return value.isPresent() ? ttlNanos : negativeTtlNanos;
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, Optional<User> value, long currentTime,
+                                long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String key, Optional<User> value, long currentTime,
+                                long currentDuration) {
+                        return currentDuration;
+                }
+        }
 }
@@ -0,0 +1,242 @@
+package org.example.rideshare.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.rideshare.dto.RideEvent;
+import org.example.rideshare.model.GeoPoint;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.repository.RideRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DispatchService - Assigns drivers to pending rides in batched windows
+ *
+ * Instead of letting every driver race for every ride, the dispatcher runs
+ * once per window (app.dispatch.window-ms) over the rides and drivers that
+ * accumulated since the last run:
+ * 1. Take up to app.dispatch.max-batch of the oldest pending rides with a
+ * pickupPoint (PendingRideIndex, no database read)
+ * 2. For each ride, find the app.dispatch.candidates nearest available
+ * drivers within app.dispatch.max-pickup-meters (DriverPositionIndex)
+ * 3. Solve the assignment minimising total pickup distance: the optimal
+ * (Hungarian) solver when the batch has at most app.dispatch.optimal-max-size
+ * rides and drivers, greedy otherwise
+ * 4. Apply each pair with the same atomic conditional update as a manual
+ * accept, so a ride cancelled or accepted in the meantime is skipped
+ *
+ * Assigned drivers are marked busy, and a ride-taken event (ride ID only)
+ * removes the ride from the other drivers' lists. Rides without
+ * coordinates, or without a driver in range, stay in the pending feed, where
+ * drivers can still accept them manually.
+ *
+ * Run it on one instance only (app.dispatch.enabled=true): driver positions
+ * are held per instance, and the atomic accept keeps a ride from being
+ * assigned twice but not a driver from being dispatched by two instances.
+ *
+ * Metrics:
+ * - dispatch.window.rides / dispatch.window.drivers: batch size per window
+ * - dispatch.solve (tag solver=greedy|optimal): solver time
+ * - dispatch.assignments: rides assigned; dispatch.conflicts: assignments
+ * lost to a concurrent change
+ * - dispatch.pickup.distance: pickup distance per assignment (meters)
+ * - dispatch.match.ratio: assigned rides / rides in the window
+ * - dispatch.optimal.gain: total meters saved by the optimal solver over
+ * greedy in the same window
+ *
+ * @author RideShare Development Team
+ * @version 1.0
+ */
+@Service
+public class DispatchService implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(DispatchService.class);
+
+    private final PendingRideIndex pendingRideIndex;
+    private final DriverPositionIndex driverPositionIndex;
+    private final RideRepository rideRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final boolean enabled;
+    private final long windowMs;
+    private final int maxBatch;
+    private final int candidates;
+    private final double maxPickupMeters;
+    private final int optimalMaxSize;
+
+    private final DistributionSummary windowRides;
+    private final DistributionSummary windowDrivers;
+    private final Timer greedyTime;
+    private final Timer optimalTime;
+    private final Counter assignments;
+    private final Counter conflicts;
+    private final DistributionSummary pickupDistance;
+    private final DistributionSummary matchRatio;
+    private final DistributionSummary optimalGain;
+
+    private ScheduledExecutorService scheduler;
+
+    public DispatchService(PendingRideIndex pendingRideIndex, DriverPositionIndex driverPositionIndex,
+            RideRepository rideRepository, ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+            @Value("${app.dispatch.enabled:false}") boolean enabled,
+            @Value("${app.dispatch.window-ms:1500}") long windowMs,
+            @Value("${app.dispatch.max-batch:500}") int maxBatch,
+            @Value("${app.dispatch.candidates:8}") int candidates,
+            @Value("${app.dispatch.max-pickup-meters:5000}") double maxPickupMeters,
+            @Value("${app.dispatch.optimal-max-size:60}") int optimalMaxSize) {
+        this.pendingRideIndex = pendingRideIndex;
+        this.driverPositionIndex = driverPositionIndex;
+        this.rideRepository = rideRepository;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.windowMs = windowMs;
+        this.maxBatch = maxBatch;
+        this.candidates = candidates;
+        this.maxPickupMeters = maxPickupMeters;
+        this.optimalMaxSize = optimalMaxSize;
+
+        this.windowRides = DistributionSummary.builder("dispatch.window.rides").register(meterRegistry);
+        this.windowDrivers = DistributionSummary.builder("dispatch.window.drivers").register(meterRegistry);
+        this.greedyTime = Timer.builder("dispatch.solve").tag("solver", "greedy").register(meterRegistry);
+        this.optimalTime = Timer.builder("dispatch.solve").tag("solver", "optimal").register(meterRegistry);
+        this.assignments = Counter.builder("dispatch.assignments").register(meterRegistry);
+        this.conflicts = Counter.builder("dispatch.conflicts").register(meterRegistry);
+        this.pickupDistance = DistributionSummary.builder("dispatch.pickup.distance").baseUnit("meters")
+                .publishPercentiles(0.5, 0.9, 0.99).register(meterRegistry);
+        this.matchRatio = DistributionSummary.builder("dispatch.match.ratio").register(meterRegistry);
+        this.optimalGain = DistributionSummary.builder("dispatch.optimal.gain").baseUnit("meters")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Start the dispatch windows once the application is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ride-dispatch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::dispatchQuietly, windowMs, windowMs, TimeUnit.MILLISECONDS);
+        log.info("Ride dispatch started with a {} ms window", windowMs);
+    }
+
+    /**
+     * Run one dispatch window
+     *
+     * @return Number of rides assigned
+     */
+    public int dispatch() {
+        if (!pendingRideIndex.isReady()) {
+            return 0;
+        }
+        List<Ride> rides = pendingRideIndex.oldestWithPickup(maxBatch);
+        if (rides.isEmpty()) {
+            return 0;
+        }
+
+        // Candidate drivers per ride; columns are the distinct drivers seen
+        Map<String, Integer> driverColumns = new HashMap<>();
+        List<String> driverIds = new ArrayList<>();
+        List<List<SpatialGridIndex.Hit<DriverPositionIndex.DriverFix>>> nearby = new ArrayList<>(rides.size());
+        for (Ride ride : rides) {
+            GeoPoint pickup = ride.getPickupPoint();
+            List<SpatialGridIndex.Hit<DriverPositionIndex.DriverFix>> hits = driverPositionIndex.nearest(
+                    pickup.getCoordinates()[1], pickup.getCoordinates()[0], candidates, maxPickupMeters);
+            for (SpatialGridIndex.Hit<DriverPositionIndex.DriverFix> hit : hits) {
+                if (driverColumns.putIfAbsent(hit.id(), driverIds.size()) == null) {
+                    driverIds.add(hit.id());
+                }
+            }
+            nearby.add(hits);
+        }
+        windowRides.record(rides.size());
+        windowDrivers.record(driverIds.size());
+        if (driverIds.isEmpty()) {
+            matchRatio.record(0);
+            return 0;
+        }
+
+        double[][] cost = new double[rides.size()][driverIds.size()];
+        for (int ride = 0; ride < rides.size(); ride++) {
+            Arrays.fill(cost[ride], DispatchSolver.NO_EDGE);
+            for (SpatialGridIndex.Hit<DriverPositionIndex.DriverFix> hit : nearby.get(ride)) {
+                cost[ride][driverColumns.get(hit.id())] = hit.distanceMeters();
+            }
+        }
+
+        int[] assignment = solve(cost);
+
+        int assigned = 0;
+        for (int ride = 0; ride < assignment.length; ride++) {
+            if (assignment[ride] >= 0 && apply(rides.get(ride), driverIds.get(assignment[ride]))) {
+                pickupDistance.record(cost[ride][assignment[ride]]);
+                assigned++;
+            }
+        }
+        matchRatio.record((double) assigned / rides.size());
+        return assigned;
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    // Greedy always; optimal as well for small batches, recording its gain
+    private int[] solve(double[][] cost) {
+        int[] greedy = greedyTime.record(() -> DispatchSolver.greedy(cost));
+        if (Math.max(cost.length, cost[0].length) > optimalMaxSize) {
+            return greedy;
+        }
+        int[] optimal = optimalTime.record(() -> DispatchSolver.optimal(cost));
+        if (DispatchSolver.assigned(optimal) == DispatchSolver.assigned(greedy)) {
+            optimalGain.record(DispatchSolver.totalCost(cost, greedy) - DispatchSolver.totalCost(cost, optimal));
+        }
+        return optimal;
+    }
+
+    // Same conditional update as a manual accept; false if the ride was taken meanwhile
+    private boolean apply(Ride ride, String driverId) {
+        Ride accepted = rideRepository.acceptIfRequested(ride.getId(), driverId);
+        pendingRideIndex.remove(ride.getId());
+        if (accepted == null) {
+            conflicts.increment();
+            return false;
+        }
+        driverPositionIndex.markBusy(driverId);
+        eventPublisher.publishEvent(RideEvent.taken(ride.getId()));
+        assignments.increment();
+        return true;
+    }
+
+    private void dispatchQuietly() {
+        try {
+            dispatch();
+        } catch (RuntimeException e) {
+            log.warn("Ride dispatch window failed", e);
+        }
+    }
+}
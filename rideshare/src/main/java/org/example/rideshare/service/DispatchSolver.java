@@ -0,0 +1,196 @@
+package org.example.rideshare.service;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * DispatchSolver - Ride-to-driver assignment on a cost matrix
+ *
+ * cost[ride][driver] is the pickup distance, or NO_EDGE when the driver is
+ * not a candidate for the ride. Both solvers return assignment[ride] = driver
+ * column, or -1 for an unassigned ride; no driver is used twice.
+ *
+ * - greedy: repeatedly takes the cheapest remaining pair. O(E log E) for E
+ * candidate pairs; fast for any batch size but can miss the global optimum
+ * - optimal: Hungarian algorithm (shortest augmenting paths with potentials).
+ * Assigns as many rides as possible and, among those assignments, minimizes
+ * the total pickup distance. O(n^2 m); meant for small batches
+ *
+ * Used by: DispatchService
+ *
+ * @author RideShare Development Team
+ * @version 1.0
+ */
+final class DispatchSolver {
+
+    static final double NO_EDGE = Double.POSITIVE_INFINITY;
+
+    private DispatchSolver() {
+    }
+
+    /**
+     * Cheapest-pair-first assignment
+     */
+    static int[] greedy(double[][] cost) {
+        int rides = cost.length;
+        int drivers = rides == 0 ? 0 : cost[0].length;
+
+        // All candidate pairs, cheapest first
+        int edges = 0;
+        int[] edgeRide = new int[rides * drivers];
+        int[] edgeDriver = new int[rides * drivers];
+        for (int ride = 0; ride < rides; ride++) {
+            for (int driver = 0; driver < drivers; driver++) {
+                if (cost[ride][driver] != NO_EDGE) {
+                    edgeRide[edges] = ride;
+                    edgeDriver[edges] = driver;
+                    edges++;
+                }
+            }
+        }
+        Integer[] order = new Integer[edges];
+        for (int i = 0; i < edges; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble(edge -> cost[edgeRide[edge]][edgeDriver[edge]]));
+
+        int[] assignment = new int[rides];
+        Arrays.fill(assignment, -1);
+        boolean[] taken = new boolean[drivers];
+        for (int edge : order) {
+            int ride = edgeRide[edge];
+            int driver = edgeDriver[edge];
+            if (assignment[ride] < 0 && !taken[driver]) {
+                assignment[ride] = driver;
+                taken[driver] = true;
+            }
+        }
+        return assignment;
+    }
+
+    /**
+     * Minimum-cost maximum assignment (Hungarian algorithm)
+     */
+    static int[] optimal(double[][] cost) {
+        int rides = cost.length;
+        int drivers = rides == 0 ? 0 : cost[0].length;
+        int[] assignment = new int[rides];
+        Arrays.fill(assignment, -1);
+        if (rides == 0 || drivers == 0) {
+            return assignment;
+        }
+
+        // Missing pairs cost more than any complete set of real pairs, so the
+        // solver first maximizes the number of real pairs, then minimizes cost
+        double finiteSum = 0;
+        for (double[] row : cost) {
+            for (double value : row) {
+                if (value != NO_EDGE) {
+                    finiteSum += value;
+                }
+            }
+        }
+        double missing = finiteSum + 1;
+
+        // The algorithm below needs rows <= columns; transpose otherwise
+        boolean transposed = rides > drivers;
+        int n = transposed ? drivers : rides;
+        int m = transposed ? rides : drivers;
+        double[][] a = new double[n + 1][m + 1];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < m; j++) {
+                double value = transposed ? cost[j][i] : cost[i][j];
+                a[i + 1][j + 1] = value == NO_EDGE ? missing : value;
+            }
+        }
+
+        int[] match = hungarian(a, n, m);
+
+        for (int j = 1; j <= m; j++) {
+            int i = match[j];
+            if (i == 0 || a[i][j] == missing) {
+                continue;
+            }
+            if (transposed) {
+                assignment[j - 1] = i - 1;
+            } else {
+                assignment[i - 1] = j - 1;
+            }
+        }
+        return assignment;
+    }
+
+    /**
+     * Total cost of the assigned pairs
+     */
+    static double totalCost(double[][] cost, int[] assignment) {
+        double total = 0;
+        for (int ride = 0; ride < assignment.length; ride++) {
+            if (assignment[ride] >= 0) {
+                total += cost[ride][assignment[ride]];
+            }
+        }
+        return total;
+    }
+
+    // Number of assigned rides
+    static int assigned(int[] assignment) {
+        int count = 0;
+        for (int driver : assignment) {
+            if (driver >= 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // 1-based n x m (n <= m) matrix; returns match[column] = row (0 = none)
+    private static int[] hungarian(double[][] a, int n, int m) {
+        double[] u = new double[n + 1];
+        double[] v = new double[m + 1];
+        int[] match = new int[m + 1];
+        int[] way = new int[m + 1];
+
+        for (int i = 1; i <= n; i++) {
+            match[0] = i;
+            int j0 = 0;
+            double[] minValue = new double[m + 1];
+            Arrays.fill(minValue, Double.POSITIVE_INFINITY);
+            boolean[] used = new boolean[m + 1];
+            do {
+                used[j0] = true;
+                int i0 = match[j0];
+                double delta = Double.POSITIVE_INFINITY;
+                int j1 = 0;
+                for (int j = 1; j <= m; j++) {
+                    if (!used[j]) {
+                        double current = a[i0][j] - u[i0] - v[j];
+                        if (current < minValue[j]) {
+                            minValue[j] = current;
+                            way[j] = j0;
+                        }
+                        if (minValue[j] < delta) {
+                            delta = minValue[j];
+                            j1 = j;
+                        }
+                    }
+                }
+                for (int j = 0; j <= m; j++) {
+                    if (used[j]) {
+                        u[match[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minValue[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (match[j0] != 0);
+            do {
+                int j1 = way[j0];
+                match[j0] = match[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+        return match;
+    }
+}
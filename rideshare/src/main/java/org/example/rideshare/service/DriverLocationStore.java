@@ -0,0 +1,303 @@
+package org.example.rideshare.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * DriverLocationStore - Latest position per driver in primitive arrays
+ *
+ * Every driver gets a dense slot (0..capacity-1) on their first ping. The
+ * slot holds only the latest position, so pings are coalesced in place and
+ * nothing accumulates:
+ * - positions: latitude and longitude as 1e-7 degree integers (about 1 cm)
+ * packed into one long, so a reader never sees a half-written position
+ * - reportedAt: ping time in epoch millis; older pings than the stored one
+ * are ignored
+ * - versions: per-slot version, odd while a writer holds the slot. A writer
+ * takes the slot with one compare-and-set from an even version, checks that
+ * the slot still belongs to its driver and that its ping is not older, then
+ * writes position and time and bumps the version again. Two pings of the
+ * same driver therefore never mix, and a ping never lands in a slot that was
+ * released and handed to another driver
+ *
+ * An update of a known driver is one map lookup, one compare-and-set and two
+ * array writes, with no allocation. The arrays are allocated once: 24 bytes
+ * per slot (6 MB for 262144 slots) plus the driver ID map.
+ *
+ * Slots of drivers that go offline are reused. A ping racing with the release
+ * of its own slot can be lost; the driver's next ping restores it.
+ *
+ * Snapshots: writeSnapshot() copies all live slots to a file (written to a
+ * temporary file first, then moved), readSnapshot() replays one. Each slot is
+ * read between two equal even versions, without stopping ingestion, so a
+ * snapshot is a consistent copy of each driver but not of the whole fleet at
+ * one instant.
+ *
+ * Used by: DriverPositionIndex
+ *
+ * @author RideShare Development Team
+ * @version 1.0
+ */
+public class DriverLocationStore {
+
+    // update() results besides a slot number
+    public static final int FULL = -1;
+    public static final int STALE = -2;
+
+    private static final double E7 = 1e7;
+    private static final int SNAPSHOT_MAGIC = 0x52534C31;
+
+    private final int capacity;
+    private final AtomicLongArray positions;
+    private final AtomicLongArray reportedAt;
+    private final AtomicLongArray versions;
+    private final AtomicReferenceArray<String> driverIds;
+
+    private final ConcurrentHashMap<String, Integer> slots = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Integer> freeSlots = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger highWater = new AtomicInteger();
+
+    /**
+     * @param capacity Maximum number of drivers online at once
+     */
+    public DriverLocationStore(int capacity) {
+        this.capacity = capacity;
+        this.positions = new AtomicLongArray(capacity);
+        this.reportedAt = new AtomicLongArray(capacity);
+        this.versions = new AtomicLongArray(capacity);
+        this.driverIds = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Store a driver's position unless a newer one is already stored
+     *
+     * @param driverId  The driver's user ID
+     * @param latitude  Latitude in degrees
+     * @param longitude Longitude in degrees
+     * @param timestamp Ping time in epoch millis
+     * @return The driver's slot, STALE if a newer ping is already stored, or
+     *         FULL if there is no free slot
+     */
+    public int update(String driverId, double latitude, double longitude, long timestamp) {
+        while (true) {
+            Integer slot = slots.get(driverId);
+            if (slot == null) {
+                slot = slots.computeIfAbsent(driverId, this::allocate);
+                if (slot == null) {
+                    return FULL;
+                }
+            }
+            long version = lock(slot);
+            try {
+                // Slot released (and maybe reused) since the lookup: take a new one
+                if (!driverId.equals(driverIds.get(slot))) {
+                    continue;
+                }
+                if (timestamp < reportedAt.get(slot)) {
+                    return STALE;
+                }
+                positions.set(slot, pack(latitude, longitude));
+                reportedAt.set(slot, timestamp);
+                return slot;
+            } finally {
+                unlock(slot, version);
+            }
+        }
+    }
+
+    /**
+     * Free a driver's slot
+     *
+     * @param driverId The driver's user ID
+     * @return The freed slot, or -1 if the driver had none
+     */
+    public int release(String driverId) {
+        Integer slot = slots.remove(driverId);
+        if (slot == null) {
+            return -1;
+        }
+        long version = lock(slot);
+        try {
+            driverIds.set(slot, null);
+            reportedAt.set(slot, 0);
+        } finally {
+            unlock(slot, version);
+        }
+        freeSlots.add(slot);
+        return slot;
+    }
+
+    // Driver in a slot, or null if the slot is free
+    public String driverId(int slot) {
+        return driverIds.get(slot);
+    }
+
+    // Latitude in degrees stored in a slot
+    public double latitude(int slot) {
+        return unpackLatitude(positions.get(slot));
+    }
+
+    // Longitude in degrees stored in a slot
+    public double longitude(int slot) {
+        return unpackLongitude(positions.get(slot));
+    }
+
+    // Ping time (epoch millis) stored in a slot; 0 if free
+    public long reportedAt(int slot) {
+        return reportedAt.get(slot);
+    }
+
+    // Packed position of a slot (see pack())
+    public long position(int slot) {
+        return positions.get(slot);
+    }
+
+    // Slots in use or used before: every live slot is below this
+    public int highWater() {
+        return Math.min(highWater.get(), capacity);
+    }
+
+    // Number of drivers with a slot
+    public int size() {
+        return slots.size();
+    }
+
+    // Maximum number of drivers
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Write all live slots to a file
+     *
+     * @param file Snapshot file (replaced atomically)
+     * @return Number of drivers written
+     */
+    public int writeSnapshot(Path file) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        int written = 0;
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            int end = highWater();
+            for (int slot = 0; slot < end; slot++) {
+                String driverId;
+                long time;
+                long position;
+                long version;
+                // Retry while a writer holds the slot or took it during the reads
+                do {
+                    version = versions.get(slot);
+                    driverId = driverIds.get(slot);
+                    time = reportedAt.get(slot);
+                    position = positions.get(slot);
+                } while ((version & 1) != 0 || versions.get(slot) != version);
+                if (driverId == null || time == 0) {
+                    continue;
+                }
+                out.writeUTF(driverId);
+                out.writeLong(position);
+                out.writeLong(time);
+                written++;
+            }
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return written;
+    }
+
+    /**
+     * Read a snapshot written by writeSnapshot()
+     *
+     * @param file     Snapshot file
+     * @param consumer Receives every driver in the file
+     * @return Number of drivers read
+     */
+    public static int readSnapshot(Path file, PositionConsumer consumer) throws IOException {
+        int read = 0;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not a driver location snapshot: " + file);
+            }
+            while (true) {
+                String driverId;
+                try {
+                    driverId = in.readUTF();
+                } catch (EOFException end) {
+                    return read;
+                }
+                long position = in.readLong();
+                long time = in.readLong();
+                consumer.accept(driverId, unpackLatitude(position), unpackLongitude(position), time);
+                read++;
+            }
+        }
+    }
+
+    // Latitude and longitude as 1e-7 degree integers in one long
+    public static long pack(double latitude, double longitude) {
+        long lat = Math.round(latitude * E7);
+        long lng = Math.round(longitude * E7);
+        return (lat << 32) | (lng & 0xFFFFFFFFL);
+    }
+
+    public static double unpackLatitude(long packed) {
+        return (int) (packed >> 32) / E7;
+    }
+
+    public static double unpackLongitude(long packed) {
+        return (int) packed / E7;
+    }
+
+    // Take a slot for writing: odd version, set from an even one in one CAS
+    private long lock(int slot) {
+        while (true) {
+            long version = versions.get(slot);
+            if ((version & 1) == 0 && versions.compareAndSet(slot, version, version + 1)) {
+                return version + 1;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    // Release a slot taken by lock(): next even version
+    private void unlock(int slot, long locked) {
+        versions.set(slot, locked + 1);
+    }
+
+    // New slot for a driver, or null if the store is full (no mapping is created)
+    private Integer allocate(String driverId) {
+        Integer slot = freeSlots.poll();
+        if (slot == null) {
+            int next = highWater.getAndIncrement();
+            if (next >= capacity) {
+                highWater.decrementAndGet();
+                return null;
+            }
+            slot = next;
+        }
+        driverIds.set(slot, driverId);
+        return slot;
+    }
+
+    /**
+     * PositionConsumer - Receives the drivers of a snapshot
+     */
+    @FunctionalInterface
+    public interface PositionConsumer {
+
+        void accept(String driverId, double latitude, double longitude, long reportedAt);
+    }
+}
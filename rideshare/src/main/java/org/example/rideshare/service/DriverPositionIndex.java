@@ -0,0 +1,399 @@
+package org.example.rideshare.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.rideshare.dto.DriverLocationRequest;
+import org.example.rideshare.exception.ServiceOverloadedException;
+import org.example.rideshare.model.RideStatus;
+import org.example.rideshare.repository.RideRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * DriverPositionIndex - Last known position of every online driver
+ *
+ * Drivers report their position every few seconds (PUT
+ * /api/v1/driver/location, or POST /api/v1/driver/locations for a batch).
+ * Nothing is written to MongoDB:
+ * - DriverLocationStore keeps the latest position per driver in primitive
+ * arrays; every ping overwrites the previous one
+ * - A SpatialGridIndex finds the drivers nearest to a pickup in microseconds.
+ * It is only updated once a driver has moved more than
+ * app.drivers.location.reindex-meters from their indexed position, so most
+ * pings never touch it; nearest() measures distances from the latest position
+ *
+ * A driver counts as online until they go offline (DELETE
+ * /api/v1/driver/location) or stop reporting for
+ * app.drivers.location.ttl-ms; stale drivers are swept in the background.
+ *
+ * Snapshots: every app.drivers.location.snapshot-interval-ms the store is
+ * written to app.drivers.location.snapshot-file on the background thread, and
+ * again on shutdown. On startup, drivers from the snapshot that are still
+ * within the ttl are restored, so a restart does not empty the map. An empty
+ * snapshot-file turns snapshots off.
+ *
+ * Availability: a driver is busy from accepting (or being dispatched) a ride
+ * until that ride is completed. Busy drivers keep their position but are not
+ * returned by nearest(). Going offline or losing signal does not end a ride,
+ * so busy state is independent of the position ttl. Once the application is
+ * ready, and then every app.drivers.busy.refresh-ms, the busy set is matched
+ * with the drivers of the ACCEPTED rides in MongoDB, so a restart does not
+ * make drivers on a ride available and rides accepted or completed through
+ * another instance are picked up. Drivers marked busy or available here while
+ * that query runs keep their local state.
+ *
+ * Metrics:
+ * - drivers.online: drivers with a current position
+ * - drivers.busy: drivers currently on a ride
+ * - drivers.location.pings: pings received; drivers.location.reindexed: pings
+ * that moved a driver in the grid
+ * - drivers.location.snapshot: snapshot write time
+ *
+ * @author RideShare Development Team
+ * @version 1.0
+ */
+@Component
+public class DriverPositionIndex implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(DriverPositionIndex.class);
+
+    // indexed[] value of a slot not in the grid
+    private static final long UNSET = Long.MIN_VALUE;
+
+    private final RideRepository rideRepository;
+    private final long ttlMs;
+    private final double reindexMeters;
+    private final Path snapshotFile;
+
+    // Latest position per driver
+    private final DriverLocationStore store;
+
+    // Driver ID -> slot, at the position last indexed
+    private final SpatialGridIndex<DriverFix> drivers;
+
+    // Slot -> packed position it is indexed at in the grid
+    private final AtomicLongArray indexed;
+
+    // IDs of drivers on a ride -> change number when marked busy
+    private final ConcurrentHashMap<String, Long> busy = new ConcurrentHashMap<>();
+
+    // IDs of drivers marked available since the last refresh -> change number
+    private final ConcurrentHashMap<String, Long> released = new ConcurrentHashMap<>();
+
+    // Numbers busy and available changes, to tell them from a refresh query
+    private final AtomicLong changes = new AtomicLong();
+
+    private final long busyRefreshMs;
+
+    private final Counter pings;
+    private final Counter reindexed;
+    private final Timer snapshotTime;
+
+    private final ScheduledExecutorService sweeper;
+
+    public DriverPositionIndex(RideRepository rideRepository, MeterRegistry meterRegistry,
+            @Value("${app.drivers.location.ttl-ms:30000}") long ttlMs,
+            @Value("${app.rides.spatial.cell-degrees:0.01}") double cellDegrees,
+            @Value("${app.drivers.location.capacity:262144}") int capacity,
+            @Value("${app.drivers.location.reindex-meters:25}") double reindexMeters,
+            @Value("${app.drivers.location.snapshot-file:}") String snapshotFile,
+            @Value("${app.drivers.location.snapshot-interval-ms:10000}") long snapshotIntervalMs,
+            @Value("${app.drivers.busy.refresh-ms:10000}") long busyRefreshMs) {
+        this.rideRepository = rideRepository;
+        this.busyRefreshMs = busyRefreshMs;
+        this.ttlMs = ttlMs;
+        this.reindexMeters = reindexMeters;
+        this.snapshotFile = snapshotFile.isBlank() ? null : Path.of(snapshotFile);
+        this.store = new DriverLocationStore(capacity);
+        this.drivers = new SpatialGridIndex<>(cellDegrees);
+        this.indexed = new AtomicLongArray(capacity);
+        for (int slot = 0; slot < capacity; slot++) {
+            indexed.set(slot, UNSET);
+        }
+
+        Gauge.builder("drivers.online", store, DriverLocationStore::size).register(meterRegistry);
+        Gauge.builder("drivers.busy", busy, Map::size).register(meterRegistry);
+        this.pings = Counter.builder("drivers.location.pings").register(meterRegistry);
+        this.reindexed = Counter.builder("drivers.location.reindexed").register(meterRegistry);
+        this.snapshotTime = Timer.builder("drivers.location.snapshot").register(meterRegistry);
+
+        restoreSnapshot();
+
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "driver-position-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweepMs = Math.max(1000, ttlMs / 2);
+        sweeper.scheduleWithFixedDelay(this::removeStale, sweepMs, sweepMs, TimeUnit.MILLISECONDS);
+        if (this.snapshotFile != null && snapshotIntervalMs > 0) {
+            sweeper.scheduleWithFixedDelay(this::snapshotQuietly, snapshotIntervalMs, snapshotIntervalMs,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Record a driver's current position
+     *
+     * @param driverId  The driver's user ID
+     * @param latitude  Latitude in degrees
+     * @param longitude Longitude in degrees
+     */
+    public void update(String driverId, double latitude, double longitude) {
+        update(driverId, latitude, longitude, System.currentTimeMillis());
+    }
+
+    /**
+     * Record a batch of pings from one driver; only the latest is kept
+     *
+     * Pings without a timestamp count as taken on arrival, in list order.
+     *
+     * @param driverId The driver's user ID
+     * @param batch    Validated pings
+     * @return true if the position changed, false if a newer one was already
+     *         stored
+     */
+    public boolean update(String driverId, List<DriverLocationRequest> batch) {
+        long now = System.currentTimeMillis();
+        DriverLocationRequest latest = null;
+        long latestTime = Long.MIN_VALUE;
+        for (DriverLocationRequest ping : batch) {
+            long time = ping.getTimestamp() == null ? now : Math.min(ping.getTimestamp(), now);
+            if (time >= latestTime) {
+                latest = ping;
+                latestTime = time;
+            }
+        }
+        pings.increment(batch.size() - 1);
+        return update(driverId, latest.getLatitude(), latest.getLongitude(), latestTime);
+    }
+
+    /**
+     * Record a driver's position at a given time
+     *
+     * @param driverId  The driver's user ID
+     * @param latitude  Latitude in degrees
+     * @param longitude Longitude in degrees
+     * @param timestamp When the position was taken (epoch millis)
+     * @return true if the position changed, false if a newer one was already
+     *         stored
+     * @throws ServiceOverloadedException if app.drivers.location.capacity
+     *                                    drivers are already online
+     */
+    public boolean update(String driverId, double latitude, double longitude, long timestamp) {
+        pings.increment();
+        int slot = store.update(driverId, latitude, longitude, timestamp);
+        if (slot == DriverLocationStore.STALE) {
+            return false;
+        }
+        if (slot == DriverLocationStore.FULL) {
+            throw new ServiceOverloadedException("Too many drivers online", 5);
+        }
+        long position = indexed.get(slot);
+        if (position == UNSET || SpatialGridIndex.distanceMeters(latitude, longitude,
+                DriverLocationStore.unpackLatitude(position),
+                DriverLocationStore.unpackLongitude(position)) > reindexMeters) {
+            drivers.put(driverId, latitude, longitude, new DriverFix(driverId, slot));
+            indexed.set(slot, DriverLocationStore.pack(latitude, longitude));
+            reindexed.increment();
+        }
+        return true;
+    }
+
+    /**
+     * Take a driver offline
+     *
+     * @param driverId The driver's user ID
+     */
+    public void remove(String driverId) {
+        drivers.remove(driverId);
+        int slot = store.release(driverId);
+        if (slot >= 0) {
+            indexed.set(slot, UNSET);
+        }
+    }
+
+    /**
+     * Load the busy drivers and start refreshing them
+     *
+     * Runs once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadBusy() {
+        refreshBusy();
+        log.info("Marked {} drivers with an ACCEPTED ride busy", busy.size());
+        if (busyRefreshMs > 0) {
+            sweeper.scheduleWithFixedDelay(this::refreshBusyQuietly, busyRefreshMs, busyRefreshMs,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Match the busy set with the drivers of the ACCEPTED rides in MongoDB
+     *
+     * Drivers of ACCEPTED rides become busy and busy drivers without one become
+     * available, except drivers marked busy or available here after the query
+     * started: their ride changed since, so the query result is already stale
+     * for them.
+     */
+    public void refreshBusy() {
+        long since = changes.get();
+        Set<String> accepted = new HashSet<>(rideRepository.findDriverIdsByStatus(RideStatus.ACCEPTED));
+
+        // Conditional per entry: a driver marked busy again meanwhile is kept
+        busy.entrySet().removeIf(entry -> entry.getValue() <= since && !accepted.contains(entry.getKey()));
+        for (String driverId : accepted) {
+            Long releasedAt = released.get(driverId);
+            if (releasedAt == null || releasedAt <= since) {
+                busy.putIfAbsent(driverId, since);
+            }
+        }
+        released.values().removeIf(change -> change <= since);
+    }
+
+    // Driver has a ride; no longer returned by nearest()
+    public void markBusy(String driverId) {
+        busy.put(driverId, changes.incrementAndGet());
+    }
+
+    // Driver's ride is over; available again
+    public void markAvailable(String driverId) {
+        released.put(driverId, changes.incrementAndGet());
+        busy.remove(driverId);
+    }
+
+    /**
+     * Available online drivers nearest to a position
+     *
+     * The grid is searched with reindex-meters of slack, then distances are
+     * measured from each driver's latest position.
+     *
+     * @param latitude        Latitude in degrees
+     * @param longitude       Longitude in degrees
+     * @param k               Number of drivers wanted
+     * @param maxRadiusMeters Largest distance to search
+     * @return Up to k hits (id = driver ID), nearest first
+     */
+    public List<SpatialGridIndex.Hit<DriverFix>> nearest(double latitude, double longitude, int k,
+            double maxRadiusMeters) {
+        long freshAfter = System.currentTimeMillis() - ttlMs;
+        List<SpatialGridIndex.Hit<DriverFix>> candidates = drivers.nearest(latitude, longitude, k,
+                maxRadiusMeters + reindexMeters,
+                fix -> fix.driverId().equals(store.driverId(fix.slot()))
+                        && store.reportedAt(fix.slot()) > freshAfter
+                        && !busy.containsKey(fix.driverId()));
+
+        List<SpatialGridIndex.Hit<DriverFix>> hits = new ArrayList<>(candidates.size());
+        for (SpatialGridIndex.Hit<DriverFix> candidate : candidates) {
+            long position = store.position(candidate.value().slot());
+            double distance = SpatialGridIndex.distanceMeters(latitude, longitude,
+                    DriverLocationStore.unpackLatitude(position), DriverLocationStore.unpackLongitude(position));
+            if (distance <= maxRadiusMeters) {
+                hits.add(new SpatialGridIndex.Hit<>(candidate.id(), candidate.value(), distance));
+            }
+        }
+        hits.sort(Comparator.comparingDouble(SpatialGridIndex.Hit::distanceMeters));
+        return hits;
+    }
+
+    // Number of online drivers
+    public int size() {
+        return store.size();
+    }
+
+    /**
+     * Write the current positions to the snapshot file
+     *
+     * @return Number of drivers written, or -1 if snapshots are off
+     */
+    public int snapshot() throws IOException {
+        if (snapshotFile == null) {
+            return -1;
+        }
+        long start = System.nanoTime();
+        int written = store.writeSnapshot(snapshotFile);
+        snapshotTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return written;
+    }
+
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+        snapshotQuietly();
+    }
+
+    private void removeStale() {
+        long freshAfter = System.currentTimeMillis() - ttlMs;
+        int end = store.highWater();
+        for (int slot = 0; slot < end; slot++) {
+            String driverId = store.driverId(slot);
+            if (driverId != null && store.reportedAt(slot) <= freshAfter) {
+                remove(driverId);
+            }
+        }
+    }
+
+    // Drivers of the last snapshot that have not expired yet
+    private void restoreSnapshot() {
+        if (snapshotFile == null || !Files.exists(snapshotFile)) {
+            return;
+        }
+        long freshAfter = System.currentTimeMillis() - ttlMs;
+        try {
+            int[] restored = new int[1];
+            DriverLocationStore.readSnapshot(snapshotFile, (driverId, latitude, longitude, reportedAt) -> {
+                if (reportedAt > freshAfter && restored[0] < store.capacity()) {
+                    update(driverId, latitude, longitude, reportedAt);
+                    restored[0]++;
+                }
+            });
+            log.info("Restored {} driver positions from {}", restored[0], snapshotFile);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not restore driver positions from {}", snapshotFile, e);
+        }
+    }
+
+    private void refreshBusyQuietly() {
+        try {
+            refreshBusy();
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh busy drivers", e);
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not write driver position snapshot to {}", snapshotFile, e);
+        }
+    }
+
+    /**
+     * DriverFix - A driver in the grid and their slot in DriverLocationStore
+     */
+    public record DriverFix(String driverId, int slot) {
+    }
+}
@@ -0,0 +1,516 @@
+package org.example.rideshare.service;
+
+import com.mongodb.MongoServerException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.example.rideshare.dto.PendingRideCard;
+import org.example.rideshare.dto.RideFeedPage;
+import org.example.rideshare.model.GeoPoint;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.model.RideStatus;
+import org.example.rideshare.repository.RideRepository;
+import org.example.rideshare.util.RideCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * PendingRideIndex - In-memory index of REQUESTED rides
+ *
+ * Serves the driver pending-ride feed from memory so driver polling does not
+ * reach MongoDB. Rides are kept in a ConcurrentSkipListMap ordered by
+ * (createdAt, id), the same order and cursor format as the MongoDB keyset
+ * query, so pages can be read concurrently without locks and clients see no
+ * difference.
+ *
+ * Rides with a pickupPoint are also kept in a SpatialGridIndex
+ * (app.rides.spatial.cell-degrees), which answers the nearby-rides query in
+ * microseconds instead of a MongoDB $near round trip.
+ *
+ * Keeping It Current:
+ * - Startup: loaded from RideRepository.findByStatus("REQUESTED") once the
+ * application is ready; until then isReady() is false and callers use MongoDB
+ * - Local writes: the ride services call add() on create and remove() on
+ * accept/complete
+ * - Other instances: a MongoDB change stream on the rides collection applies
+ * inserts, updates and deletes from every instance
+ * (app.rides.pending-index.change-stream, on by default, needs a replica set
+ * or sharded cluster). The stream is opened before the startup query, so
+ * changes made while it runs are applied after it. While the stream is down
+ * isReady() is false; it resumes after its last resume token, or opens a new
+ * stream and reloads the index when it cannot resume
+ *
+ * Without a change stream (turned off, or MongoDB is a standalone server) the
+ * index cannot see rides written by other instances. It is then only used if
+ * app.rides.pending-index.single-instance=true declares this instance the only
+ * writer; otherwise it stays empty, isReady() stays false and every read goes
+ * to MongoDB.
+ * - Consistency check (optional): every
+ * app.rides.pending-index.reconcile-interval-ms the REQUESTED ride IDs are
+ * read from MongoDB (covered index query) and differences are re-checked
+ * and repaired; 0 turns it off
+ *
+ * Metrics:
+ * - rides.pending.index.size: rides currently in the index
+ * - rides.pending.index.drift: entries repaired by the consistency check
+ *
+ * Used by: RideServiceImpl, ReactiveRideServiceImpl, DispatchService
+ *
+ * @author RideShare Development Team
+ * @version 1.0
+ */
+@Component
+public class PendingRideIndex implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PendingRideIndex.class);
+
+    private final RideRepository rideRepository;
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final boolean changeStream;
+    private final boolean singleInstance;
+    private final long reconcileIntervalMs;
+    private final Counter drift;
+
+    // Pending rides in feed order
+    private final ConcurrentSkipListMap<Key, Ride> rides = new ConcurrentSkipListMap<>();
+
+    // Ride ID -> its key in rides (for removal by ID)
+    private final ConcurrentHashMap<String, Key> keys = new ConcurrentHashMap<>();
+
+    // Pending rides with a pickupPoint, by pickup position
+    private final SpatialGridIndex<Ride> byPickup;
+
+    // IDs removed while the startup load was running (re-applied after it)
+    private final Set<String> removedDuringLoad = ConcurrentHashMap.newKeySet();
+
+    // False once load() found no way to keep the index current
+    private volatile boolean tracking;
+
+    private volatile boolean loading;
+    private volatile boolean ready;
+    private volatile boolean running = true;
+
+    // Background change stream watcher and consistency check (null when off)
+    private Thread watcher;
+    private ScheduledExecutorService reconciler;
+
+    public PendingRideIndex(RideRepository rideRepository, MongoTemplate mongoTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.rides.pending-index.enabled:true}") boolean enabled,
+            @Value("${app.rides.pending-index.change-stream:true}") boolean changeStream,
+            @Value("${app.rides.pending-index.single-instance:false}") boolean singleInstance,
+            @Value("${app.rides.pending-index.reconcile-interval-ms:0}") long reconcileIntervalMs,
+            @Value("${app.rides.spatial.cell-degrees:0.01}") double cellDegrees) {
+        this.rideRepository = rideRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.changeStream = changeStream;
+        this.singleInstance = singleInstance;
+        this.tracking = enabled;
+        this.reconcileIntervalMs = reconcileIntervalMs;
+        this.byPickup = new SpatialGridIndex<>(cellDegrees);
+        this.drift = Counter.builder("rides.pending.index.drift").register(meterRegistry);
+        Gauge.builder("rides.pending.index.size", rides, NavigableMap::size).register(meterRegistry);
+    }
+
+    /**
+     * Load the index from MongoDB and start the optional background sync
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+
+        boolean synced = changeStream && supportsChangeStreams();
+        if (!synced && !singleInstance) {
+            tracking = false;
+            keys.clear();
+            rides.clear();
+            byPickup.removeIf(ride -> true);
+            log.warn("Pending ride index off: {} and app.rides.pending-index.single-instance is false;"
+                    + " pending rides are read from MongoDB",
+                    changeStream ? "MongoDB does not support change streams" : "change stream disabled");
+            return;
+        }
+
+        if (synced) {
+            // The stream is open before the load query runs, so every change made after the
+            // query's snapshot is delivered to the watcher and applied on top of the load
+            MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = reload();
+            watcher = new Thread(() -> watchChanges(cursor), "pending-ride-change-stream");
+            watcher.setDaemon(true);
+            watcher.start();
+        } else {
+            loadRequested();
+            ready = true;
+        }
+        log.info("Pending ride index loaded with {} rides", rides.size());
+
+        if (reconcileIntervalMs > 0) {
+            reconciler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "pending-ride-reconcile");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reconciler.scheduleWithFixedDelay(this::reconcileQuietly, reconcileIntervalMs, reconcileIntervalMs,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // True once loaded; callers must fall back to MongoDB before that
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Add or replace a REQUESTED ride
+     *
+     * @param ride The ride (ignored unless its status is REQUESTED)
+     */
+    public void add(Ride ride) {
+        if (tracking && ride.getStatus() == RideStatus.REQUESTED && ride.getCreatedAt() != null) {
+            put(ride);
+        }
+    }
+
+    /**
+     * Remove a ride that is no longer REQUESTED
+     *
+     * @param rideId The ID of the ride
+     */
+    public void remove(String rideId) {
+        if (!tracking) {
+            return;
+        }
+        if (loading) {
+            removedDuringLoad.add(rideId);
+        }
+        delete(rideId);
+    }
+
+    /**
+     * Read one page of pending rides
+     *
+     * @param after Position after which to start, or null for the first page
+     * @param size  Maximum number of rides to return
+     * @return Rides in (createdAt, id) order and the cursor for the next page
+     */
+    public RideFeedPage page(RideCursor after, int size) {
+        NavigableMap<Key, Ride> tail = after == null
+                ? rides
+                : rides.tailMap(new Key(after.getCreatedAt().getTime(), after.getId().toHexString()), false);
+
+        List<PendingRideCard> page = new ArrayList<>(size);
+        Iterator<Ride> iterator = tail.values().iterator();
+        while (page.size() < size && iterator.hasNext()) {
+            page.add(PendingRideCard.from(iterator.next()));
+        }
+        String nextCursor = iterator.hasNext() ? RideCursor.encode(page.get(page.size() - 1)) : null;
+        return new RideFeedPage(page, nextCursor);
+    }
+
+    /**
+     * Pending rides nearest to a position
+     *
+     * @param latitude     Latitude in degrees
+     * @param longitude    Longitude in degrees
+     * @param radiusMeters Search radius in meters
+     * @param limit        Maximum number of rides
+     * @return Up to limit rides with a pickupPoint within the radius, nearest
+     *         first
+     */
+    public List<PendingRideCard> nearby(double latitude, double longitude, double radiusMeters, int limit) {
+        List<PendingRideCard> nearby = new ArrayList<>(limit);
+        for (SpatialGridIndex.Hit<Ride> hit : byPickup.within(latitude, longitude, radiusMeters, limit)) {
+            nearby.add(PendingRideCard.from(hit.value()));
+        }
+        return nearby;
+    }
+
+    /**
+     * Oldest pending rides that have a pickupPoint
+     *
+     * @param max Maximum number of rides
+     * @return Up to max rides in (createdAt, id) order
+     */
+    public List<Ride> oldestWithPickup(int max) {
+        List<Ride> oldest = new ArrayList<>(Math.min(max, byPickup.size()));
+        for (Ride ride : rides.values()) {
+            if (oldest.size() >= max) {
+                break;
+            }
+            if (GeoPoint.isValid(ride.getPickupPoint())) {
+                oldest.add(ride);
+            }
+        }
+        return oldest;
+    }
+
+    /**
+     * Compare the index with MongoDB and repair differences
+     *
+     * Reads the IDs of all REQUESTED rides (covered by the status_createdAt
+     * index). Every ID present on only one side is re-read by ID before it is
+     * added or removed, so rides created or accepted during the check are not
+     * misclassified.
+     *
+     * @return Number of entries repaired
+     */
+    public int reconcile() {
+        Query query = Query.query(where("status").is(RideStatus.REQUESTED));
+        query.fields().include("id");
+        Set<String> inMongo = new HashSet<>();
+        for (Ride ride : mongoTemplate.find(query, Ride.class)) {
+            inMongo.add(ride.getId());
+        }
+
+        Set<String> suspects = new HashSet<>();
+        inMongo.stream().filter(id -> !keys.containsKey(id)).forEach(suspects::add);
+        keys.keySet().stream().filter(id -> !inMongo.contains(id)).forEach(suspects::add);
+
+        int repaired = 0;
+        for (String id : suspects) {
+            Optional<Ride> current = rideRepository.findById(id);
+            boolean pending = current.isPresent() && current.get().getStatus() == RideStatus.REQUESTED;
+            if (pending && !keys.containsKey(id)) {
+                put(current.get());
+                repaired++;
+            } else if (!pending && keys.containsKey(id)) {
+                delete(id);
+                repaired++;
+            }
+        }
+
+        if (repaired > 0) {
+            drift.increment(repaired);
+            log.warn("Pending ride index repaired {} entries that differed from MongoDB", repaired);
+        }
+        return repaired;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (reconciler != null) {
+            reconciler.shutdownNow();
+        }
+        if (watcher != null) {
+            watcher.interrupt();
+        }
+    }
+
+    // Inserts or moves the ride under its (createdAt, id) key
+    private void put(Ride ride) {
+        Key key = new Key(ride.getCreatedAt().getTime(), ride.getId());
+        keys.compute(ride.getId(), (id, previous) -> {
+            if (previous != null && !previous.equals(key)) {
+                rides.remove(previous);
+            }
+            rides.put(key, ride);
+            GeoPoint pickup = ride.getPickupPoint();
+            if (GeoPoint.isValid(pickup)) {
+                byPickup.put(id, pickup.getCoordinates()[1], pickup.getCoordinates()[0], ride);
+            } else {
+                byPickup.remove(id);
+            }
+            return key;
+        });
+    }
+
+    // Removes the ride with this ID, if present
+    private void delete(String rideId) {
+        keys.computeIfPresent(rideId, (id, key) -> {
+            rides.remove(key);
+            byPickup.remove(id);
+            return null;
+        });
+    }
+
+    // Change streams need a replica set or mongos; a standalone server rejects them
+    private boolean supportsChangeStreams() {
+        Document hello = mongoTemplate.getDb().runCommand(new Document("hello", 1));
+        return hello.containsKey("setName") || "isdbgrid".equals(hello.getString("msg"));
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.warn("Pending ride index consistency check failed", e);
+        }
+    }
+
+    // Replaces the index with the REQUESTED rides in MongoDB
+    private void loadRequested() {
+        keys.keySet().forEach(this::delete);
+        loading = true;
+        try {
+            rideRepository.findByStatus(RideStatus.REQUESTED).forEach(this::put);
+        } finally {
+            loading = false;
+        }
+        removedDuringLoad.forEach(this::delete);
+        removedDuringLoad.clear();
+    }
+
+    // Opens a new change stream, then reloads the index; unused (isReady() false) meanwhile
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> reload() {
+        ready = false;
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = openChangeStream(null);
+        try {
+            loadRequested();
+        } catch (RuntimeException e) {
+            cursor.close();
+            throw e;
+        }
+        ready = true;
+        return cursor;
+    }
+
+    // Change stream on the rides collection, from now or after resumeToken
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> openChangeStream(BsonDocument resumeToken) {
+        ChangeStreamIterable<Document> stream = mongoTemplate
+                .getCollection(mongoTemplate.getCollectionName(Ride.class))
+                .watch()
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .maxAwaitTime(1, TimeUnit.SECONDS);
+        if (resumeToken != null) {
+            stream = stream.resumeAfter(resumeToken);
+        }
+        return stream.cursor();
+    }
+
+    /**
+     * Applies ride changes from all instances until close()
+     *
+     * The resume token is taken from the cursor before every read, so it also
+     * covers a stream that has not delivered an event yet. After an error the
+     * index is unused until the stream is back: it resumes after the token, or,
+     * when there is no token or the server rejects it (history no longer in the
+     * oplog, invalid token), opens a new stream and reloads.
+     */
+    private void watchChanges(MongoChangeStreamCursor<ChangeStreamDocument<Document>> opened) {
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = opened;
+        BsonDocument resumeToken = null;
+        while (running) {
+            try {
+                if (cursor == null) {
+                    if (resumeToken != null) {
+                        cursor = openChangeStream(resumeToken);
+                        ready = true;
+                    } else {
+                        cursor = reload();
+                        log.info("Pending ride index reloaded with {} rides", rides.size());
+                    }
+                }
+                while (running) {
+                    // Covers the changes applied so far (or the stream's start, before the first one)
+                    BsonDocument token = cursor.getResumeToken();
+                    if (token != null) {
+                        resumeToken = token;
+                    }
+                    ChangeStreamDocument<Document> change = cursor.tryNext();
+                    if (change != null) {
+                        apply(change);
+                    }
+                }
+            } catch (RuntimeException e) {
+                ready = false;
+                if (cursor != null) {
+                    closeQuietly(cursor);
+                    cursor = null;
+                }
+                if (!running) {
+                    return;
+                }
+                if (e instanceof MongoServerException) {
+                    // The server refused the stream; resuming from the same token would fail again
+                    resumeToken = null;
+                }
+                log.warn("Pending ride change stream failed, {} in 1 s",
+                        resumeToken != null ? "resuming" : "reloading", e);
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        if (cursor != null) {
+            closeQuietly(cursor);
+        }
+    }
+
+    private static void closeQuietly(MongoChangeStreamCursor<?> cursor) {
+        try {
+            cursor.close();
+        } catch (RuntimeException e) {
+            log.debug("Closing the pending ride change stream failed", e);
+        }
+    }
+
+    // Adds, moves or removes the ride named by a change event
+    private void apply(ChangeStreamDocument<Document> change) {
+        if (change.getDocumentKey() == null) {
+            return;
+        }
+        String rideId = change.getDocumentKey().getObjectId("_id").getValue().toHexString();
+
+        switch (change.getOperationType()) {
+            case INSERT, UPDATE, REPLACE -> {
+                Document document = change.getFullDocument();
+                Ride ride = document == null ? null : mongoTemplate.getConverter().read(Ride.class, document);
+                if (ride != null && ride.getStatus() == RideStatus.REQUESTED && ride.getCreatedAt() != null) {
+                    put(ride);
+                } else {
+                    remove(rideId);
+                }
+            }
+            case DELETE -> remove(rideId);
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Key - Feed position of a ride: createdAt, then ID (hex order = ObjectId order)
+     */
+    private record Key(long createdAt, String id) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(Key other) {
+            int byTime = Long.compare(createdAt, other.createdAt);
+            return byTime != 0 ? byTime : id.compareTo(other.id);
+        }
+    }
+}
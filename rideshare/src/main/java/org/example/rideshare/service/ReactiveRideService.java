@@ -0,0 +1,95 @@
+package org.example.rideshare.service;
+
+import org.example.rideshare.dto.CreateRideRequest;
+import org.example.rideshare.dto.PendingRideCard;
+import org.example.rideshare.dto.RideFeedPage;
+import org.example.rideshare.dto.RideHistoryRow;
+import org.example.rideshare.model.Ride;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * ReactiveRideService - Non-blocking variant of RideService
+ * 
+ * Same operations and lifecycle rules as RideService, returning Mono/Flux
+ * instead of blocking. Errors are signalled through the returned publisher
+ * (NotFoundException, IllegalStateException) rather than thrown.
+ * 
+ * Ride Lifecycle:
+ * 1. REQUESTED - Passenger creates a new ride request
+ * 2. ACCEPTED - Driver accepts the pending ride request
+ * 3. COMPLETED - Ride is completed by the driver
+ * 
+ * Implemented by: ReactiveRideServiceImpl
+ */
+public interface ReactiveRideService {
+
+    /**
+     * Create a new ride request
+     * 
+     * @param request CreateRideRequest containing pickup and drop locations
+     * @param userId  The ID of the passenger requesting the ride
+     * @return Mono emitting the created Ride with REQUESTED status
+     */
+    Mono<Ride> createRide(CreateRideRequest request, String userId);
+
+    /**
+     * Get all rides for a specific passenger, archived rides included
+     * 
+     * @param userId The ID of the passenger
+     * @return Flux of all rides created by this user, newest first
+     */
+    Flux<RideHistoryRow> getUserRides(String userId);
+
+    /**
+     * Get one page of pending ride requests
+     * 
+     * Same keyset pagination on (createdAt, id) as
+     * RideService.getPendingRides(String, int).
+     * 
+     * @param cursor Continuation token from the previous page, or null for the
+     *               first page
+     * @param limit  Requested page size; values <= 0 use the default and larger
+     *               values are capped at the configured maximum
+     * @return Mono emitting the page and the token for the next page; errors
+     *         with IllegalArgumentException if the cursor is malformed
+     */
+    Mono<RideFeedPage> getPendingRides(String cursor, int limit);
+
+    /**
+     * Get the pending ride requests nearest to a driver
+     * 
+     * Same rules as RideService.getNearbyPendingRides(double, double, double, int).
+     * 
+     * @param latitude     Driver latitude in degrees (-90..90)
+     * @param longitude    Driver longitude in degrees (-180..180)
+     * @param radiusMeters Search radius; values <= 0 use the default
+     * @param limit        Maximum number of rides; values <= 0 use the default
+     * @return Flux of up to limit rides ordered by distance; errors with
+     *         IllegalArgumentException if the coordinates are out of range
+     */
+    Flux<PendingRideCard> getNearbyPendingRides(double latitude, double longitude, double radiusMeters, int limit);
+
+    /**
+     * Accept a pending ride request
+     * 
+     * @param rideId   The ID of the ride to accept
+     * @param driverId The ID of the driver accepting the ride
+     * @return Mono emitting the updated Ride; errors with NotFoundException if
+     *         the ride does not exist, IllegalStateException if it is not
+     *         REQUESTED
+     */
+    Mono<Ride> acceptRide(String rideId, String driverId);
+
+    /**
+     * Complete a ride
+     * 
+     * @param rideId   The ID of the ride to complete
+     * @param callerId The ID of the passenger or driver completing the ride
+     * @return Mono emitting the updated Ride; errors with NotFoundException if
+     *         the ride does not exist, AccessDeniedException if the caller is
+     *         neither its passenger nor its driver, IllegalStateException if
+     *         it is not ACCEPTED
+     */
+    Mono<Ride> completeRide(String rideId, String callerId);
+}
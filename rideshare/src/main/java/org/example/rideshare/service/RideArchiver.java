@@ -0,0 +1,276 @@
+package org.example.rideshare.service;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.Sorts;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.model.RideStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RideArchiver - Moves old COMPLETED rides to the rides_archive collection
+ *
+ * Completed rides are never updated again but stay in the rides collection,
+ * where they grow every index the feed and accept paths use. Every
+ * app.rides.archive.interval-ms the archiver moves COMPLETED rides whose
+ * completedAt is older than app.rides.archive.min-age-days to
+ * Ride.ARCHIVE_COLLECTION, unchanged.
+ *
+ * A pass works in batches of app.rides.archive.batch-size rides in
+ * (completedAt, _id) order (status_completedAt index):
+ * 1. Read the batch after the checkpoint
+ * 2. insertMany into rides_archive, unordered; rides already there from an
+ * interrupted batch are skipped (duplicate key)
+ * 3. deleteMany of the batch's _ids from rides, still only if COMPLETED
+ * 4. Save the last (completedAt, _id) as the checkpoint
+ * 5. Sleep app.rides.archive.pause-ms, so the archiver never competes with
+ * the request path for long
+ *
+ * The checkpoint is kept in MongoDB (rides_archive_checkpoint), so a pass
+ * stopped by a restart resumes after the last finished batch. A ride is in
+ * rides, in rides_archive or briefly in both, never in neither; readers merge
+ * both collections (RideHistoryRow.merge). The checkpoint is cleared when a
+ * pass finds nothing left.
+ *
+ * Before the first pass, on the archiver thread, the archive's
+ * userId_createdAt index is created and rides completed before completedAt
+ * existed get it from createdAt (prepare(); retried before the next pass if it
+ * fails).
+ *
+ * Run it on one instance only (app.rides.archive.enabled=true); two
+ * archivers would not lose rides but would repeat each other's work.
+ *
+ * Metrics:
+ * - rides.archive.moved: rides moved to the archive
+ * - rides.archive.batch: time per batch (without the pause)
+ *
+ * @author RideShare Development Team
+ * @version 1.0
+ */
+@Service
+public class RideArchiver implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(RideArchiver.class);
+
+    // Collection and document ID of the archiver's checkpoint
+    static final String CHECKPOINT_COLLECTION = "rides_archive_checkpoint";
+    static final String CHECKPOINT_ID = "rides-archiver";
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    private final boolean enabled;
+    private final long minAgeDays;
+    private final int batchSize;
+    private final long pauseMs;
+    private final long intervalMs;
+
+    private final Counter moved;
+    private final Timer batchTime;
+
+    private volatile boolean stopping;
+    private volatile boolean prepared;
+    private ScheduledExecutorService scheduler;
+
+    public RideArchiver(MongoTemplate mongoTemplate, MeterRegistry meterRegistry,
+            @Value("${app.rides.archive.enabled:false}") boolean enabled,
+            @Value("${app.rides.archive.min-age-days:90}") long minAgeDays,
+            @Value("${app.rides.archive.batch-size:500}") int batchSize,
+            @Value("${app.rides.archive.pause-ms:200}") long pauseMs,
+            @Value("${app.rides.archive.interval-ms:3600000}") long intervalMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.minAgeDays = minAgeDays;
+        this.batchSize = batchSize;
+        this.pauseMs = pauseMs;
+        this.intervalMs = intervalMs;
+
+        this.moved = Counter.builder("rides.archive.moved").register(meterRegistry);
+        this.batchTime = Timer.builder("rides.archive.batch").register(meterRegistry);
+    }
+
+    /**
+     * Start archiving once the application is ready
+     *
+     * Passes run on the archiver thread, the first one after prepare().
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ride-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::archiveQuietly, 0, intervalMs, TimeUnit.MILLISECONDS);
+        log.info("Ride archiver started for rides completed more than {} days ago", minAgeDays);
+    }
+
+    /**
+     * Create the archive index and backfill completedAt
+     *
+     * Runs once before the first pass; a pass only moves rides that have a
+     * completedAt.
+     */
+    public void prepare() {
+        mongoTemplate.getCollection(Ride.ARCHIVE_COLLECTION).createIndex(
+                Indexes.compoundIndex(Indexes.ascending("userId"), Indexes.descending("createdAt")),
+                new IndexOptions().name("userId_createdAt"));
+        backfillCompletedAt(mongoTemplate.getCollection(mongoTemplate.getCollectionName(Ride.class)));
+        prepared = true;
+    }
+
+    /**
+     * Run one archiving pass, resuming from the checkpoint
+     *
+     * @return Number of rides moved to the archive
+     */
+    public long archive() {
+        MongoCollection<Document> rides = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Ride.class));
+        MongoCollection<Document> archive = mongoTemplate.getCollection(Ride.ARCHIVE_COLLECTION);
+        MongoCollection<Document> checkpoints = mongoTemplate.getCollection(CHECKPOINT_COLLECTION);
+
+        Date cutoff = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(minAgeDays));
+        Document checkpoint = checkpoints.find(Filters.eq("_id", CHECKPOINT_ID)).first();
+        long total = 0;
+        while (!stopping) {
+            long start = System.nanoTime();
+            List<Document> batch = rides.find(batchFilter(cutoff, checkpoint))
+                    .sort(Sorts.ascending("completedAt", "_id"))
+                    .limit(batchSize)
+                    .into(new ArrayList<>(batchSize));
+            if (batch.isEmpty()) {
+                checkpoints.deleteOne(Filters.eq("_id", CHECKPOINT_ID));
+                break;
+            }
+
+            insertIgnoringDuplicates(archive, batch);
+            List<Object> ids = new ArrayList<>(batch.size());
+            for (Document ride : batch) {
+                ids.add(ride.get("_id"));
+            }
+            rides.deleteMany(Filters.and(Filters.in("_id", ids),
+                    Filters.eq("status", RideStatus.COMPLETED.code())));
+
+            Document last = batch.get(batch.size() - 1);
+            checkpoint = new Document("_id", CHECKPOINT_ID)
+                    .append("completedAt", last.get("completedAt"))
+                    .append("rideId", last.get("_id"))
+                    .append("updatedAt", new Date());
+            checkpoints.replaceOne(Filters.eq("_id", CHECKPOINT_ID), checkpoint, new ReplaceOptions().upsert(true));
+
+            batchTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            moved.increment(batch.size());
+            total += batch.size();
+            if (!pause()) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Archived {} rides completed before {}", total, cutoff);
+        }
+        return total;
+    }
+
+    @Override
+    public void close() {
+        stopping = true;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    // COMPLETED rides older than the cutoff, after the checkpoint if there is one
+    private static Bson batchFilter(Date cutoff, Document checkpoint) {
+        Bson due = Filters.and(Filters.eq("status", RideStatus.COMPLETED.code()), Filters.lt("completedAt", cutoff));
+        if (checkpoint == null) {
+            return due;
+        }
+        Object completedAt = checkpoint.get("completedAt");
+        return Filters.and(due, Filters.or(
+                Filters.gt("completedAt", completedAt),
+                Filters.and(Filters.eq("completedAt", completedAt), Filters.gt("_id", checkpoint.get("rideId")))));
+    }
+
+    // completedAt = createdAt for rides completed before the field existed, in batches
+    private void backfillCompletedAt(MongoCollection<Document> rides) {
+        Bson missing = Filters.and(Filters.eq("status", RideStatus.COMPLETED.code()), Filters.eq("completedAt", null));
+        while (!stopping) {
+            List<Object> ids = new ArrayList<>(batchSize);
+            for (Document ride : rides.find(missing).projection(Projections.include("_id")).limit(batchSize)) {
+                ids.add(ride.get("_id"));
+            }
+            if (ids.isEmpty()) {
+                return;
+            }
+            rides.updateMany(Filters.and(Filters.in("_id", ids), missing), List.of(new Document("$set",
+                    new Document("completedAt", new Document("$ifNull", List.of("$createdAt", "$$NOW"))))));
+        }
+    }
+
+    // Rides already archived by an interrupted batch are skipped
+    private static void insertIgnoringDuplicates(MongoCollection<Document> archive, List<Document> batch) {
+        try {
+            archive.insertMany(batch, new InsertManyOptions().ordered(false));
+        } catch (MongoBulkWriteException e) {
+            for (BulkWriteError error : e.getWriteErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    // Throttle between batches; false if interrupted
+    private boolean pause() {
+        if (pauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void archiveQuietly() {
+        try {
+            if (!prepared) {
+                prepare();
+            }
+            archive();
+        } catch (RuntimeException e) {
+            log.warn("Ride archiving pass failed; the next pass resumes from the checkpoint", e);
+        }
+    }
+}
@@ -0,0 +1,418 @@
+package org.example.rideshare.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.rideshare.dto.RideEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * RideEventBroadcaster - Pushes ride events to connected drivers (SSE)
+ *
+ * Receives RideEvent application events from RideServiceImpl and writes them
+ * to every open driver stream (GET /api/v1/driver/rides/stream), so drivers
+ * learn about new and taken rides without polling the pending-ride feed.
+ *
+ * Delivery:
+ * - Every event gets an ID "<boot>-<sequence>"; the boot part changes on
+ * restart so IDs from an earlier process are never mistaken for current ones
+ * - Publishing only appends to a per-connection bounded queue
+ * (app.rides.events.buffer-size); a small sender pool
+ * (app.rides.events.sender-threads) drains the queues, so one slow network
+ * connection never delays the request that created the ride or other drivers
+ * - A connection whose queue is full is evicted (stream closed); the browser
+ * EventSource reconnects with Last-Event-ID and resumes from there
+ * - A single write blocked longer than app.rides.events.send-timeout-ms (a
+ * client that stopped reading) is evicted too: its sender thread is
+ * interrupted and, until the write returns, an extra sender thread takes its
+ * place so the other streams keep flowing
+ * - A stream is completed by the sender that owns it, never while another
+ * thread is writing to it, so closing a stuck stream does not block
+ * - A comment line is sent every app.rides.events.heartbeat-ms so proxies keep
+ * idle streams open and dead connections are detected
+ * - Connections are closed after app.rides.events.timeout-ms and reconnect
+ * the same way, so long-lived streams are spread across instances over time
+ *
+ * Resume:
+ * The last app.rides.events.replay-size events are kept in memory. A client
+ * reconnecting with Last-Event-ID receives every later event. If the ID is
+ * from another process, older than the retained history, or more events are
+ * missing than fit in the buffer, a single "resync" event is sent instead and
+ * the client reloads GET /api/v1/driver/rides/requests. A new connection starts
+ * with a "subscribed" event carrying the current ID.
+ *
+ * Metrics:
+ * - rides.events.subscribers: open driver streams
+ * - rides.events.evicted: streams closed because the client fell behind or a
+ * write exceeded the send timeout
+ *
+ * Servlet stack only (SseEmitter); events are not pushed in reactive mode.
+ *
+ * @author RideShare Development Team
+ * @version 1.0
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RideEventBroadcaster implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(RideEventBroadcaster.class);
+
+    public static final String SUBSCRIBED = "subscribed";
+    public static final String RESYNC = "resync";
+
+    // Queue marker for a heartbeat comment
+    private static final Entry HEARTBEAT = new Entry(-1, null, null);
+
+    private final int bufferSize;
+    private final int replaySize;
+    private final long timeoutMs;
+    private final long sendTimeoutMs;
+    private final Counter evicted;
+
+    // Distinguishes event IDs of this process from those of earlier ones
+    private final String boot = Long.toString(System.currentTimeMillis(), 36);
+
+    // Guards sequence, history and subscriber registration so that every
+    // subscriber sees each event exactly once and in order
+    private final ReentrantLock lock = new ReentrantLock();
+    private long sequence;
+    private final ArrayDeque<Entry> history = new ArrayDeque<>();
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // Fixed size, plus one thread per write currently past the send timeout
+    private final ThreadPoolExecutor senders;
+
+    // Heartbeats and the send timeout check
+    private final ScheduledExecutorService heartbeats;
+
+    public RideEventBroadcaster(MeterRegistry meterRegistry,
+            @Value("${app.rides.events.buffer-size:256}") int bufferSize,
+            @Value("${app.rides.events.replay-size:1000}") int replaySize,
+            @Value("${app.rides.events.heartbeat-ms:15000}") long heartbeatMs,
+            @Value("${app.rides.events.timeout-ms:1800000}") long timeoutMs,
+            @Value("${app.rides.events.sender-threads:4}") int senderThreads,
+            @Value("${app.rides.events.send-timeout-ms:5000}") long sendTimeoutMs) {
+        this.bufferSize = bufferSize;
+        this.replaySize = replaySize;
+        this.timeoutMs = timeoutMs;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.evicted = Counter.builder("rides.events.evicted").register(meterRegistry);
+        Gauge.builder("rides.events.subscribers", subscribers, Set::size).register(meterRegistry);
+
+        AtomicInteger senderCount = new AtomicInteger();
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "ride-events-sender-" + senderCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ride-events-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+        long checkMs = Math.max(10, sendTimeoutMs / 4);
+        heartbeats.scheduleWithFixedDelay(this::evictStalled, checkMs, checkMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Open a driver stream
+     *
+     * @param lastEventId Value of the Last-Event-ID header, or null for a new
+     *                    stream
+     * @return Emitter for the HTTP response
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        Subscriber subscriber = new Subscriber(createEmitter(timeoutMs), bufferSize);
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> close(subscriber));
+        subscriber.emitter.onError(error -> close(subscriber));
+
+        lock.lock();
+        try {
+            if (lastEventId == null || lastEventId.isBlank()) {
+                subscriber.offer(new Entry(sequence, SUBSCRIBED, Map.of()));
+            } else {
+                List<Entry> missed = missedSince(lastEventId);
+                if (missed == null) {
+                    subscriber.offer(new Entry(sequence, RESYNC, Map.of()));
+                } else {
+                    missed.forEach(subscriber::offer);
+                }
+            }
+            subscribers.add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+        return subscriber.emitter;
+    }
+
+    /**
+     * Record a ride event and queue it for every open stream
+     */
+    @EventListener
+    public void publish(RideEvent event) {
+        Object data = RideEvent.RIDE_CREATED.equals(event.getType())
+                ? event.getCard()
+                : Map.of("id", event.getRideId());
+
+        lock.lock();
+        try {
+            Entry entry = new Entry(++sequence, event.getType(), data);
+            history.addLast(entry);
+            if (history.size() > replaySize) {
+                history.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        heartbeats.shutdownNow();
+        subscribers.forEach(this::close);
+        // Drains complete their streams; after the send timeout, writes still blocked are
+        // interrupted and drains still queued run here (streams are closed, so they only complete)
+        senders.shutdown();
+        try {
+            if (!senders.awaitTermination(sendTimeoutMs, TimeUnit.MILLISECONDS)) {
+                senders.shutdownNow().forEach(Runnable::run);
+            }
+        } catch (InterruptedException e) {
+            senders.shutdownNow().forEach(Runnable::run);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Emitter of a new stream (tests substitute one with a slow network)
+    SseEmitter createEmitter(long timeoutMs) {
+        return new SseEmitter(timeoutMs);
+    }
+
+    // Events after lastEventId, or null if they cannot be replayed (lock held)
+    private List<Entry> missedSince(String lastEventId) {
+        int dash = lastEventId.lastIndexOf('-');
+        if (dash < 0 || !boot.equals(lastEventId.substring(0, dash))) {
+            return null;
+        }
+        long last;
+        try {
+            last = Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        long oldest = sequence - history.size() + 1;
+        if (last > sequence || last < oldest - 1 || sequence - last > bufferSize) {
+            return null;
+        }
+        List<Entry> missed = new ArrayList<>((int) (sequence - last));
+        for (Entry entry : history) {
+            if (entry.sequence() > last) {
+                missed.add(entry);
+            }
+        }
+        return missed;
+    }
+
+    private String eventId(long sequence) {
+        return boot + "-" + sequence;
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(HEARTBEAT);
+        }
+    }
+
+    // Evicts streams whose current write has been blocked longer than the send timeout
+    private void evictStalled() {
+        long deadline = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.abortSendStartedBefore(deadline)) {
+                evict(subscriber);
+            }
+        }
+    }
+
+    // Drops a stream that fell behind; the client reconnects with Last-Event-ID
+    private void evict(Subscriber subscriber) {
+        evicted.increment();
+        log.debug("Evicting slow ride event subscriber");
+        close(subscriber);
+    }
+
+    // Stops queueing to the stream; it is completed now if idle, else by its drain
+    private void close(Subscriber subscriber) {
+        if (subscriber.closed.compareAndSet(false, true)) {
+            subscribers.remove(subscriber);
+            subscriber.completeIfIdle();
+        }
+    }
+
+    // Lets another sender run while one is stuck in a write past the timeout
+    private void addSender() {
+        synchronized (senders) {
+            senders.setMaximumPoolSize(senders.getMaximumPoolSize() + 1);
+            senders.setCorePoolSize(senders.getCorePoolSize() + 1);
+        }
+    }
+
+    // The stuck write returned; back to the configured pool size
+    private void removeSender() {
+        synchronized (senders) {
+            senders.setCorePoolSize(senders.getCorePoolSize() - 1);
+            senders.setMaximumPoolSize(senders.getMaximumPoolSize() - 1);
+        }
+    }
+
+    /**
+     * Entry - One queued SSE message (the HEARTBEAT marker has no name)
+     */
+    private record Entry(long sequence, String name, Object data) {
+    }
+
+    /**
+     * Subscriber - One driver stream with its bounded send queue
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<Entry> queue;
+
+        // Held by the thread that may write to or complete the emitter; once
+        // the emitter is completed it is never released again
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        // Write in progress: its thread and start time, and whether it was aborted
+        private final ReentrantLock sendLock = new ReentrantLock();
+        private Thread sender;
+        private long sendStarted;
+        private boolean aborted;
+
+        private Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        // Never blocks; evicts the subscriber when its queue is full
+        private void offer(Entry entry) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(entry)) {
+                evict(this);
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        // Writes queued messages; at most one drain per subscriber runs at a time
+        private void drain() {
+            try {
+                Entry entry;
+                while (!closed.get() && (entry = queue.poll()) != null) {
+                    send(entry);
+                }
+            } catch (IOException | RuntimeException e) {
+                close(this);
+            }
+            if (closed.get()) {
+                // Still held by this drain, so no other thread can be writing
+                emitter.complete();
+                return;
+            }
+            draining.set(false);
+            // Re-check: a message or close() may have arrived after the last check
+            if (closed.get()) {
+                completeIfIdle();
+            } else if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void send(Entry entry) throws IOException {
+            sendLock.lock();
+            try {
+                sender = Thread.currentThread();
+                sendStarted = System.nanoTime();
+            } finally {
+                sendLock.unlock();
+            }
+            try {
+                emitter.send(entry == HEARTBEAT
+                        ? SseEmitter.event().comment("heartbeat")
+                        : SseEmitter.event().id(eventId(entry.sequence())).name(entry.name())
+                                .data(entry.data(), MediaType.APPLICATION_JSON));
+            } finally {
+                sendLock.lock();
+                try {
+                    sender = null;
+                    // An abort aimed at this write must not hit the next one on this thread
+                    Thread.interrupted();
+                    if (aborted) {
+                        aborted = false;
+                        removeSender();
+                    }
+                } finally {
+                    sendLock.unlock();
+                }
+            }
+        }
+
+        // Interrupts a write started before the deadline; true if one was aborted
+        private boolean abortSendStartedBefore(long deadline) {
+            sendLock.lock();
+            try {
+                if (sender == null || aborted || sendStarted - deadline > 0) {
+                    return false;
+                }
+                aborted = true;
+                addSender();
+                sender.interrupt();
+                return true;
+            } finally {
+                sendLock.unlock();
+            }
+        }
+
+        // Completes the emitter unless a drain holds it; that drain completes it on exit
+        private void completeIfIdle() {
+            if (draining.compareAndSet(false, true)) {
+                emitter.complete();
+            }
+        }
+    }
+}
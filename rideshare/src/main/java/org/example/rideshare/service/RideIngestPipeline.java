@@ -0,0 +1,263 @@
+package org.example.rideshare.service;
+
+import com.mongodb.WriteConcern;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.rideshare.exception.ServiceOverloadedException;
+import org.example.rideshare.exception.TooManyRequestsException;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.repository.RideRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * RideIngestPipeline - Group commit of new rides into batched inserts
+ *
+ * With app.rides.ingest.batched=true, createRide() no longer saves each ride
+ * itself. It hands the ride to this pipeline and waits for its future:
+ * 1. submit() puts the ride on a bounded queue
+ * (app.rides.ingest.queue-capacity). When the queue is full the request is
+ * rejected at once with TooManyRequestsException (429 + Retry-After) instead
+ * of waiting
+ * 2. A single writer thread collects rides until app.rides.ingest.max-batch
+ * rides are queued or app.rides.ingest.max-delay-ms has passed since the
+ * first ride of the batch arrived
+ * 3. The batch is written with one unordered insertMany, acknowledged with
+ * app.rides.ingest.write-concern (e.g. W1, MAJORITY, JOURNALED)
+ * 4. Each caller's future completes when the batch is acknowledged: with the
+ * stored ride, or exceptionally if its entry (or the whole batch) failed
+ * 5. A future not completed within app.rides.ingest.await-timeout-ms fails
+ * with ServiceOverloadedException (503 + Retry-After). A ride that times out
+ * while still queued is dropped from its batch; one whose insertMany is
+ * already running may still be stored
+ *
+ * Every ride waits up to max-delay-ms plus one insertMany, in exchange for a
+ * single round trip per batch instead of one per ride at high request rates.
+ * When off (the default) no thread is started and submit() is not used.
+ *
+ * On shutdown the writer stops taking new rides and flushes the queue. A
+ * ride submitted while shutdown begins is either flushed or rejected, never
+ * left waiting.
+ *
+ * Metrics:
+ * - rides.ingest.queue.depth: rides waiting for the writer
+ * - rides.ingest.batch.size: rides per insertMany
+ * - rides.ingest.write: insertMany time, including the acknowledgement
+ * - rides.ingest.latency: time from submit() to acknowledgement
+ * - rides.ingest.rejected: rides rejected because the queue was full
+ *
+ * @author RideShare Development Team
+ * @version 1.0
+ */
+@Component
+public class RideIngestPipeline implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(RideIngestPipeline.class);
+
+    private final RideRepository rideRepository;
+
+    private final boolean enabled;
+    private final int maxBatch;
+    private final long maxDelayNanos;
+    private final WriteConcern writeConcern;
+    private final long retryAfterSeconds;
+    private final long awaitTimeoutMs;
+
+    // Rides waiting for the writer
+    private final BlockingQueue<PendingRide> queue;
+
+    private final DistributionSummary batchSize;
+    private final Timer writeTime;
+    private final Timer latency;
+    private final Counter rejected;
+
+    private final Thread writer;
+    private volatile boolean running;
+
+    public RideIngestPipeline(RideRepository rideRepository, MeterRegistry meterRegistry,
+            @Value("${app.rides.ingest.batched:false}") boolean enabled,
+            @Value("${app.rides.ingest.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.rides.ingest.max-batch:256}") int maxBatch,
+            @Value("${app.rides.ingest.max-delay-ms:5}") long maxDelayMs,
+            @Value("${app.rides.ingest.write-concern:W1}") String writeConcern,
+            @Value("${app.rides.ingest.retry-after-seconds:1}") long retryAfterSeconds,
+            @Value("${app.rides.ingest.await-timeout-ms:5000}") long awaitTimeoutMs) {
+        this.rideRepository = rideRepository;
+        this.enabled = enabled;
+        this.maxBatch = maxBatch;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        this.writeConcern = WriteConcern.valueOf(writeConcern);
+        if (this.writeConcern == null) {
+            throw new IllegalArgumentException("Unknown app.rides.ingest.write-concern: " + writeConcern);
+        }
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.awaitTimeoutMs = awaitTimeoutMs;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        Gauge.builder("rides.ingest.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("rides.ingest.batch.size").register(meterRegistry);
+        this.writeTime = Timer.builder("rides.ingest.write").register(meterRegistry);
+        this.latency = Timer.builder("rides.ingest.latency").publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("rides.ingest.rejected").register(meterRegistry);
+
+        this.writer = new Thread(this::drain, "ride-ingest-writer");
+        this.writer.setDaemon(true);
+        if (enabled) {
+            running = true;
+            writer.start();
+            log.info("Ride ingest batching on: up to {} rides or {} ms per insertMany, write concern {}",
+                    maxBatch, maxDelayMs, writeConcern);
+        }
+    }
+
+    // True if createRide() should go through submit()
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queue a new ride for the next batch
+     *
+     * @param ride Ride to insert (ID null)
+     * @return Future completed with the stored ride once its batch is
+     *         acknowledged, or with ServiceOverloadedException after
+     *         await-timeout-ms
+     * @throws TooManyRequestsException   if the queue is full
+     * @throws ServiceOverloadedException if the pipeline is shutting down
+     */
+    public CompletableFuture<Ride> submit(Ride ride) {
+        if (!running) {
+            throw new ServiceOverloadedException("Ride intake is shutting down", retryAfterSeconds);
+        }
+        PendingRide pending = new PendingRide(ride, new CompletableFuture<>(), System.nanoTime());
+        if (!queue.offer(pending)) {
+            rejected.increment();
+            throw new TooManyRequestsException("Too many ride requests, please retry later", retryAfterSeconds);
+        }
+        // close() may have drained the queue between the check and the offer:
+        // if the ride is still queued nobody will take it, so take it back
+        if (!running && queue.remove(pending)) {
+            throw new ServiceOverloadedException("Ride intake is shutting down", retryAfterSeconds);
+        }
+        return pending.future().orTimeout(awaitTimeoutMs, TimeUnit.MILLISECONDS)
+                .exceptionallyCompose(error -> CompletableFuture.failedFuture(error instanceof TimeoutException
+                        ? new ServiceOverloadedException("Ride was not stored in time", retryAfterSeconds)
+                        : error));
+    }
+
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Rides queued while the writer was exiting: fail them rather than leave callers waiting
+        List<PendingRide> left = new ArrayList<>();
+        queue.drainTo(left);
+        for (PendingRide pending : left) {
+            pending.future().completeExceptionally(
+                    new ServiceOverloadedException("Ride intake is shutting down", retryAfterSeconds));
+        }
+    }
+
+    // Writer loop: one batch per iteration until stopped and the queue is empty
+    private void drain() {
+        List<PendingRide> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingRide first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = first.queuedAt() + maxDelayNanos;
+                while (batch.size() < maxBatch) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingRide next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                running = false;
+                queue.drainTo(batch);
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    // One insertMany for the batch, then complete every caller's future
+    private void write(List<PendingRide> batch) {
+        // Rides whose caller already timed out are not written
+        batch.removeIf(pending -> pending.future().isDone());
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Ride> rides = new ArrayList<>(batch.size());
+        for (PendingRide pending : batch) {
+            rides.add(pending.ride());
+        }
+        batchSize.record(batch.size());
+
+        Map<Integer, BulkWriteError> errors = new HashMap<>();
+        long start = System.nanoTime();
+        try {
+            for (BulkWriteError error : rideRepository.insertAllUnordered(rides, writeConcern)) {
+                errors.put(error.getIndex(), error);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Ride ingest batch of {} failed", batch.size(), e);
+            for (PendingRide pending : batch) {
+                pending.future().completeExceptionally(e);
+            }
+            return;
+        } finally {
+            writeTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        long now = System.nanoTime();
+        for (int i = 0; i < batch.size(); i++) {
+            PendingRide pending = batch.get(i);
+            BulkWriteError error = errors.get(i);
+            if (error == null) {
+                latency.record(now - pending.queuedAt(), TimeUnit.NANOSECONDS);
+                pending.future().complete(pending.ride());
+            } else {
+                pending.future().completeExceptionally(
+                        new IllegalStateException("Ride could not be stored: " + error.getMessage()));
+            }
+        }
+    }
+
+    /**
+     * PendingRide - A queued ride, its caller's future and when it was queued
+     */
+    private record PendingRide(Ride ride, CompletableFuture<Ride> future, long queuedAt) {
+    }
+}
@@ -1,6 +1,10 @@
 package org.example.rideshare.service;
 
+import org.example.rideshare.dto.BulkRideResponse;
 import org.example.rideshare.dto.CreateRideRequest;
+import org.example.rideshare.dto.PendingRideCard;
+import org.example.rideshare.dto.RideFeedPage;
+import org.example.rideshare.dto.RideHistoryRow;
 import org.example.rideshare.model.Ride;
 
 import java.util.List;
@@ -27,7 +31,9 @@ public interface RideService {
      * Create a new ride request
      * 
      * Creates a new ride with REQUESTED status and associates it with the
-     * passenger.
+     * passenger. With app.rides.ingest.batched=true the ride is written by
+     * RideIngestPipeline in a batch with other new rides; the call returns
+     * once that batch is acknowledged.
      * 
      * @param request CreateRideRequest containing pickup and drop locations
      * @param userId  The ID of the passenger requesting the ride
@@ -35,27 +41,66 @@ public interface RideService {
      */
     Ride createRide(CreateRideRequest request, String userId);
 
+    /**
+     * Create many ride requests for one passenger at once
+     * 
+     * Valid entries are written with unordered insertMany calls of
+     * app.rides.bulk.chunk-size rides each instead of one save per ride.
+     * Entries that fail are reported individually and do not stop the others.
+     * Created rides reach the pending feed and the driver stream like single
+     * ones.
+     * 
+     * @param requests CreateRideRequest entries, already validated
+     * @param userId   The ID of the passenger requesting the rides
+     * @return BulkRideResponse with one result per entry, in request order
+     */
+    BulkRideResponse createRides(List<CreateRideRequest> requests, String userId);
+
     /**
      * Get all rides for a specific passenger
      * 
      * Retrieves all ride requests (regardless of status) created by a specific
-     * user.
+     * user, newest first, as history rows (only the fields the list shows).
+     * Rides moved to the archive by RideArchiver are included.
      * 
      * @param userId The ID of the passenger
      * @return List of all rides created by this user
      */
-    List<Ride> getUserRides(String userId);
+    List<RideHistoryRow> getUserRides(String userId);
 
     /**
-     * Get all pending ride requests
+     * Get one page of pending ride requests
      * 
-     * Retrieves all rides with REQUESTED status that are waiting for driver
-     * acceptance.
+     * Retrieves rides with REQUESTED status that are waiting for driver
+     * acceptance, oldest first, using keyset pagination on (createdAt, id).
      * Used by drivers to view available ride requests.
      * 
-     * @return List of all rides with REQUESTED status
+     * @param cursor Continuation token from the previous page, or null for the
+     *               first page
+     * @param limit  Requested page size; values <= 0 use the default and larger
+     *               values are capped at the configured maximum
+     * @return Page of REQUESTED rides and the token for the next page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    RideFeedPage getPendingRides(String cursor, int limit);
+
+    /**
+     * Get the pending ride requests nearest to a driver
+     * 
+     * Returns REQUESTED rides whose pickupPoint lies within the radius of the
+     * given position, nearest first. Rides created without coordinates are not
+     * included.
+     * 
+     * @param latitude     Driver latitude in degrees (-90..90)
+     * @param longitude    Driver longitude in degrees (-180..180)
+     * @param radiusMeters Search radius; values <= 0 use the default and larger
+     *                     values are capped at the configured maximum
+     * @param limit        Maximum number of rides; values <= 0 use the default
+     *                     and larger values are capped at the configured maximum
+     * @return Up to limit ride cards ordered by distance
+     * @throws IllegalArgumentException if the coordinates are out of range
      */
-    List<Ride> getPendingRides();
+    List<PendingRideCard> getNearbyPendingRides(double latitude, double longitude, double radiusMeters, int limit);
 
     /**
      * Accept a pending ride request
@@ -75,12 +120,16 @@ public interface RideService {
      * Complete a ride
      * 
      * Marks an accepted ride as completed. Transitions the ride from ACCEPTED
-     * to COMPLETED status, finalizing the transaction.
+     * to COMPLETED status, finalizing the transaction. Only the ride's
+     * passenger or assigned driver may complete it.
      * 
-     * @param rideId The ID of the ride to complete
+     * @param rideId   The ID of the ride to complete
+     * @param callerId The ID of the passenger or driver completing the ride
      * @return The updated Ride object with COMPLETED status
      * @throws NotFoundException     if ride not found
+     * @throws AccessDeniedException if the caller is neither the passenger nor
+     *                               the driver of the ride
      * @throws IllegalStateException if ride is not in ACCEPTED status
      */
-    Ride completeRide(String rideId);
+    Ride completeRide(String rideId, String callerId);
 }
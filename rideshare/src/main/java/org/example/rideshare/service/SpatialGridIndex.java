@@ -0,0 +1,359 @@
+package org.example.rideshare.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * SpatialGridIndex - In-memory uniform-grid index of points on the globe
+ *
+ * Buckets entries by (latitude, longitude) into square cells of cellDegrees
+ * (0.01 degrees is about 1.1 km of latitude). A radius query only visits the
+ * cells overlapping the search circle and measures great-circle distances to
+ * the entries in them, so a lookup among 100k entries touches a few hundred
+ * points and completes in microseconds, with no database round trip.
+ *
+ * Concurrency:
+ * - Each cell is a HashMap guarded by one of a fixed set of striped
+ * read-write locks (cell key hash -> stripe), so writers in different parts
+ * of the city do not contend and readers never block each other
+ * - Updates of one entry are serialized through the ID map, so an entry moving
+ * between cells is never left in two cells
+ * - A query sees every cell in a consistent state, but an entry moving during
+ * the query may be seen at its old or new position (or, briefly, at neither)
+ *
+ * Longitude wraps at the antimeridian; near the poles a radius query widens
+ * to whole rows of cells.
+ *
+ * Used by: PendingRideIndex (pending rides by pickup), DriverPositionIndex
+ * (online drivers)
+ *
+ * @param <T> Value stored with each entry
+ * @author RideShare Development Team
+ * @version 1.0
+ */
+public class SpatialGridIndex<T> {
+
+    private static final double EARTH_RADIUS_METERS = 6_371_008.8;
+    private static final double METERS_PER_DEGREE = EARTH_RADIUS_METERS * Math.PI / 180;
+    private static final int STRIPES = 256;
+
+    private final double cellDegrees;
+    private final int rows;
+    private final int columns;
+
+    // 1 if the last column is narrower than cellDegrees (cellDegrees does not divide 360)
+    private final int seamColumns;
+
+    // Cell key -> entries in that cell (each map guarded by its stripe lock)
+    private final ConcurrentHashMap<Long, Map<String, Entry<T>>> cells = new ConcurrentHashMap<>();
+
+    // Entry ID -> current entry (for moves and removal by ID)
+    private final ConcurrentHashMap<String, Entry<T>> entries = new ConcurrentHashMap<>();
+
+    private final ReentrantReadWriteLock[] stripes = new ReentrantReadWriteLock[STRIPES];
+
+    /**
+     * @param cellDegrees Cell edge in degrees; choose about the typical search
+     *                    radius (e.g. 0.01 for searches of 1-5 km)
+     */
+    public SpatialGridIndex(double cellDegrees) {
+        if (!(cellDegrees > 0 && cellDegrees <= 10)) {
+            throw new IllegalArgumentException("cellDegrees must be in (0, 10]");
+        }
+        this.cellDegrees = cellDegrees;
+        this.rows = (int) Math.ceil(180 / cellDegrees);
+        this.columns = (int) Math.ceil(360 / cellDegrees);
+        this.seamColumns = columns * cellDegrees > 360 + 1e-9 ? 1 : 0;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    /**
+     * Add an entry or move it to a new position
+     *
+     * @param id        Unique entry ID
+     * @param latitude  Latitude in degrees
+     * @param longitude Longitude in degrees
+     * @param value     Value returned by queries
+     */
+    public void put(String id, double latitude, double longitude, T value) {
+        Entry<T> entry = new Entry<>(id, latitude, longitude, Math.cos(Math.toRadians(latitude)),
+                cellKey(row(latitude), column(longitude)), value);
+        entries.compute(id, (key, previous) -> {
+            if (previous != null && previous.cell() != entry.cell()) {
+                removeFromCell(previous);
+            }
+            addToCell(entry);
+            return entry;
+        });
+    }
+
+    /**
+     * Remove an entry
+     *
+     * @param id Entry ID
+     * @return true if the entry was present
+     */
+    public boolean remove(String id) {
+        boolean[] removed = new boolean[1];
+        entries.computeIfPresent(id, (key, previous) -> {
+            removeFromCell(previous);
+            removed[0] = true;
+            return null;
+        });
+        return removed[0];
+    }
+
+    /**
+     * Remove every entry whose value matches
+     *
+     * @param filter Selects the values to remove
+     * @return Number of entries removed
+     */
+    public int removeIf(Predicate<? super T> filter) {
+        int removed = 0;
+        for (Entry<T> entry : entries.values()) {
+            if (filter.test(entry.value()) && entries.remove(entry.id(), entry)) {
+                removeFromCell(entry);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    // Number of entries
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Entries within a radius, nearest first
+     *
+     * @param latitude     Latitude of the center in degrees
+     * @param longitude    Longitude of the center in degrees
+     * @param radiusMeters Search radius in meters
+     * @param limit        Maximum number of hits
+     * @return Up to limit hits ordered by distance
+     */
+    public List<Hit<T>> within(double latitude, double longitude, double radiusMeters, int limit) {
+        return within(latitude, longitude, radiusMeters, limit, value -> true);
+    }
+
+    /**
+     * Matching entries within a radius, nearest first
+     *
+     * @param latitude     Latitude of the center in degrees
+     * @param longitude    Longitude of the center in degrees
+     * @param radiusMeters Search radius in meters
+     * @param limit        Maximum number of hits
+     * @param filter       Only values passing the filter are returned
+     * @return Up to limit hits ordered by distance
+     */
+    public List<Hit<T>> within(double latitude, double longitude, double radiusMeters, int limit,
+            Predicate<? super T> filter) {
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        // Farthest hit on top, so it is the one dropped when a nearer hit arrives
+        PriorityQueue<Hit<T>> nearest = new PriorityQueue<>(limit + 1,
+                Comparator.comparingDouble((Hit<T> hit) -> hit.distanceMeters()).reversed());
+
+        Probe probe = new Probe(latitude, longitude, Math.cos(Math.toRadians(latitude)), radiusMeters,
+                haversine(radiusMeters));
+        double latSpan = radiusMeters / METERS_PER_DEGREE;
+        int rowFrom = row(Math.max(-90, latitude - latSpan));
+        int rowTo = row(Math.min(90, latitude + latSpan));
+
+        // Longitude degrees shrink towards the poles; use the widest row in range
+        double maxAbsLat = Math.min(90, Math.abs(latitude) + latSpan);
+        double cos = Math.cos(Math.toRadians(maxAbsLat));
+        int centerColumn = column(longitude);
+        // A span that wraps across the narrow last column covers less; one more column makes up for it
+        double span = cos < 1e-9
+                ? columns
+                : Math.ceil(radiusMeters / (METERS_PER_DEGREE * cos) / cellDegrees) + seamColumns;
+        boolean allColumns = 2 * span + 1 >= columns;
+        int columnSpan = allColumns ? 0 : (int) span;
+
+        for (int row = rowFrom; row <= rowTo; row++) {
+            if (allColumns) {
+                for (int column = 0; column < columns; column++) {
+                    scanCell(cellKey(row, column), probe, limit, filter, nearest);
+                }
+            } else {
+                for (int offset = -columnSpan; offset <= columnSpan; offset++) {
+                    int column = Math.floorMod(centerColumn + offset, columns);
+                    scanCell(cellKey(row, column), probe, limit, filter, nearest);
+                }
+            }
+        }
+
+        List<Hit<T>> hits = new ArrayList<>(nearest);
+        hits.sort(Comparator.comparingDouble(Hit::distanceMeters));
+        return hits;
+    }
+
+    /**
+     * The k nearest entries, searching outwards up to a maximum radius
+     *
+     * Starts with a one-cell radius and doubles it until k entries are found
+     * or maxRadiusMeters is reached, so dense areas are answered from a few
+     * cells and sparse areas still find their nearest entries.
+     *
+     * @param latitude        Latitude of the center in degrees
+     * @param longitude       Longitude of the center in degrees
+     * @param k               Number of entries wanted
+     * @param maxRadiusMeters Largest radius to search
+     * @param filter          Only values passing the filter are returned
+     * @return Up to k hits ordered by distance
+     */
+    public List<Hit<T>> nearest(double latitude, double longitude, int k, double maxRadiusMeters,
+            Predicate<? super T> filter) {
+        double radius = Math.min(cellDegrees * METERS_PER_DEGREE, maxRadiusMeters);
+        while (true) {
+            List<Hit<T>> hits = within(latitude, longitude, radius, k, filter);
+            if (hits.size() >= k || radius >= maxRadiusMeters) {
+                return hits;
+            }
+            radius = Math.min(radius * 2, maxRadiusMeters);
+        }
+    }
+
+    /**
+     * Great-circle (haversine) distance between two points
+     *
+     * @return Distance in meters
+     */
+    public static double distanceMeters(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                        * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return meters(a);
+    }
+
+    // Haversine term of a distance (grows with the distance, so it can be compared directly)
+    private static double haversine(double meters) {
+        double half = Math.sin(Math.min(Math.PI, meters / EARTH_RADIUS_METERS) / 2);
+        return half * half;
+    }
+
+    // Distance for a haversine term
+    private static double meters(double haversine) {
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(haversine)));
+    }
+
+    // Adds the cell's entries within the radius to the bounded heap
+    private void scanCell(long cellKey, Probe probe, int limit, Predicate<? super T> filter,
+            PriorityQueue<Hit<T>> nearest) {
+        ReentrantReadWriteLock.ReadLock lock = stripe(cellKey).readLock();
+        lock.lock();
+        try {
+            Map<String, Entry<T>> cell = cells.get(cellKey);
+            if (cell == null) {
+                return;
+            }
+            for (Entry<T> entry : cell.values()) {
+                // The latitude gap alone is a lower bound of the distance:
+                // skip entries that cannot qualify before the trigonometry
+                double latitudeGap = Math.abs(entry.latitude() - probe.latitude()) * METERS_PER_DEGREE;
+                if (latitudeGap > probe.radiusMeters()
+                        || (nearest.size() == limit && latitudeGap >= nearest.peek().distanceMeters())) {
+                    continue;
+                }
+                // Haversine with the cosines precomputed; arcsine only for entries in range
+                double sinLat = Math.sin(Math.toRadians(entry.latitude() - probe.latitude()) / 2);
+                double sinLng = Math.sin(Math.toRadians(entry.longitude() - probe.longitude()) / 2);
+                double haversine = sinLat * sinLat + probe.cosLatitude() * entry.cosLatitude() * sinLng * sinLng;
+                if (haversine > probe.maxHaversine()) {
+                    continue;
+                }
+                double distance = meters(haversine);
+                if (nearest.size() == limit && distance >= nearest.peek().distanceMeters()) {
+                    continue;
+                }
+                if (!filter.test(entry.value())) {
+                    continue;
+                }
+                nearest.add(new Hit<>(entry.id(), entry.value(), distance));
+                if (nearest.size() > limit) {
+                    nearest.poll();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void addToCell(Entry<T> entry) {
+        ReentrantReadWriteLock.WriteLock lock = stripe(entry.cell()).writeLock();
+        lock.lock();
+        try {
+            cells.computeIfAbsent(entry.cell(), key -> new HashMap<>()).put(entry.id(), entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void removeFromCell(Entry<T> entry) {
+        ReentrantReadWriteLock.WriteLock lock = stripe(entry.cell()).writeLock();
+        lock.lock();
+        try {
+            Map<String, Entry<T>> cell = cells.get(entry.cell());
+            if (cell != null) {
+                cell.remove(entry.id(), entry);
+                if (cell.isEmpty()) {
+                    cells.remove(entry.cell());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantReadWriteLock stripe(long cellKey) {
+        long mixed = (cellKey ^ (cellKey >>> 32)) * 0x9E3779B9L;
+        return stripes[(int) (mixed >>> 24) & (STRIPES - 1)];
+    }
+
+    private int row(double latitude) {
+        return Math.min(rows - 1, Math.max(0, (int) Math.floor((latitude + 90) / cellDegrees)));
+    }
+
+    private int column(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180) / cellDegrees), columns);
+    }
+
+    private long cellKey(int row, int column) {
+        return (long) row * columns + column;
+    }
+
+    /**
+     * Hit - One query result with its distance from the query point
+     */
+    public record Hit<T>(String id, T value, double distanceMeters) {
+    }
+
+    /**
+     * Entry - Stored position of one entry and the cell it is in
+     */
+    private record Entry<T>(String id, double latitude, double longitude, double cosLatitude, long cell, T value) {
+    }
+
+    /**
+     * Probe - Query center and radius with the values reused for every entry
+     */
+    private record Probe(double latitude, double longitude, double cosLatitude, double radiusMeters,
+            double maxHaversine) {
+    }
+}
@@ -1,50 +1,73 @@
 package org.example.rideshare.service.impl;
 
+import com.mongodb.ErrorCategory;
+import com.mongodb.bulk.BulkWriteError;
+import org.example.rideshare.config.BoundedPasswordEncoder;
 import org.example.rideshare.config.JwtUtil;
 import org.example.rideshare.dto.AuthResponse;
+import org.example.rideshare.dto.BulkRegisterResponse;
 import org.example.rideshare.dto.LoginRequest;
 import org.example.rideshare.dto.RegisterRequest;
+import org.example.rideshare.exception.ServiceOverloadedException;
 import org.example.rideshare.model.User;
 import org.example.rideshare.repository.UserRepository;
 import org.example.rideshare.service.AuthService;
+import org.example.rideshare.service.CustomUserDetailsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.authentication.*;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @Service
 public class AuthServiceImpl implements AuthService {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthServiceImpl.class);
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
     @Autowired
     private AuthenticationManager authenticationManager;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private BoundedPasswordEncoder passwordEncoder;
 
     @Autowired
     private JwtUtil jwtUtil;
 
     @Override
     public AuthResponse register(RegisterRequest request) {
-        // Check if username already exists
-        if (userRepository.findByUsername(request.getUsername()).isPresent()) {
-            throw new IllegalArgumentException("Username already exists");
-        }
-
         User user = User.builder()
                 .username(request.getUsername())
                 .password(passwordEncoder.encode(request.getPassword()))
                 .role(request.getRole())
                 .build();
 
-        userRepository.save(user);
+        // Single round trip: the unique username index rejects duplicates atomically
+        try {
+            user = userRepository.insert(user);
+        } catch (DuplicateKeyException e) {
+            throw new IllegalArgumentException("Username already exists");
+        }
+        // Drop any cached "not found" entry for this username
+        userDetailsService.evict(user.getUsername());
 
         // Generate and return JWT token immediately after registration
-        String token = jwtUtil.generateToken(user.getUsername(), user.getRole());
+        String token = jwtUtil.generateToken(user.getId(), user.getUsername(), user.getRole());
         return new AuthResponse(token);
     }
 
@@ -55,10 +78,82 @@ public class AuthServiceImpl implements AuthService {
 
         authenticationManager.authenticate(auth);
 
-        User user = userRepository.findByUsername(request.getUsername())
+        // Served from the user cache warmed by the authentication above
+        User user = userDetailsService.findUser(request.getUsername())
                 .orElseThrow();
 
-        String token = jwtUtil.generateToken(user.getUsername(), user.getRole());
+        // Re-hash with the current BCrypt cost if the stored hash is weaker
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            upgradePassword(user, request.getPassword());
+        }
+
+        String token = jwtUtil.generateToken(user.getId(), user.getUsername(), user.getRole());
         return new AuthResponse(token);
     }
+
+    // Best effort: a busy hashing pool or a concurrent password change skips the upgrade, not the login
+    private void upgradePassword(User user, String rawPassword) {
+        String upgraded;
+        try {
+            upgraded = passwordEncoder.encode(rawPassword);
+        } catch (ServiceOverloadedException e) {
+            log.debug("Skipped password re-hash for {}: {}", user.getUsername(), e.getMessage());
+            return;
+        }
+        // Only replaces the hash that was verified, never a newer one or other fields
+        if (userRepository.replacePassword(user.getId(), user.getPassword(), upgraded)) {
+            userDetailsService.evict(user.getUsername());
+        }
+    }
+
+    @Override
+    public BulkRegisterResponse registerAll(List<RegisterRequest> requests) {
+        // Hash in parallel on the bounded pool; an entry the pool rejects fails on its own
+        List<String> passwords = new ArrayList<>(requests.size());
+        requests.forEach(request -> passwords.add(request.getPassword()));
+        List<CompletableFuture<String>> hashes = passwordEncoder.encodeAll(passwords);
+
+        BulkRegisterResponse.Item[] results = new BulkRegisterResponse.Item[requests.size()];
+        List<User> users = new ArrayList<>(requests.size());
+        List<Integer> positions = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            RegisterRequest request = requests.get(i);
+            try {
+                users.add(User.builder()
+                        .username(request.getUsername())
+                        .password(hashes.get(i).join())
+                        .role(request.getRole())
+                        .build());
+                positions.add(i);
+            } catch (CompletionException e) {
+                results[i] = new BulkRegisterResponse.Item(request.getUsername(), "FAILED", null,
+                        e.getCause().getMessage());
+            }
+        }
+
+        // One unordered insertMany; failures come back per index
+        Map<Integer, BulkWriteError> errors = new HashMap<>();
+        if (!users.isEmpty()) {
+            for (BulkWriteError error : userRepository.insertAllUnordered(users)) {
+                errors.put(error.getIndex(), error);
+            }
+        }
+
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            BulkWriteError error = errors.get(i);
+            BulkRegisterResponse.Item item;
+            if (error == null) {
+                userDetailsService.evict(user.getUsername());
+                item = new BulkRegisterResponse.Item(user.getUsername(), "CREATED", user.getId(), null);
+            } else if (ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY) {
+                item = new BulkRegisterResponse.Item(user.getUsername(), "DUPLICATE", null,
+                        "Username already exists");
+            } else {
+                item = new BulkRegisterResponse.Item(user.getUsername(), "FAILED", null, error.getMessage());
+            }
+            results[positions.get(i)] = item;
+        }
+        return new BulkRegisterResponse(Arrays.asList(results));
+    }
 }
@@ -0,0 +1,184 @@
+package org.example.rideshare.service.impl;
+
+import org.example.rideshare.dto.CreateRideRequest;
+import org.example.rideshare.dto.PendingRideCard;
+import org.example.rideshare.dto.RideFeedPage;
+import org.example.rideshare.dto.RideHistoryRow;
+import org.example.rideshare.exception.NotFoundException;
+import org.example.rideshare.model.GeoPoint;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.model.RideStatus;
+import org.example.rideshare.repository.ReactiveRideRepository;
+import org.example.rideshare.service.DriverPositionIndex;
+import org.example.rideshare.service.PendingRideIndex;
+import org.example.rideshare.service.ReactiveRideService;
+import org.example.rideshare.service.RideIngestPipeline;
+import org.example.rideshare.util.RideCursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Date;
+import java.util.List;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRideServiceImpl implements ReactiveRideService {
+
+    @Autowired
+    private ReactiveRideRepository rideRepository;
+
+    @Autowired
+    private PendingRideIndex pendingRideIndex;
+
+    @Autowired
+    private DriverPositionIndex driverPositionIndex;
+
+    // Group-commit writer, used when app.rides.ingest.batched=true
+    @Autowired
+    private RideIngestPipeline rideIngestPipeline;
+
+    @Value("${app.rides.pending-feed.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${app.rides.pending-feed.max-page-size:200}")
+    private int maxPageSize;
+
+    @Value("${app.rides.nearby.default-radius-meters:5000}")
+    private double defaultNearbyRadius;
+
+    @Value("${app.rides.nearby.max-radius-meters:50000}")
+    private double maxNearbyRadius;
+
+    @Value("${app.rides.nearby.default-limit:20}")
+    private int defaultNearbyLimit;
+
+    @Value("${app.rides.nearby.max-limit:100}")
+    private int maxNearbyLimit;
+
+    @Override
+    public Mono<Ride> createRide(CreateRideRequest request, String userId) {
+        try {
+            checkPoints(request);
+        } catch (IllegalArgumentException e) {
+            return Mono.error(e);
+        }
+        Ride ride = Ride.builder()
+                .userId(userId)
+                .pickupLocation(request.getPickupLocation())
+                .dropLocation(request.getDropLocation())
+                .pickupPoint(request.getPickupPoint())
+                .dropPoint(request.getDropPoint())
+                .status(RideStatus.REQUESTED)
+                .createdAt(new Date())
+                .build();
+
+        // Batched: completes on the writer thread once the batch is acknowledged;
+        // continue elsewhere so the single writer thread only writes
+        Mono<Ride> saved = rideIngestPipeline.isEnabled()
+                ? Mono.defer(() -> Mono.fromFuture(rideIngestPipeline.submit(ride)))
+                        .publishOn(Schedulers.boundedElastic())
+                : rideRepository.save(ride);
+        return saved.doOnNext(pendingRideIndex::add);
+    }
+
+    @Override
+    public Flux<RideHistoryRow> getUserRides(String userId) {
+        // Rides moved to rides_archive by RideArchiver are merged back in
+        return Mono.zip(rideRepository.findHistoryByUserId(userId).collectList(),
+                        rideRepository.findArchivedHistoryByUserId(userId).collectList())
+                .flatMapIterable(rows -> RideHistoryRow.merge(rows.getT1(), rows.getT2()));
+    }
+
+    @Override
+    public Mono<RideFeedPage> getPendingRides(String cursor, int limit) {
+        int size = limit > 0 ? Math.min(limit, maxPageSize) : defaultPageSize;
+        RideCursor after;
+        try {
+            after = cursor == null || cursor.isEmpty() ? null : RideCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return Mono.error(e);
+        }
+
+        // Served from memory once the index is loaded; MongoDB only before that
+        if (pendingRideIndex.isReady()) {
+            return Mono.just(pendingRideIndex.page(after, size));
+        }
+
+        // One extra ride tells whether a next page exists
+        PageRequest page = PageRequest.of(0, size + 1,
+                Sort.by(Sort.Direction.ASC, "createdAt").and(Sort.by(Sort.Direction.ASC, "id")));
+        Flux<PendingRideCard> rides = after == null
+                ? rideRepository.findCardsByStatus(RideStatus.REQUESTED, page)
+                : rideRepository.findCardsByStatusAfter(RideStatus.REQUESTED, after.getCreatedAt(), after.getId(),
+                        page);
+
+        return rides.collectList().map(list -> {
+            if (list.size() <= size) {
+                return new RideFeedPage(list, null);
+            }
+            List<PendingRideCard> content = list.subList(0, size);
+            return new RideFeedPage(content, RideCursor.encode(content.get(size - 1)));
+        });
+    }
+
+    @Override
+    public Flux<PendingRideCard> getNearbyPendingRides(double latitude, double longitude, double radiusMeters, int limit) {
+        if (!GeoPoint.isValid(new GeoPoint(longitude, latitude))) {
+            return Flux.error(new IllegalArgumentException("Invalid coordinates"));
+        }
+        double radius = radiusMeters > 0 ? Math.min(radiusMeters, maxNearbyRadius) : defaultNearbyRadius;
+        int size = limit > 0 ? Math.min(limit, maxNearbyLimit) : defaultNearbyLimit;
+        if (pendingRideIndex.isReady()) {
+            return Flux.fromIterable(pendingRideIndex.nearby(latitude, longitude, radius, size));
+        }
+        return rideRepository.findCardsByStatusNear(RideStatus.REQUESTED, longitude, latitude, radius,
+                PageRequest.of(0, size));
+    }
+
+    @Override
+    public Mono<Ride> acceptRide(String rideId, String driverId) {
+        // Single conditional update; on no match, tell a missing ride from a conflict
+        return rideRepository.acceptIfRequested(rideId, driverId)
+                .doOnNext(ride -> driverPositionIndex.markBusy(driverId))
+                .doFinally(signal -> pendingRideIndex.remove(rideId))
+                .switchIfEmpty(Mono.defer(() -> rideRepository.existsById(rideId)
+                        .flatMap(exists -> Mono.<Ride>error(exists
+                                ? new IllegalStateException("Ride is not in REQUESTED status")
+                                : new NotFoundException("Ride not found")))));
+    }
+
+    @Override
+    public Mono<Ride> completeRide(String rideId, String callerId) {
+        // Single conditional update; on no match, find out which condition failed
+        return rideRepository.completeIfAccepted(rideId, callerId)
+                .doOnNext(ride -> {
+                    pendingRideIndex.remove(ride.getId());
+                    driverPositionIndex.markAvailable(ride.getDriverId());
+                })
+                .switchIfEmpty(Mono.defer(() -> rideRepository.findById(rideId)
+                        .switchIfEmpty(Mono.error(() -> new NotFoundException("Ride not found")))
+                        .flatMap(current -> Mono.<Ride>error(
+                                !callerId.equals(current.getUserId()) && !callerId.equals(current.getDriverId())
+                                        ? new AccessDeniedException(
+                                                "Only the passenger or driver of a ride can complete it")
+                                        : new IllegalStateException("Ride is not in ACCEPTED status")))));
+    }
+
+    // Optional coordinates must be valid GeoJSON Points (2dsphere rejects others)
+    private static void checkPoints(CreateRideRequest request) {
+        if (request.getPickupPoint() != null && !GeoPoint.isValid(request.getPickupPoint())) {
+            throw new IllegalArgumentException("Invalid pickupPoint");
+        }
+        if (request.getDropPoint() != null && !GeoPoint.isValid(request.getDropPoint())) {
+            throw new IllegalArgumentException("Invalid dropPoint");
+        }
+    }
+}
@@ -1,69 +1,267 @@
 package org.example.rideshare.service.impl;
 
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.annotation.PostConstruct;
+import org.example.rideshare.dto.BulkRideResponse;
 import org.example.rideshare.dto.CreateRideRequest;
+import org.example.rideshare.dto.PendingRideCard;
+import org.example.rideshare.dto.RideEvent;
+import org.example.rideshare.dto.RideFeedPage;
+import org.example.rideshare.dto.RideHistoryRow;
 import org.example.rideshare.exception.NotFoundException;
+import org.example.rideshare.model.GeoPoint;
 import org.example.rideshare.model.Ride;
+import org.example.rideshare.model.RideStatus;
 import org.example.rideshare.repository.RideRepository;
+import org.example.rideshare.service.DriverPositionIndex;
+import org.example.rideshare.service.PendingRideIndex;
+import org.example.rideshare.service.RideIngestPipeline;
 import org.example.rideshare.service.RideService;
+import org.example.rideshare.util.RideCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
 
 @Service
 public class RideServiceImpl implements RideService {
 
+    private static final Logger log = LoggerFactory.getLogger(RideServiceImpl.class);
+
     @Autowired
     private RideRepository rideRepository;
 
+    @Autowired
+    private PendingRideIndex pendingRideIndex;
+
+    @Autowired
+    private DriverPositionIndex driverPositionIndex;
+
+    // Group-commit writer, used when app.rides.ingest.batched=true
+    @Autowired
+    private RideIngestPipeline rideIngestPipeline;
+
+    // Ride events for the driver SSE stream (RideEventBroadcaster)
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.rides.pending-feed.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${app.rides.pending-feed.max-page-size:200}")
+    private int maxPageSize;
+
+    @Value("${app.rides.nearby.default-radius-meters:5000}")
+    private double defaultNearbyRadius;
+
+    @Value("${app.rides.nearby.max-radius-meters:50000}")
+    private double maxNearbyRadius;
+
+    @Value("${app.rides.nearby.default-limit:20}")
+    private int defaultNearbyLimit;
+
+    @Value("${app.rides.nearby.max-limit:100}")
+    private int maxNearbyLimit;
+
+    @Value("${app.rides.bulk.chunk-size:500}")
+    private int bulkChunkSize;
+
+    @PostConstruct
+    void checkBulkChunkSize() {
+        if (bulkChunkSize <= 0) {
+            throw new IllegalArgumentException("app.rides.bulk.chunk-size must be positive: " + bulkChunkSize);
+        }
+    }
+
     @Override
     public Ride createRide(CreateRideRequest request, String userId) {
-        Ride ride = Ride.builder()
-                .userId(userId)
-                .pickupLocation(request.getPickupLocation())
-                .dropLocation(request.getDropLocation())
-                .status("REQUESTED")
-                .createdAt(new Date())
-                .build();
+        checkPoints(request);
+        Ride ride = newRide(request, userId, new Date());
 
-        return rideRepository.save(ride);
+        Ride saved = rideIngestPipeline.isEnabled() ? awaitIngest(ride) : rideRepository.save(ride);
+        pendingRideIndex.add(saved);
+        eventPublisher.publishEvent(RideEvent.created(saved));
+        return saved;
     }
 
     @Override
-    public List<Ride> getUserRides(String userId) {
-        return rideRepository.findByUserId(userId);
+    public BulkRideResponse createRides(List<CreateRideRequest> requests, String userId) {
+        BulkRideResponse.Item[] results = new BulkRideResponse.Item[requests.size()];
+        List<Ride> rides = new ArrayList<>(requests.size());
+        List<Integer> positions = new ArrayList<>(requests.size());
+        Date now = new Date();
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                checkPoints(requests.get(i));
+            } catch (IllegalArgumentException e) {
+                results[i] = new BulkRideResponse.Item(i, "INVALID", null, e.getMessage());
+                continue;
+            }
+            rides.add(newRide(requests.get(i), userId, now));
+            positions.add(i);
+        }
+
+        // One unordered insertMany per chunk; failures come back per index within the chunk
+        for (int from = 0; from < rides.size(); from += bulkChunkSize) {
+            List<Ride> chunk = rides.subList(from, Math.min(from + bulkChunkSize, rides.size()));
+            Map<Integer, BulkWriteError> errors = new HashMap<>();
+            RuntimeException chunkError = null;
+            try {
+                for (BulkWriteError error : rideRepository.insertAllUnordered(chunk)) {
+                    errors.put(error.getIndex(), error);
+                }
+            } catch (RuntimeException e) {
+                // Whole chunk failed (timeout, write concern, ...): report its entries, go on with the next
+                log.warn("Bulk ride chunk of {} failed", chunk.size(), e);
+                chunkError = e;
+            }
+            for (int i = 0; i < chunk.size(); i++) {
+                Ride ride = chunk.get(i);
+                int position = positions.get(from + i);
+                BulkWriteError error = errors.get(i);
+                if (chunkError != null) {
+                    results[position] = new BulkRideResponse.Item(position, "FAILED", null, chunkError.getMessage());
+                } else if (error == null) {
+                    pendingRideIndex.add(ride);
+                    eventPublisher.publishEvent(RideEvent.created(ride));
+                    results[position] = new BulkRideResponse.Item(position, "CREATED", ride.getId(), null);
+                } else {
+                    results[position] = new BulkRideResponse.Item(position, "FAILED", null, error.getMessage());
+                }
+            }
+        }
+        return new BulkRideResponse(List.of(results));
     }
 
     @Override
-    public List<Ride> getPendingRides() {
-        return rideRepository.findByStatus("REQUESTED");
+    public List<RideHistoryRow> getUserRides(String userId) {
+        // Rides moved to rides_archive by RideArchiver are merged back in
+        return RideHistoryRow.merge(rideRepository.findHistoryByUserId(userId),
+                rideRepository.findArchivedHistoryByUserId(userId));
     }
 
     @Override
-    public Ride acceptRide(String rideId, String driverId) {
-        Ride ride = rideRepository.findById(rideId)
-                .orElseThrow(() -> new NotFoundException("Ride not found"));
+    public RideFeedPage getPendingRides(String cursor, int limit) {
+        int size = limit > 0 ? Math.min(limit, maxPageSize) : defaultPageSize;
+        RideCursor after = cursor == null || cursor.isEmpty() ? null : RideCursor.decode(cursor);
+
+        // Served from memory once the index is loaded; MongoDB only before that
+        if (pendingRideIndex.isReady()) {
+            return pendingRideIndex.page(after, size);
+        }
+
+        PageRequest page = PageRequest.of(0, size,
+                Sort.by(Sort.Direction.ASC, "createdAt").and(Sort.by(Sort.Direction.ASC, "id")));
+        Slice<PendingRideCard> slice = after == null
+                ? rideRepository.findCardsByStatus(RideStatus.REQUESTED, page)
+                : rideRepository.findCardsByStatusAfter(RideStatus.REQUESTED, after.getCreatedAt(), after.getId(),
+                        page);
+
+        List<PendingRideCard> rides = slice.getContent();
+        String nextCursor = slice.hasNext() ? RideCursor.encode(rides.get(rides.size() - 1)) : null;
+        return new RideFeedPage(rides, nextCursor);
+    }
+
+    @Override
+    public List<PendingRideCard> getNearbyPendingRides(double latitude, double longitude, double radiusMeters, int limit) {
+        if (!GeoPoint.isValid(new GeoPoint(longitude, latitude))) {
+            throw new IllegalArgumentException("Invalid coordinates");
+        }
+        double radius = radiusMeters > 0 ? Math.min(radiusMeters, maxNearbyRadius) : defaultNearbyRadius;
+        int size = limit > 0 ? Math.min(limit, maxNearbyLimit) : defaultNearbyLimit;
+        // Served from the in-memory grid once the index is loaded
+        if (pendingRideIndex.isReady()) {
+            return pendingRideIndex.nearby(latitude, longitude, radius, size);
+        }
+        // Before that, index-backed $near: reads only rides inside the radius
+        return rideRepository.findCardsByStatusNear(RideStatus.REQUESTED, longitude, latitude, radius,
+                PageRequest.of(0, size));
+    }
 
-        if (!"REQUESTED".equals(ride.getStatus())) {
-            throw new IllegalStateException("Ride is not in REQUESTED status");
+    @Override
+    public Ride acceptRide(String rideId, String driverId) {
+        // Single conditional update: only one of several concurrent drivers can match
+        Ride ride = rideRepository.acceptIfRequested(rideId, driverId);
+        // Accepted here or earlier by someone else: either way no longer pending
+        pendingRideIndex.remove(rideId);
+        if (ride != null) {
+            driverPositionIndex.markBusy(driverId);
+            eventPublisher.publishEvent(RideEvent.taken(rideId));
+            return ride;
         }
 
-        ride.setStatus("ACCEPTED");
-        ride.setDriverId(driverId);
-        return rideRepository.save(ride);
+        // No match: tell a missing ride apart from one that is no longer REQUESTED
+        if (!rideRepository.existsById(rideId)) {
+            throw new NotFoundException("Ride not found");
+        }
+        throw new IllegalStateException("Ride is not in REQUESTED status");
     }
 
     @Override
-    public Ride completeRide(String rideId) {
-        Ride ride = rideRepository.findById(rideId)
+    public Ride completeRide(String rideId, String callerId) {
+        // Single conditional update: ACCEPTED and the caller is the passenger or driver
+        Ride ride = rideRepository.completeIfAccepted(rideId, callerId);
+        if (ride != null) {
+            pendingRideIndex.remove(rideId);
+            driverPositionIndex.markAvailable(ride.getDriverId());
+            return ride;
+        }
+
+        // No match: find out which condition failed
+        Ride current = rideRepository.findById(rideId)
                 .orElseThrow(() -> new NotFoundException("Ride not found"));
+        if (!callerId.equals(current.getUserId()) && !callerId.equals(current.getDriverId())) {
+            throw new AccessDeniedException("Only the passenger or driver of a ride can complete it");
+        }
+        throw new IllegalStateException("Ride is not in ACCEPTED status");
+    }
 
-        if (!"ACCEPTED".equals(ride.getStatus())) {
-            throw new IllegalStateException("Ride is not in ACCEPTED status");
+    // Queue the ride for the next group commit and wait for its acknowledgement
+    // (the future fails with 503 after app.rides.ingest.await-timeout-ms)
+    private Ride awaitIngest(Ride ride) {
+        try {
+            return rideIngestPipeline.submit(ride).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Ride could not be stored", e.getCause());
         }
+    }
 
-        ride.setStatus("COMPLETED");
-        return rideRepository.save(ride);
+    // New REQUESTED ride of a passenger from a validated request
+    private static Ride newRide(CreateRideRequest request, String userId, Date createdAt) {
+        return Ride.builder()
+                .userId(userId)
+                .pickupLocation(request.getPickupLocation())
+                .dropLocation(request.getDropLocation())
+                .pickupPoint(request.getPickupPoint())
+                .dropPoint(request.getDropPoint())
+                .status(RideStatus.REQUESTED)
+                .createdAt(createdAt)
+                .build();
+    }
+
+    // Optional coordinates must be valid GeoJSON Points (2dsphere rejects others)
+    private static void checkPoints(CreateRideRequest request) {
+        if (request.getPickupPoint() != null && !GeoPoint.isValid(request.getPickupPoint())) {
+            throw new IllegalArgumentException("Invalid pickupPoint");
+        }
+        if (request.getDropPoint() != null && !GeoPoint.isValid(request.getDropPoint())) {
+            throw new IllegalArgumentException("Invalid dropPoint");
+        }
     }
 }
@@ -0,0 +1,70 @@
+package org.example.rideshare.util;
+
+import org.bson.types.ObjectId;
+import org.example.rideshare.dto.PendingRideCard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * RideCursor - Opaque keyset position in a ride feed ordered by (createdAt, id)
+ * 
+ * Encodes the sort key of the last ride on a page as a URL-safe token that the
+ * client sends back to get the next page. The token is opaque to clients; its
+ * content is "createdAtMillis:rideId", Base64url-encoded.
+ * 
+ * Used by: RideServiceImpl and ReactiveRideServiceImpl for the pending-ride feed
+ */
+public class RideCursor {
+
+    // Creation time of the last ride returned
+    private final Date createdAt;
+
+    // MongoDB ObjectId of the last ride returned (tie-breaker for equal createdAt)
+    private final ObjectId id;
+
+    private RideCursor(Date createdAt, ObjectId id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    /**
+     * Build the continuation token positioned after the given ride
+     * 
+     * @param ride Last ride of the current page
+     * @return Opaque token for the next page
+     */
+    public static String encode(PendingRideCard ride) {
+        String raw = ride.getCreatedAt().getTime() + ":" + ride.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parse a continuation token
+     * 
+     * @param token Token previously returned by encode()
+     * @return The decoded position
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static RideCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new RideCursor(new Date(Long.parseLong(raw.substring(0, separator))),
+                    new ObjectId(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    // Getter for creation time of the last ride returned
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    // Getter for ID of the last ride returned
+    public ObjectId getId() {
+        return id;
+    }
+}
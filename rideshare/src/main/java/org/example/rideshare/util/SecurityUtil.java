@@ -1,5 +1,6 @@
 package org.example.rideshare.util;
 
+import org.example.rideshare.config.AuthenticatedUser;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
@@ -16,4 +17,11 @@ public class SecurityUtil {
             return null;
         return auth.getAuthorities().iterator().next().getAuthority();
     }
+
+    public static AuthenticatedUser getCurrentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !(auth.getPrincipal() instanceof AuthenticatedUser))
+            return null;
+        return (AuthenticatedUser) auth.getPrincipal();
+    }
 }
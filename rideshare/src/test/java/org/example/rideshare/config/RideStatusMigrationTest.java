@@ -0,0 +1,77 @@
+package org.example.rideshare.config;
+
+import org.bson.Document;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.model.RideStatus;
+import org.example.rideshare.repository.RideRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * RideStatusMigrationTest - Legacy string statuses become RideStatus codes
+ *
+ * Inserts rides with the old string status directly, runs the migration with
+ * a batch size smaller than the data and checks that every document now holds
+ * the integer code, that status queries find the rides, and that rides saved
+ * through the repository are stored as codes too.
+ *
+ * Requires a local MongoDB (like RideshareApplicationTests); uses its own
+ * database.
+ */
+@SpringBootTest(properties = {
+        "spring.data.mongodb.uri=mongodb://localhost:27017/rideshare_status_test",
+        "app.rides.status-migration.batch-size=7" })
+class RideStatusMigrationTest {
+
+    @Autowired
+    private RideStatusMigration migration;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @AfterEach
+    void tearDown() {
+        rideRepository.deleteAll();
+    }
+
+    @Test
+    void convertsStringStatusesToCodes() {
+        List<Document> legacy = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            legacy.add(new Document("userId", "legacy-user")
+                    .append("pickupLocation", "Pickup " + i)
+                    .append("dropLocation", "Drop " + i)
+                    .append("status", i % 2 == 0 ? "REQUESTED" : "COMPLETED")
+                    .append("createdAt", new Date()));
+        }
+        mongoTemplate.getCollection("rides").insertMany(legacy);
+        rideRepository.save(Ride.builder()
+                .userId("new-user")
+                .status(RideStatus.ACCEPTED)
+                .createdAt(new Date())
+                .build());
+
+        assertEquals(30, migration.migrate());
+        assertEquals(0, migration.migrate());
+
+        assertEquals(0, mongoTemplate.getCollection("rides")
+                .countDocuments(new Document("status", new Document("$type", "string"))));
+        assertEquals(15, mongoTemplate.getCollection("rides")
+                .countDocuments(new Document("status", RideStatus.REQUESTED.code())));
+        assertEquals(1, mongoTemplate.getCollection("rides")
+                .countDocuments(new Document("status", RideStatus.ACCEPTED.code())));
+        assertEquals(15, rideRepository.findByStatus(RideStatus.COMPLETED).size());
+    }
+}
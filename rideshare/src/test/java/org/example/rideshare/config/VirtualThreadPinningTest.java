@@ -0,0 +1,99 @@
+package org.example.rideshare.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.example.rideshare.model.User;
+import org.example.rideshare.repository.UserRepository;
+import org.example.rideshare.service.CustomUserDetailsService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * VirtualThreadPinningTest - The security filter path must not pin carriers
+ *
+ * Runs JwtAuthFilter in database mode on virtual threads with a repository
+ * that blocks like a MongoDB round trip, records JFR jdk.VirtualThreadPinned
+ * events and expects none. The repository is a plain JDK proxy so no mocking
+ * library locks are involved. Only runs on Java 21+ (virtual threads are
+ * created reflectively so the test compiles on Java 17).
+ */
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadPinningTest {
+
+    @Test
+    void jwtFilterWithUserCacheDoesNotPin() throws Exception {
+        JwtUtil jwtUtil = new JwtUtil("test_secret_key_with_at_least_32_characters_for_hs256", 3600000);
+        UserRepository userRepository = (UserRepository) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[] { UserRepository.class },
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("findByUsername")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    Thread.sleep(5); // simulated MongoDB round trip
+                    return Optional.of(new User("u-1", (String) args[0], "hash", "ROLE_USER"));
+                });
+
+        JwtAuthFilter filter = new JwtAuthFilter();
+        ReflectionTestUtils.setField(filter, "claimsCache",
+                new VerifiedClaimsCache(jwtUtil, new SimpleMeterRegistry(), 100, 3600000));
+        ReflectionTestUtils.setField(filter, "userDetailsService",
+                new CustomUserDetailsService(userRepository, new SimpleMeterRegistry(), 100, 0, 0));
+        ReflectionTestUtils.setField(filter, "authMode", "database");
+        String header = "Bearer " + jwtUtil.generateToken("u-1", "john", "ROLE_USER");
+        FilterChain chain = (req, res) -> SecurityContextHolder.clearContext();
+
+        List<RecordedEvent> pinned;
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withoutThreshold().withStackTrace();
+            recording.start();
+
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(executor.submit(() -> {
+                    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/user/rides");
+                    request.addHeader("Authorization", header);
+                    filter.doFilter(request, new MockHttpServletResponse(), chain);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+
+            recording.stop();
+            Path file = Files.createTempFile("pinning", ".jfr");
+            recording.dump(file);
+            pinned = RecordingFile.readAllEvents(file).stream()
+                    .filter(e -> e.getEventType().getName().equals("jdk.VirtualThreadPinned"))
+                    .toList();
+            Files.deleteIfExists(file);
+        }
+
+        assertEquals(0, pinned.size(), () -> "Pinned virtual threads: " + pinned);
+    }
+}
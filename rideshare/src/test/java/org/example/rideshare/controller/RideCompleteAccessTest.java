@@ -0,0 +1,115 @@
+package org.example.rideshare.controller;
+
+import org.example.rideshare.config.JwtUtil;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.model.RideStatus;
+import org.example.rideshare.repository.RideRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * RideCompleteAccessTest - Who may complete a ride
+ *
+ * Sends POST /api/v1/rides/{id}/complete with real JWTs through the full
+ * security filter chain:
+ * - A user who is neither the passenger nor the driver gets 403 and the ride
+ * stays ACCEPTED
+ * - The assigned driver can complete the ride
+ * - The passenger can complete the ride
+ * - Completing a ride that is not ACCEPTED gives 400
+ *
+ * Requires a local MongoDB (like RideshareApplicationTests); uses its own
+ * database.
+ */
+@SpringBootTest(properties = "spring.data.mongodb.uri=mongodb://localhost:27017/rideshare_complete_test")
+@AutoConfigureMockMvc
+class RideCompleteAccessTest {
+
+    private static final String PASSENGER = "complete-passenger";
+    private static final String DRIVER = "complete-driver";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    private final List<String> createdRideIds = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        rideRepository.deleteAllById(createdRideIds);
+    }
+
+    @Test
+    void nonParticipantIsForbidden() throws Exception {
+        Ride ride = acceptedRide();
+
+        mockMvc.perform(post("/api/v1/rides/{id}/complete", ride.getId())
+                .header("Authorization", bearer("complete-stranger", "ROLE_USER")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/v1/rides/{id}/complete", ride.getId())
+                .header("Authorization", bearer("complete-other-driver", "ROLE_DRIVER")))
+                .andExpect(status().isForbidden());
+
+        assertEquals(RideStatus.ACCEPTED, rideRepository.findById(ride.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void driverCanComplete() throws Exception {
+        Ride ride = acceptedRide();
+
+        mockMvc.perform(post("/api/v1/rides/{id}/complete", ride.getId())
+                .header("Authorization", bearer(DRIVER, "ROLE_DRIVER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"));
+    }
+
+    @Test
+    void passengerCanCompleteOnce() throws Exception {
+        Ride ride = acceptedRide();
+
+        mockMvc.perform(post("/api/v1/rides/{id}/complete", ride.getId())
+                .header("Authorization", bearer(PASSENGER, "ROLE_USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"));
+        mockMvc.perform(post("/api/v1/rides/{id}/complete", ride.getId())
+                .header("Authorization", bearer(PASSENGER, "ROLE_USER")))
+                .andExpect(status().isBadRequest());
+    }
+
+    // ACCEPTED ride of PASSENGER driven by DRIVER
+    private Ride acceptedRide() {
+        Ride ride = rideRepository.save(Ride.builder()
+                .userId(PASSENGER)
+                .driverId(DRIVER)
+                .pickupLocation("Central Station")
+                .dropLocation("Airport Terminal 1")
+                .status(RideStatus.ACCEPTED)
+                .createdAt(new Date())
+                .build());
+        createdRideIds.add(ride.getId());
+        return ride;
+    }
+
+    // Authorization header for a user; the user ID doubles as username
+    private String bearer(String userId, String role) {
+        return "Bearer " + jwtUtil.generateToken(userId, userId, role);
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.rideshare.controller;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.rideshare.config.AuthenticatedUser;
+import org.example.rideshare.config.CurrentUserArgumentResolver;
+import org.example.rideshare.config.JwtAuthFilter;
+import org.example.rideshare.config.JwtUtil;
+import org.example.rideshare.config.VerifiedClaimsCache;
+import org.example.rideshare.dto.CreateRideRequest;
+import org.example.rideshare.model.User;
+import org.example.rideshare.repository.UserRepository;
+import org.example.rideshare.service.CustomUserDetailsService;
+import org.example.rideshare.service.RideService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * RideControllerRoundTripTest - Counts MongoDB round trips per ride request
+ *
+ * Runs a POST /api/v1/rides request through JwtAuthFilter, the registered
+ * CurrentUserArgumentResolver and RideController with a mocked UserRepository
+ * and counts the repository calls made before the ride is handed to
+ * RideService. RideRequestRoundTripBenchmark measures the same path.
+ *
+ * Before @CurrentUser: 2 user lookups per request (filter + controller)
+ * After, stateless mode: 0 user lookups
+ * After, database mode: 1 user lookup (filter only)
+ */
+class RideControllerRoundTripTest {
+
+    private static final String SECRET = "test_secret_key_with_at_least_32_characters_for_hs256";
+
+    private JwtUtil jwtUtil;
+    private UserRepository userRepository;
+    private RideService rideService;
+    private JwtAuthFilter filter;
+    private RideController controller;
+    private CurrentUserArgumentResolver resolver;
+    private MethodParameter userParameter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jwtUtil = new JwtUtil(SECRET, 3600000);
+        userRepository = mock(UserRepository.class);
+        rideService = mock(RideService.class);
+        when(userRepository.findByUsername("john"))
+                .thenReturn(Optional.of(new User("u-1", "john", "hash", "ROLE_USER")));
+
+        // Negative and positive TTL of zero: every lookup goes to the repository
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService(
+                userRepository, new SimpleMeterRegistry(), 100, 0, 0);
+
+        filter = new JwtAuthFilter();
+        ReflectionTestUtils.setField(filter, "claimsCache",
+                new VerifiedClaimsCache(jwtUtil, new SimpleMeterRegistry(), 100, 3600000));
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+
+        controller = new RideController();
+        ReflectionTestUtils.setField(controller, "rideService", rideService);
+
+        resolver = new CurrentUserArgumentResolver();
+        userParameter = new MethodParameter(RideController.class.getMethod("createRide",
+                CreateRideRequest.class, AuthenticatedUser.class), 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void statelessModeCreatesRideWithoutUserLookup() throws Exception {
+        assertEquals(0, createRideAndCountUserLookups("stateless"),
+                "Mongo user lookups per ride request (stateless)");
+    }
+
+    @Test
+    void databaseModeLooksUserUpOnlyInFilter() throws Exception {
+        assertEquals(1, createRideAndCountUserLookups("database"),
+                "Mongo user lookups per ride request (database)");
+    }
+
+    // Runs one authenticated createRide request and returns the number of repository calls
+    private int createRideAndCountUserLookups(String authMode) throws Exception {
+        ReflectionTestUtils.setField(filter, "authMode", authMode);
+        clearInvocations(userRepository);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/rides");
+        request.addHeader("Authorization", "Bearer " + jwtUtil.generateToken("u-1", "john", "ROLE_USER"));
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Same resolution Spring MVC performs for the @CurrentUser parameter
+        assertTrue(resolver.supportsParameter(userParameter));
+        AuthenticatedUser user = (AuthenticatedUser) resolver.resolveArgument(userParameter, null,
+                new ServletWebRequest(request), null);
+        assertNotNull(user);
+        assertEquals("u-1", user.getId());
+
+        CreateRideRequest body = new CreateRideRequest();
+        body.setPickupLocation("Central Station");
+        body.setDropLocation("Airport Terminal 1");
+        controller.createRide(body, user);
+
+        verify(rideService).createRide(any(CreateRideRequest.class), eq("u-1"));
+        return mockingDetails(userRepository).getInvocations().size();
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.rideshare.repository;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.WriteConcernError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.example.rideshare.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * BulkInsertSupportTest - Unordered insertMany against a mocked collection
+ *
+ * The mocked insertMany assigns an _id to every document, as the driver does,
+ * then fails the way the server reports it:
+ * - Per-entry write errors are returned and only the other entities get an ID
+ * - A write concern error is rethrown, since no entry can be reported stored
+ */
+class BulkInsertSupportTest {
+
+    private MongoTemplate mongoTemplate;
+    private MongoCollection<Document> collection;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        collection = mock(MongoCollection.class);
+        when(mongoTemplate.getConverter()).thenReturn(mock(MongoConverter.class));
+        when(mongoTemplate.getCollectionName(User.class)).thenReturn("users");
+        when(mongoTemplate.getCollection("users")).thenReturn(collection);
+    }
+
+    @Test
+    void writeErrorsFailOnlyTheirEntries() {
+        BulkWriteError duplicate = new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 1);
+        failInsertMany(List.of(duplicate), null);
+        List<User> users = users();
+
+        List<BulkWriteError> errors = BulkInsertSupport.insertAllUnordered(mongoTemplate, users, User.class, null,
+                User::setId);
+
+        assertEquals(List.of(duplicate), errors);
+        assertNotNull(users.get(0).getId());
+        assertNull(users.get(1).getId());
+        assertNotNull(users.get(2).getId());
+    }
+
+    @Test
+    void writeConcernErrorIsRethrown() {
+        failInsertMany(List.of(), new WriteConcernError(64, "WriteConcernFailed", "waiting for replication timed out",
+                new BsonDocument()));
+        List<User> users = users();
+
+        assertThrows(MongoBulkWriteException.class, () -> BulkInsertSupport.insertAllUnordered(mongoTemplate, users,
+                User.class, null, User::setId));
+        users.forEach(user -> assertNull(user.getId()));
+    }
+
+    private void failInsertMany(List<BulkWriteError> errors, WriteConcernError writeConcernError) {
+        when(collection.insertMany(anyList(), any(InsertManyOptions.class))).thenAnswer(invocation -> {
+            List<Document> documents = invocation.getArgument(0);
+            documents.forEach(document -> document.put("_id", new ObjectId()));
+            throw new MongoBulkWriteException(BulkWriteResult.unacknowledged(), errors, writeConcernError,
+                    new ServerAddress(), Set.of());
+        });
+    }
+
+    private static List<User> users() {
+        return List.of(
+                User.builder().username("a").password("hash").role("ROLE_USER").build(),
+                User.builder().username("b").password("hash").role("ROLE_USER").build(),
+                User.builder().username("c").password("hash").role("ROLE_USER").build());
+    }
+}
@@ -0,0 +1,141 @@
+package org.example.rideshare.repository;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.example.rideshare.dto.PendingRideCard;
+import org.example.rideshare.model.GeoPoint;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.model.RideStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * RideRepositoryIndexTest - Every RideRepository query must use an index
+ *
+ * Runs each RideRepository query against MongoDB with the profiler on, then
+ * replays every recorded find command through explain() and asserts that the
+ * winning plan is an index scan (IXSCAN, or IDHACK for _id lookups) and never a
+ * COLLSCAN. Because the commands come from the profiler, the test checks the
+ * queries Spring Data actually sends, not hand-written copies.
+ *
+ * Requires a local MongoDB (like RideshareApplicationTests); uses its own
+ * database. Startup index verification runs in "fail" mode.
+ */
+@SpringBootTest(properties = {
+        "spring.data.mongodb.uri=mongodb://localhost:27017/rideshare_index_test",
+        "app.mongo.index-verification=fail" })
+class RideRepositoryIndexTest {
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        rideRepository.deleteAll();
+        List<Ride> rides = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 200; i++) {
+            rides.add(Ride.builder()
+                    .userId("user-" + (i % 20))
+                    .pickupLocation("Pickup " + i)
+                    .dropLocation("Drop " + i)
+                    .pickupPoint(i % 2 == 0 ? new GeoPoint(77.59 + i * 0.001, 12.97 + i * 0.001) : null)
+                    .status(i % 3 == 0 ? RideStatus.ACCEPTED : RideStatus.REQUESTED)
+                    .createdAt(new Date(now - i * 1000L))
+                    .build());
+        }
+        rideRepository.saveAll(rides);
+    }
+
+    @AfterEach
+    void tearDown() {
+        profile(0);
+        mongoTemplate.getDb().getCollection("system.profile").drop();
+        rideRepository.deleteAll();
+    }
+
+    @Test
+    void everyRideRepositoryQueryUsesAnIndex() {
+        PageRequest page = PageRequest.of(0, 10,
+                Sort.by(Sort.Direction.ASC, "createdAt").and(Sort.by(Sort.Direction.ASC, "id")));
+        String anyId = rideRepository.findAll().get(0).getId();
+
+        profile(2);
+        try {
+            rideRepository.findById(anyId);
+            rideRepository.findByStatus(RideStatus.REQUESTED);
+            rideRepository.findHistoryByUserId("user-7");
+            Slice<PendingRideCard> first = rideRepository.findCardsByStatus(RideStatus.REQUESTED, page);
+            PendingRideCard last = first.getContent().get(first.getContent().size() - 1);
+            rideRepository.findCardsByStatusAfter(RideStatus.REQUESTED, last.getCreatedAt(), new ObjectId(last.getId()), page);
+            rideRepository.findCardsByStatusNear(RideStatus.REQUESTED, 77.6, 12.98, 5000, PageRequest.of(0, 10));
+        } finally {
+            profile(0);
+        }
+
+        String namespace = mongoTemplate.getDb().getName() + "." + mongoTemplate.getCollectionName(Ride.class);
+        List<Document> queries = mongoTemplate.getDb().getCollection("system.profile")
+                .find(new Document("ns", namespace).append("op", "query"))
+                .into(new ArrayList<>());
+        assertTrue(queries.size() >= 6, "Expected 6 profiled queries, got " + queries.size());
+
+        for (Document query : queries) {
+            Document find = replayableFind(query.get("command", Document.class));
+            Document explain = mongoTemplate.getDb().runCommand(
+                    new Document("explain", find).append("verbosity", "queryPlanner"));
+            Set<String> stages = new TreeSet<>();
+            collectStages(explain.get("queryPlanner", Document.class).get("winningPlan"), stages);
+
+            assertFalse(stages.contains("COLLSCAN"), "Collection scan for " + find.toJson() + ": " + stages);
+            assertTrue(stages.stream().anyMatch(stage -> stage.contains("IXSCAN") || stage.contains("IDHACK")),
+                    "No index scan for " + find.toJson() + ": " + stages);
+        }
+    }
+
+    // Sets the database profiler level (0 = off, 2 = all operations)
+    private void profile(int level) {
+        mongoTemplate.getDb().runCommand(new Document("profile", level));
+    }
+
+    // Copies the query-shaping fields of a profiled find command
+    private static Document replayableFind(Document command) {
+        Document find = new Document("find", command.get("find"));
+        for (String field : List.of("filter", "sort", "projection", "skip", "limit", "hint", "collation")) {
+            if (command.containsKey(field)) {
+                find.append(field, command.get(field));
+            }
+        }
+        return find;
+    }
+
+    // Collects every "stage" name in an explain plan tree
+    private static void collectStages(Object node, Set<String> stages) {
+        if (node instanceof Document document) {
+            if (document.get("stage") instanceof String stage) {
+                stages.add(stage);
+            }
+            document.values().forEach(value -> collectStages(value, stages));
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectStages(value, stages));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package org.example.rideshare.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * DispatchSolverTest - Assignment solvers against an exhaustive search
+ *
+ * Random cost matrices of up to 6 x 6 (square and rectangular, with and
+ * without missing pairs) are solved by trying every assignment. The Hungarian
+ * solver must assign as many rides as the best one and match its total cost;
+ * the greedy solver must return a valid assignment that is never better.
+ */
+class DispatchSolverTest {
+
+    private static final double NO_EDGE = DispatchSolver.NO_EDGE;
+
+    @Test
+    void optimalMatchesBruteForce() {
+        SplittableRandom random = new SplittableRandom(19);
+        for (int round = 0; round < 3000; round++) {
+            double[][] cost = randomMatrix(random, 1 + random.nextInt(6), 1 + random.nextInt(6),
+                    random.nextDouble(0, 0.6));
+            Best best = new Best();
+            search(cost, 0, new boolean[cost[0].length], 0, 0, best);
+
+            int[] optimal = DispatchSolver.optimal(cost);
+            String matrix = Arrays.deepToString(cost);
+            assertValid(cost, optimal, matrix);
+            assertEquals(best.assigned, DispatchSolver.assigned(optimal), "Assigned rides for " + matrix);
+            assertEquals(best.cost, DispatchSolver.totalCost(cost, optimal), 1e-9, "Total cost for " + matrix);
+
+            int[] greedy = DispatchSolver.greedy(cost);
+            assertValid(cost, greedy, matrix);
+            assertTrue(DispatchSolver.assigned(greedy) <= best.assigned, "Greedy assigned more for " + matrix);
+            if (DispatchSolver.assigned(greedy) == best.assigned) {
+                assertTrue(DispatchSolver.totalCost(cost, greedy) >= best.cost - 1e-9,
+                        "Greedy cheaper than optimal for " + matrix);
+            }
+        }
+    }
+
+    @Test
+    void optimalBeatsGreedyWhereTheCheapestPairIsATrap() {
+        // Greedy takes (0, 0) at 1 and leaves ride 1 with driver 1 at 100
+        double[][] cost = {
+                { 1, 2 },
+                { 2, 100 }
+        };
+        assertArrayEquals(new int[] { 0, 1 }, DispatchSolver.greedy(cost));
+        assertArrayEquals(new int[] { 1, 0 }, DispatchSolver.optimal(cost));
+    }
+
+    @Test
+    void ridesWithoutCandidatesStayUnassigned() {
+        double[][] cost = {
+                { NO_EDGE, NO_EDGE },
+                { 5, NO_EDGE },
+                { 3, 4 }
+        };
+        int[] optimal = DispatchSolver.optimal(cost);
+        assertArrayEquals(new int[] { -1, 0, 1 }, optimal);
+        assertNotEquals(-1, DispatchSolver.greedy(cost)[2]);
+        assertArrayEquals(new int[0], DispatchSolver.optimal(new double[0][0]));
+        assertArrayEquals(new int[] { -1 }, DispatchSolver.optimal(new double[1][0]));
+    }
+
+    // Every driver used at most once, only on real pairs
+    private static void assertValid(double[][] cost, int[] assignment, String matrix) {
+        assertEquals(cost.length, assignment.length);
+        boolean[] used = new boolean[cost[0].length];
+        for (int ride = 0; ride < assignment.length; ride++) {
+            int driver = assignment[ride];
+            if (driver < 0) {
+                continue;
+            }
+            assertTrue(cost[ride][driver] != NO_EDGE, "Missing pair assigned in " + matrix);
+            assertTrue(!used[driver], "Driver " + driver + " used twice in " + matrix);
+            used[driver] = true;
+        }
+    }
+
+    // Tries every assignment of rides from index ride on; keeps the most rides, then the lowest cost
+    private static void search(double[][] cost, int ride, boolean[] used, int assigned, double total, Best best) {
+        if (ride == cost.length) {
+            if (assigned > best.assigned || (assigned == best.assigned && total < best.cost)) {
+                best.assigned = assigned;
+                best.cost = total;
+            }
+            return;
+        }
+        search(cost, ride + 1, used, assigned, total, best);
+        for (int driver = 0; driver < used.length; driver++) {
+            if (!used[driver] && cost[ride][driver] != NO_EDGE) {
+                used[driver] = true;
+                search(cost, ride + 1, used, assigned + 1, total + cost[ride][driver], best);
+                used[driver] = false;
+            }
+        }
+    }
+
+    // Pickup distances in meters, each pair missing with the given probability
+    private static double[][] randomMatrix(SplittableRandom random, int rides, int drivers, double missing) {
+        double[][] cost = new double[rides][drivers];
+        for (double[] row : cost) {
+            for (int driver = 0; driver < drivers; driver++) {
+                row[driver] = random.nextDouble() < missing ? NO_EDGE : Math.round(random.nextDouble(0, 5000));
+            }
+        }
+        return cost;
+    }
+
+    private static final class Best {
+        int assigned = -1;
+        double cost = Double.POSITIVE_INFINITY;
+    }
+}
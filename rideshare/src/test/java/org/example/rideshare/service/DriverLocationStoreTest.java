@@ -0,0 +1,162 @@
+package org.example.rideshare.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * DriverLocationStoreTest - Slot updates under concurrency
+ *
+ * Each test position encodes its ping time (or its driver) in the latitude,
+ * so a position written by one ping and a time written by another, or one
+ * driver's position in another driver's slot, is detected:
+ * - Concurrent pings of one driver keep the newest, with its own position,
+ * also as seen by snapshots taken meanwhile, and the stored time never goes
+ * back
+ * - A driver released and replaced by another in the same slot while its
+ * pings are in flight never leaves its position in the new driver's slot
+ */
+class DriverLocationStoreTest {
+
+    @Test
+    void keepsNewerPingsAndReusesReleasedSlots() {
+        DriverLocationStore store = new DriverLocationStore(2);
+
+        int first = store.update("d1", 10, 20, 2000);
+        assertEquals(DriverLocationStore.STALE, store.update("d1", 11, 21, 1000));
+        assertEquals(10, store.latitude(first), 1e-7);
+        assertEquals(first, store.update("d1", 12, 22, 3000));
+        assertEquals(12, store.latitude(first), 1e-7);
+
+        store.update("d2", 1, 1, 1000);
+        assertEquals(DriverLocationStore.FULL, store.update("d3", 1, 1, 1000));
+        assertEquals(first, store.release("d1"));
+        assertNull(store.driverId(first));
+        assertEquals(first, store.update("d3", 5, 6, 500));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void concurrentPingsOfOneDriverNeverMix() throws Exception {
+        DriverLocationStore store = new DriverLocationStore(4);
+        AtomicLong clock = new AtomicLong(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Path snapshot = Files.createTempFile("driver-locations", ".bin");
+        int writers = 6;
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < writers; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 200_000; i++) {
+                        long time = clock.getAndIncrement();
+                        int slot = store.update("d1", latitudeAt(time), 0, time);
+                        if (slot >= 0) {
+                            // Stored time never goes back past a ping that was accepted
+                            long stored = store.reportedAt(slot);
+                            assertTrue(stored >= time, "Stored " + stored + " after accepting " + time);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            Future<?> reader = executor.submit(() -> {
+                start.await();
+                while (writing.get()) {
+                    store.writeSnapshot(snapshot);
+                    DriverLocationStore.readSnapshot(snapshot, (driverId, latitude, longitude, reportedAt) ->
+                            assertEquals(latitudeAt(reportedAt), latitude, 1e-7, "Snapshot of " + driverId));
+                }
+                return null;
+            });
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+            writing.set(false);
+            reader.get(60, TimeUnit.SECONDS);
+        } finally {
+            writing.set(false);
+            executor.shutdownNow();
+            Files.deleteIfExists(snapshot);
+        }
+
+        // The newest ping can never be stale, so it is the one stored, with its own position
+        long newest = clock.get() - 1;
+        assertEquals(newest, store.reportedAt(0));
+        assertEquals(latitudeAt(newest), store.latitude(0), 1e-7);
+    }
+
+    @Test
+    void releasedSlotNeverTakesAnotherDriversPing() throws Exception {
+        // One slot, passed back and forth between two drivers
+        DriverLocationStore store = new DriverLocationStore(1);
+        AtomicBoolean running = new AtomicBoolean(true);
+        int writers = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < writers; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    long time = 1;
+                    while (running.get()) {
+                        store.update("a", 45, 0, time++);
+                    }
+                    return null;
+                }));
+            }
+            Future<?> switcher = executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 50_000; i++) {
+                    store.release("a");
+                    int slot = store.update("b", -45, 0, i + 1);
+                    if (slot >= 0) {
+                        // Pings of "a" still in flight must not land in b's slot
+                        for (int read = 0; read < 100; read++) {
+                            assertEquals(-45, store.latitude(slot), 1e-7, "Position in b's slot");
+                        }
+                        store.release("b");
+                    }
+                }
+                return null;
+            });
+            start.countDown();
+            try {
+                switcher.get(60, TimeUnit.SECONDS);
+            } finally {
+                running.set(false);
+            }
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            running.set(false);
+            executor.shutdownNow();
+        }
+
+        assertTrue(store.size() <= 1);
+    }
+
+    // Latitude that identifies a ping time (0 to 10 degrees, 1e-5 steps)
+    private static double latitudeAt(long time) {
+        return (time % 1_000_000) * 1e-5;
+    }
+}
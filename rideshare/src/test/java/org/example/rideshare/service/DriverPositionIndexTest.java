@@ -0,0 +1,107 @@
+package org.example.rideshare.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.rideshare.model.RideStatus;
+import org.example.rideshare.repository.RideRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * DriverPositionIndexTest - Busy drivers against a mocked RideRepository
+ *
+ * All drivers report from the same spot, so nearest() returns exactly the
+ * available ones:
+ * - A busy driver swept as stale (lost signal) is still busy when they report
+ * again
+ * - A refresh makes drivers of rides completed elsewhere available and drivers
+ * of rides accepted elsewhere busy
+ * - Drivers marked busy or available while the refresh query runs keep that
+ * state
+ */
+class DriverPositionIndexTest {
+
+    private static final long TTL_MS = 30_000;
+
+    private RideRepository rideRepository;
+    private DriverPositionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        rideRepository = mock(RideRepository.class);
+        when(rideRepository.findDriverIdsByStatus(RideStatus.ACCEPTED)).thenReturn(List.of());
+        index = new DriverPositionIndex(rideRepository, new SimpleMeterRegistry(), TTL_MS, 0.01, 64, 25, "", 0, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.close();
+    }
+
+    @Test
+    void busyDriverStaysBusyAfterLosingSignal() {
+        // d1's last ping is older than the ttl: swept offline while on a ride
+        index.update("d1", 12.97, 77.59, System.currentTimeMillis() - TTL_MS - 1000);
+        index.update("d2", 12.97, 77.59);
+        index.markBusy("d1");
+        ReflectionTestUtils.invokeMethod(index, "removeStale");
+        assertEquals(1, index.size());
+        assertEquals(List.of("d2"), available());
+
+        // Back online, still on the ride
+        index.update("d1", 12.97, 77.59);
+        assertEquals(List.of("d2"), available());
+
+        index.markAvailable("d1");
+        assertEquals(List.of("d1", "d2"), available());
+    }
+
+    @Test
+    void refreshFollowsRidesChangedElsewhere() {
+        for (String driverId : List.of("d1", "d2", "d3")) {
+            index.update(driverId, 12.97, 77.59);
+        }
+        index.markBusy("d1");
+        index.markBusy("d2");
+
+        // d1's ride was completed and d3 accepted a ride on another instance
+        when(rideRepository.findDriverIdsByStatus(RideStatus.ACCEPTED)).thenReturn(List.of("d2", "d3"));
+        index.refreshBusy();
+
+        assertEquals(List.of("d1"), available());
+    }
+
+    @Test
+    void changesDuringTheRefreshQueryAreKept() {
+        for (String driverId : List.of("d1", "d2", "d3")) {
+            index.update(driverId, 12.97, 77.59);
+        }
+        index.markBusy("d2");
+
+        // The query still sees d2's ride as ACCEPTED and not yet d1's
+        when(rideRepository.findDriverIdsByStatus(RideStatus.ACCEPTED)).thenAnswer(invocation -> {
+            index.markBusy("d1");
+            index.markAvailable("d2");
+            return List.of("d2");
+        });
+        index.refreshBusy();
+
+        assertEquals(List.of("d2", "d3"), available());
+    }
+
+    // IDs of the drivers nearest() returns, sorted
+    private List<String> available() {
+        TreeSet<String> ids = new TreeSet<>();
+        index.nearest(12.97, 77.59, 10, 1000).forEach(hit -> ids.add(hit.id()));
+        return new ArrayList<>(ids);
+    }
+}
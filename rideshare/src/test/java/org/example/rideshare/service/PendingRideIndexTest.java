@@ -0,0 +1,502 @@
+package org.example.rideshare.service;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoSocketReadException;
+import com.mongodb.ServerAddress;
+import com.mongodb.ServerCursor;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonObjectId;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.example.rideshare.dto.PendingRideCard;
+import org.example.rideshare.dto.RideFeedPage;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.model.RideStatus;
+import org.example.rideshare.repository.RideRepository;
+import org.example.rideshare.util.RideCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * PendingRideIndexTest - In-memory pending-ride index against a mocked MongoDB
+ *
+ * Covers add/remove, keyset paging in (createdAt, id) order, a ride accepted
+ * while the startup load is running, the consistency check (including a ride
+ * accepted between its ID scan and its re-read), concurrent accepts while
+ * drivers page, and the guard that keeps the index unused when it cannot
+ * follow other instances.
+ *
+ * With the change stream on, a fake stream stands in for MongoDB: it delivers
+ * only changes made after it was opened (or after the resume token it was
+ * opened with). Covers a ride inserted elsewhere between the startup query
+ * and the first read of the stream, a stream that fails before its first
+ * event, and a stream the server refuses to resume.
+ */
+class PendingRideIndexTest {
+
+    private RideRepository rideRepository;
+    private MongoTemplate mongoTemplate;
+
+    // Rides as MongoDB would return them by ID
+    private final Map<String, Ride> stored = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        rideRepository = mock(RideRepository.class);
+        mongoTemplate = mock(MongoTemplate.class);
+        when(rideRepository.findByStatus(RideStatus.REQUESTED)).thenReturn(List.of());
+        when(rideRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(stored.get(invocation.<String>getArgument(0))));
+    }
+
+    @Test
+    void addRemoveAndPage() {
+        PendingRideIndex index = loadedIndex();
+        List<Ride> rides = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            rides.add(ride(1000L * (5 - i)));
+        }
+        rides.forEach(index::add);
+        index.add(Ride.builder().id(new ObjectId().toHexString()).status(RideStatus.ACCEPTED)
+                .createdAt(new Date()).build());
+
+        // Oldest first, whatever the insertion order
+        RideFeedPage first = index.page(null, 2);
+        assertEquals(List.of(rides.get(4).getId(), rides.get(3).getId()), ids(first));
+        RideFeedPage second = index.page(RideCursor.decode(first.getNextCursor()), 2);
+        assertEquals(List.of(rides.get(2).getId(), rides.get(1).getId()), ids(second));
+        RideFeedPage last = index.page(RideCursor.decode(second.getNextCursor()), 2);
+        assertEquals(List.of(rides.get(0).getId()), ids(last));
+        assertNull(last.getNextCursor());
+
+        index.remove(rides.get(2).getId());
+        index.remove(new ObjectId().toHexString());
+        assertEquals(List.of(rides.get(4).getId(), rides.get(3).getId(), rides.get(1).getId(),
+                rides.get(0).getId()), ids(index.page(null, 10)));
+    }
+
+    @Test
+    void rideAcceptedDuringLoadStaysOut() {
+        Ride accepted = ride(1000);
+        Ride waiting = ride(2000);
+        PendingRideIndex index = index(true);
+        // The startup query still sees the ride, but it is accepted before the load finishes
+        when(rideRepository.findByStatus(RideStatus.REQUESTED)).thenAnswer(invocation -> {
+            index.remove(accepted.getId());
+            return List.of(accepted, waiting);
+        });
+
+        index.load();
+
+        assertTrue(index.isReady());
+        assertEquals(List.of(waiting.getId()), ids(index.page(null, 10)));
+    }
+
+    @Test
+    void reconcileRepairsDriftButKeepsConcurrentAccepts() {
+        PendingRideIndex index = loadedIndex();
+        Ride stale = ride(1000);
+        Ride missed = ride(2000);
+        Ride acceptedSinceScan = ride(3000);
+        index.add(stale);
+
+        // Scan sees missed and acceptedSinceScan as REQUESTED, stale is gone
+        when(mongoTemplate.find(any(Query.class), eq(Ride.class)))
+                .thenReturn(List.of(idOnly(missed), idOnly(acceptedSinceScan)));
+        stored.put(missed.getId(), missed);
+        stored.put(stale.getId(), copy(stale, RideStatus.ACCEPTED));
+        stored.put(acceptedSinceScan.getId(), copy(acceptedSinceScan, RideStatus.ACCEPTED));
+
+        assertEquals(2, index.reconcile());
+        assertEquals(List.of(missed.getId()), ids(index.page(null, 10)));
+        assertEquals(0, index.reconcile());
+    }
+
+    @Test
+    void concurrentAcceptsWhileDriversPage() throws Exception {
+        PendingRideIndex index = loadedIndex();
+        List<Ride> rides = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Ride ride = ride(i);
+            rides.add(ride);
+            index.add(ride);
+        }
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            // Half the threads accept (remove) every even ride, the other half page through the feed
+            for (int t = 0; t < threads / 2; t++) {
+                int offset = t;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = offset * 2; i < rides.size(); i += threads) {
+                        index.remove(rides.get(i).getId());
+                    }
+                    return null;
+                }));
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int round = 0; round < 20; round++) {
+                        long previous = Long.MIN_VALUE;
+                        RideFeedPage page = index.page(null, 100);
+                        while (true) {
+                            for (PendingRideCard card : page.getRides()) {
+                                assertTrue(card.getCreatedAt().getTime() >= previous, "Feed out of order");
+                                previous = card.getCreatedAt().getTime();
+                            }
+                            if (page.getNextCursor() == null) {
+                                break;
+                            }
+                            page = index.page(RideCursor.decode(page.getNextCursor()), 100);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<String> expected = new ArrayList<>();
+        for (int i = 1; i < rides.size(); i += 2) {
+            expected.add(rides.get(i).getId());
+        }
+        assertEquals(expected, ids(index.page(null, rides.size())));
+    }
+
+    @Test
+    void unusedWithoutChangeStreamUnlessSingleInstance() {
+        PendingRideIndex index = index(false);
+        index.add(ride(1000));
+        index.load();
+
+        assertFalse(index.isReady());
+        assertTrue(index.page(null, 10).getRides().isEmpty());
+        index.add(ride(2000));
+        assertTrue(index.page(null, 10).getRides().isEmpty());
+    }
+
+    @Test
+    void rideInsertedBetweenLoadAndWatchIsApplied() throws Exception {
+        FakeChangeStream stream = new FakeChangeStream();
+        Ride early = ride(1000);
+        Ride inserted = ride(2000);
+        // Another instance inserts a ride just after the startup query's snapshot
+        when(rideRepository.findByStatus(RideStatus.REQUESTED)).thenAnswer(invocation -> {
+            stream.insert(inserted);
+            return List.of(early);
+        });
+        PendingRideIndex index = syncedIndex();
+        try {
+            index.load();
+
+            assertTrue(index.isReady());
+            await(() -> ids(index.page(null, 10)).equals(List.of(early.getId(), inserted.getId())),
+                    "inserted ride in the index");
+        } finally {
+            index.close();
+        }
+    }
+
+    @Test
+    void streamFailingBeforeItsFirstEventResumes() throws Exception {
+        FakeChangeStream stream = new FakeChangeStream();
+        PendingRideIndex index = syncedIndex();
+        try {
+            index.load();
+            stream.fail(new MongoSocketReadException("Connection reset", new ServerAddress()));
+            assertTrue(stream.closed.await(5, TimeUnit.SECONDS));
+
+            // Made while the stream is down: delivered once it resumes after its token
+            Ride duringOutage = ride(1000);
+            stream.insert(duringOutage);
+            await(() -> ids(index.page(null, 10)).equals(List.of(duringOutage.getId())), "ride made during outage");
+            assertTrue(index.isReady());
+            assertEquals(1, stream.resumed.get());
+        } finally {
+            index.close();
+        }
+    }
+
+    @Test
+    void streamThatCannotResumeReloads() throws Exception {
+        FakeChangeStream stream = new FakeChangeStream();
+        Ride kept = ride(1000);
+        Ride missed = ride(2000);
+        CountDownLatch reloading = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        when(rideRepository.findByStatus(RideStatus.REQUESTED)).thenReturn(List.of(kept)).thenAnswer(invocation -> {
+            reloading.countDown();
+            proceed.await();
+            return List.of(kept, missed);
+        });
+        PendingRideIndex index = syncedIndex();
+        try {
+            index.load();
+            assertEquals(List.of(kept.getId()), ids(index.page(null, 10)));
+
+            // History lost: the server refuses to go on from the token
+            stream.fail(new MongoCommandException(new BsonDocument("ok", new BsonInt32(0))
+                    .append("code", new BsonInt32(286))
+                    .append("errmsg", new BsonString("Resume point may no longer be in the oplog")),
+                    new ServerAddress()));
+            assertTrue(reloading.await(5, TimeUnit.SECONDS));
+            assertFalse(index.isReady(), "index used while reloading");
+
+            proceed.countDown();
+            await(index::isReady, "index reloaded");
+            assertEquals(List.of(kept.getId(), missed.getId()), ids(index.page(null, 10)));
+            assertEquals(0, stream.resumed.get());
+        } finally {
+            proceed.countDown();
+            index.close();
+        }
+    }
+
+    // Index with the change stream off, loaded from an empty collection
+    private PendingRideIndex loadedIndex() {
+        PendingRideIndex index = index(true);
+        index.load();
+        return index;
+    }
+
+    private PendingRideIndex index(boolean singleInstance) {
+        return new PendingRideIndex(rideRepository, mongoTemplate, new SimpleMeterRegistry(), true, false,
+                singleInstance, 0, 0.01);
+    }
+
+    // Index with the change stream on (needs a FakeChangeStream)
+    private PendingRideIndex syncedIndex() {
+        return new PendingRideIndex(rideRepository, mongoTemplate, new SimpleMeterRegistry(), true, true, false, 0,
+                0.01);
+    }
+
+    private static void await(BooleanSupplier condition, String what) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting: " + what);
+            Thread.sleep(10);
+        }
+    }
+
+    // REQUESTED ride created at the given epoch millisecond
+    private static Ride ride(long createdAt) {
+        return Ride.builder()
+                .id(new ObjectId().toHexString())
+                .userId("index-user")
+                .pickupLocation("Pickup")
+                .dropLocation("Drop")
+                .status(RideStatus.REQUESTED)
+                .createdAt(new Date(createdAt))
+                .build();
+    }
+
+    private static Ride idOnly(Ride ride) {
+        return Ride.builder().id(ride.getId()).build();
+    }
+
+    private static Ride copy(Ride ride, RideStatus status) {
+        return Ride.builder()
+                .id(ride.getId())
+                .userId(ride.getUserId())
+                .pickupLocation(ride.getPickupLocation())
+                .dropLocation(ride.getDropLocation())
+                .status(status)
+                .createdAt(ride.getCreatedAt())
+                .build();
+    }
+
+    private static List<String> ids(RideFeedPage page) {
+        List<String> ids = new ArrayList<>();
+        page.getRides().forEach(card -> ids.add(card.getId()));
+        return ids;
+    }
+
+    /**
+     * FakeChangeStream - Change stream on the rides collection of the mocked
+     * MongoTemplate
+     *
+     * Keeps every insert in order; a cursor starts at the end of that list, or
+     * at the position in its resume token, which is always the position after
+     * the last change read.
+     */
+    private class FakeChangeStream {
+
+        // Changes made so far, in order
+        final List<ChangeStreamDocument<Document>> changes = new CopyOnWriteArrayList<>();
+
+        // Rides by ID, as the converter reads them from change documents
+        final Map<String, Ride> documents = new ConcurrentHashMap<>();
+
+        // Cursors opened with a resume token
+        final AtomicInteger resumed = new AtomicInteger();
+
+        // Counted down when a cursor is closed
+        final CountDownLatch closed = new CountDownLatch(1);
+
+        // Thrown by the next read of the open cursor
+        private volatile RuntimeException failure;
+
+        // Token passed to resumeAfter() for the next cursor
+        private volatile BsonDocument resumeAfter;
+
+        @SuppressWarnings("unchecked")
+        FakeChangeStream() {
+            MongoDatabase database = mock(MongoDatabase.class);
+            when(mongoTemplate.getDb()).thenReturn(database);
+            when(database.runCommand(any(Bson.class))).thenReturn(new Document("setName", "rs0"));
+
+            MongoCollection<Document> collection = mock(MongoCollection.class);
+            ChangeStreamIterable<Document> stream = mock(ChangeStreamIterable.class, RETURNS_SELF);
+            when(mongoTemplate.getCollectionName(Ride.class)).thenReturn("rides");
+            when(mongoTemplate.getCollection("rides")).thenReturn(collection);
+            when(collection.watch()).thenAnswer(invocation -> {
+                resumeAfter = null;
+                return stream;
+            });
+            when(stream.resumeAfter(any(BsonDocument.class))).thenAnswer(invocation -> {
+                resumeAfter = invocation.getArgument(0);
+                return stream;
+            });
+            when(stream.cursor()).thenAnswer(invocation -> {
+                if (resumeAfter == null) {
+                    return new Cursor(changes.size());
+                }
+                resumed.incrementAndGet();
+                return new Cursor(resumeAfter.getInt32("position").getValue());
+            });
+
+            MongoConverter converter = mock(MongoConverter.class);
+            when(mongoTemplate.getConverter()).thenReturn(converter);
+            when(converter.read(eq(Ride.class), any(Bson.class))).thenAnswer(invocation ->
+                    documents.get(invocation.<Document>getArgument(1).getObjectId("_id").toHexString()));
+        }
+
+        void insert(Ride ride) {
+            documents.put(ride.getId(), ride);
+            Document document = new Document("_id", new ObjectId(ride.getId()));
+            changes.add(new ChangeStreamDocument<>("insert", token(changes.size() + 1), null, null, null, document,
+                    null, new BsonDocument("_id", new BsonObjectId(new ObjectId(ride.getId()))), null, null, null,
+                    null, null, null, null));
+        }
+
+        void fail(RuntimeException error) {
+            failure = error;
+        }
+
+        private static BsonDocument token(int position) {
+            return new BsonDocument("position", new BsonInt32(position));
+        }
+
+        /**
+         * Cursor - Reads the changes from a position on
+         */
+        private class Cursor implements MongoChangeStreamCursor<ChangeStreamDocument<Document>> {
+
+            private int position;
+
+            Cursor(int position) {
+                this.position = position;
+            }
+
+            @Override
+            public ChangeStreamDocument<Document> tryNext() {
+                RuntimeException error = failure;
+                if (error != null) {
+                    failure = null;
+                    throw error;
+                }
+                if (position < changes.size()) {
+                    return changes.get(position++);
+                }
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            }
+
+            @Override
+            public BsonDocument getResumeToken() {
+                return token(position);
+            }
+
+            @Override
+            public void close() {
+                closed.countDown();
+            }
+
+            @Override
+            public boolean hasNext() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public ChangeStreamDocument<Document> next() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int available() {
+                return changes.size() - position;
+            }
+
+            @Override
+            public ServerCursor getServerCursor() {
+                return null;
+            }
+
+            @Override
+            public ServerAddress getServerAddress() {
+                return null;
+            }
+        }
+    }
+}
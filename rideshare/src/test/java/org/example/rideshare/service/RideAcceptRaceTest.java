@@ -0,0 +1,112 @@
+package org.example.rideshare.service;
+
+import org.example.rideshare.exception.NotFoundException;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.model.RideStatus;
+import org.example.rideshare.repository.RideRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * RideAcceptRaceTest - Concurrent drivers accepting the same ride
+ *
+ * 300 threads call RideService.acceptRide() on one REQUESTED ride at the same
+ * instant. With the atomic findAndModify exactly one must win; every other
+ * caller must get IllegalStateException, and the stored driver must be the
+ * winner. Also checks that a missing ride still yields NotFoundException.
+ *
+ * Requires a local MongoDB (like RideshareApplicationTests); uses its own
+ * database.
+ */
+@SpringBootTest(properties = "spring.data.mongodb.uri=mongodb://localhost:27017/rideshare_accept_race_test")
+class RideAcceptRaceTest {
+
+    private static final int DRIVERS = 300;
+
+    @Autowired
+    private RideService rideService;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    private final List<String> createdRideIds = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        rideRepository.deleteAllById(createdRideIds);
+    }
+
+    @Test
+    void exactlyOneOfManyConcurrentDriversAcceptsTheRide() throws Exception {
+        Ride ride = rideRepository.save(Ride.builder()
+                .userId("race-user")
+                .pickupLocation("Central Station")
+                .dropLocation("Airport Terminal 1")
+                .status(RideStatus.REQUESTED)
+                .createdAt(new Date())
+                .build());
+        createdRideIds.add(ride.getId());
+
+        ExecutorService executor = Executors.newFixedThreadPool(DRIVERS);
+        CountDownLatch ready = new CountDownLatch(DRIVERS);
+        CountDownLatch start = new CountDownLatch(1);
+        ConcurrentLinkedQueue<String> winners = new ConcurrentLinkedQueue<>();
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Future<?>> results = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < DRIVERS; i++) {
+                String driverId = "race-driver-" + i;
+                results.add(executor.submit(() -> {
+                    ready.countDown();
+                    start.await();
+                    try {
+                        rideService.acceptRide(ride.getId(), driverId);
+                        winners.add(driverId);
+                    } catch (IllegalStateException e) {
+                        conflicts.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+
+            assertTrue(ready.await(30, TimeUnit.SECONDS), "Drivers did not start");
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, winners.size(), "Winners: " + winners);
+        assertEquals(DRIVERS - 1, conflicts.get());
+
+        Ride stored = rideRepository.findById(ride.getId()).orElseThrow();
+        assertEquals(RideStatus.ACCEPTED, stored.getStatus());
+        assertEquals(winners.peek(), stored.getDriverId());
+    }
+
+    @Test
+    void acceptingMissingRideThrowsNotFound() {
+        assertThrows(NotFoundException.class,
+                () -> rideService.acceptRide("000000000000000000000000", "race-driver"));
+    }
+}
@@ -0,0 +1,195 @@
+package org.example.rideshare.service;
+
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.example.rideshare.dto.RideHistoryRow;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.model.RideStatus;
+import org.example.rideshare.repository.RideRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * RideArchiverTest - Old completed rides move to rides_archive and stay visible
+ *
+ * Seeds one passenger with rides completed long ago, rides completed
+ * recently, an old completed ride without completedAt and a pending ride,
+ * runs the archiver with a batch size smaller than the data and checks that:
+ * - only the old completed rides moved (the one without completedAt after
+ * prepare() backfilled it), and getUserRides still returns every ride newest
+ * first
+ * - the checkpoint is cleared after a pass, and a pass resumes after a
+ * checkpoint left by an interrupted one
+ * - rides already copied to the archive by an interrupted batch are skipped
+ * (duplicate key) and still removed from rides
+ *
+ * Requires a local MongoDB (like RideshareApplicationTests); uses its own
+ * database.
+ */
+@SpringBootTest(properties = {
+        "spring.data.mongodb.uri=mongodb://localhost:27017/rideshare_archive_test",
+        "app.rides.archive.min-age-days=30",
+        "app.rides.archive.batch-size=7",
+        "app.rides.archive.pause-ms=0" })
+class RideArchiverTest {
+
+    private static final String PASSENGER = "archive-user";
+
+    @Autowired
+    private RideArchiver archiver;
+
+    @Autowired
+    private RideService rideService;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @AfterEach
+    void tearDown() {
+        rideRepository.deleteAll();
+        mongoTemplate.getCollection(Ride.ARCHIVE_COLLECTION).drop();
+        mongoTemplate.getCollection(RideArchiver.CHECKPOINT_COLLECTION).drop();
+    }
+
+    @Test
+    void movesOldCompletedRidesAndMergesHistory() {
+        long now = System.currentTimeMillis();
+        long day = TimeUnit.DAYS.toMillis(1);
+        List<Ride> rides = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            // 0-9 completed 40+ days ago, 10-19 completed 1 day ago
+            Date completedAt = new Date(now - (i < 10 ? 40 + i : 1) * day);
+            rides.add(Ride.builder()
+                    .userId(PASSENGER)
+                    .driverId("driver-" + i)
+                    .pickupLocation("Pickup " + i)
+                    .dropLocation("Drop " + i)
+                    .status(RideStatus.COMPLETED)
+                    .createdAt(new Date(completedAt.getTime() - 60_000))
+                    .completedAt(completedAt)
+                    .build());
+        }
+        rides.add(Ride.builder()
+                .userId(PASSENGER)
+                .driverId("driver-legacy")
+                .pickupLocation("Pickup legacy")
+                .dropLocation("Drop legacy")
+                .status(RideStatus.COMPLETED)
+                .createdAt(new Date(now - 50 * day))
+                .build());
+        rides.add(Ride.builder()
+                .userId(PASSENGER)
+                .pickupLocation("Pickup pending")
+                .dropLocation("Drop pending")
+                .status(RideStatus.REQUESTED)
+                .createdAt(new Date(now))
+                .build());
+        rideRepository.saveAll(rides);
+
+        archiver.prepare();
+        assertEquals(11, archiver.archive());
+        assertEquals(0, archiver.archive());
+
+        assertEquals(11, rideRepository.count());
+        assertEquals(11, archive().countDocuments());
+        assertNull(checkpoint());
+
+        List<RideHistoryRow> history = rideService.getUserRides(PASSENGER);
+        assertEquals(22, history.size());
+        for (int i = 1; i < history.size(); i++) {
+            assertTrue(!history.get(i).getCreatedAt().after(history.get(i - 1).getCreatedAt()));
+        }
+    }
+
+    @Test
+    void resumesAfterTheCheckpoint() {
+        List<Ride> old = saveOldCompletedRides(10);
+        // Interrupted pass: rides 9 (oldest) to 3 were batched, but ride 9 is still in rides
+        for (int i = 8; i >= 3; i--) {
+            moveToArchive(old.get(i));
+        }
+        Ride last = old.get(3);
+        mongoTemplate.getCollection(RideArchiver.CHECKPOINT_COLLECTION).insertOne(
+                new Document("_id", RideArchiver.CHECKPOINT_ID)
+                        .append("completedAt", last.getCompletedAt())
+                        .append("rideId", new ObjectId(last.getId())));
+
+        // Only rides 2 to 0 are after the checkpoint; the pass then clears it
+        assertEquals(3, archiver.archive());
+        assertTrue(rideRepository.existsById(old.get(9).getId()));
+        assertNull(checkpoint());
+
+        assertEquals(1, archiver.archive());
+        assertEquals(0, rideRepository.count());
+        assertEquals(10, archive().countDocuments());
+    }
+
+    @Test
+    void skipsRidesAlreadyInTheArchive() {
+        List<Ride> old = saveOldCompletedRides(10);
+        // Interrupted batch: copied to the archive, but not yet deleted from rides
+        for (int i = 0; i < 4; i++) {
+            archive().insertOne(rideDocument(old.get(i)));
+        }
+
+        assertEquals(10, archiver.archive());
+        assertEquals(0, rideRepository.count());
+        assertEquals(10, archive().countDocuments());
+        assertEquals(1, archive().countDocuments(new Document("_id", new ObjectId(old.get(0).getId()))));
+    }
+
+    // Rides 0..count-1 of PASSENGER completed 40+i days ago (ride count-1 is the oldest)
+    private List<Ride> saveOldCompletedRides(int count) {
+        long now = System.currentTimeMillis();
+        long day = TimeUnit.DAYS.toMillis(1);
+        List<Ride> rides = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Date completedAt = new Date(now - (40 + i) * day);
+            rides.add(Ride.builder()
+                    .userId(PASSENGER)
+                    .driverId("driver-" + i)
+                    .pickupLocation("Pickup " + i)
+                    .dropLocation("Drop " + i)
+                    .status(RideStatus.COMPLETED)
+                    .createdAt(new Date(completedAt.getTime() - 60_000))
+                    .completedAt(completedAt)
+                    .build());
+        }
+        return rideRepository.saveAll(rides);
+    }
+
+    // What a finished batch did to one ride: archived and deleted from rides
+    private void moveToArchive(Ride ride) {
+        archive().insertOne(rideDocument(ride));
+        rideRepository.deleteById(ride.getId());
+    }
+
+    private Document rideDocument(Ride ride) {
+        return mongoTemplate.getCollection("rides").find(new Document("_id", new ObjectId(ride.getId()))).first();
+    }
+
+    private MongoCollection<Document> archive() {
+        return mongoTemplate.getCollection(Ride.ARCHIVE_COLLECTION);
+    }
+
+    private Document checkpoint() {
+        return mongoTemplate.getCollection(RideArchiver.CHECKPOINT_COLLECTION)
+                .find(new Document("_id", RideArchiver.CHECKPOINT_ID)).first();
+    }
+}
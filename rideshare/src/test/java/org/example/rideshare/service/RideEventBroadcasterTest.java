@@ -0,0 +1,237 @@
+package org.example.rideshare.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.rideshare.dto.PendingRideCard;
+import org.example.rideshare.dto.RideEvent;
+import org.example.rideshare.model.GeoPoint;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.model.RideStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * RideEventBroadcasterTest - Streams whose client stops reading
+ *
+ * Emitters stand in for the network: a fast one records each write, a slow
+ * one blocks in send() like a client with a full TCP window. Slow streams
+ * occupy every sender thread; the fast stream must still get its events, the
+ * slow ones must be evicted after the send timeout, and close() must return
+ * even while a write is stuck. A ride-created event carries the ride's feed
+ * card, not the full Ride.
+ */
+class RideEventBroadcasterTest {
+
+    private static final long SEND_TIMEOUT_MS = 200;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // Emitters handed out to the next subscribe() calls, in order
+    private final Deque<SseEmitter> emitters = new ArrayDeque<>();
+
+    // Releases writes that ignore interrupts
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private RideEventBroadcaster broadcaster;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        broadcaster.close();
+    }
+
+    @Test
+    void stalledStreamsAreEvictedWhileOthersKeepReceiving() throws Exception {
+        broadcaster = broadcaster(2);
+        SlowEmitter interruptible = new SlowEmitter(false);
+        SlowEmitter stuck = new SlowEmitter(true);
+        FastEmitter fast = new FastEmitter();
+        emitters.add(interruptible);
+        emitters.add(stuck);
+        emitters.add(fast);
+
+        // Both sender threads block on the slow streams' "subscribed" event
+        broadcaster.subscribe(null);
+        broadcaster.subscribe(null);
+        assertTrue(interruptible.writing.await(5, TimeUnit.SECONDS));
+        assertTrue(stuck.writing.await(5, TimeUnit.SECONDS));
+        broadcaster.subscribe(null);
+        broadcaster.publish(RideEvent.taken("ride-1"));
+
+        assertTrue(fast.received(2, 5000), "Fast stream got " + fast.sends.get() + " events");
+        await(() -> meterRegistry.get("rides.events.evicted").counter().count() == 2, "both slow streams evicted");
+        await(() -> interruptible.completed, "interrupted stream completed");
+        assertFalse(stuck.completed, "completed while a write was in progress");
+        assertFalse(fast.completed);
+
+        // The stuck write returns: its stream is completed and the extra sender goes away
+        release.countDown();
+        await(() -> stuck.completed, "stuck stream completed");
+        ThreadPoolExecutor senders = (ThreadPoolExecutor) ReflectionTestUtils.getField(broadcaster, "senders");
+        await(() -> senders.getCorePoolSize() == 2, "sender pool back to 2 threads");
+    }
+
+    @Test
+    void rideCreatedSendsTheFeedCard() throws Exception {
+        broadcaster = broadcaster(1);
+        FastEmitter fast = new FastEmitter();
+        emitters.add(fast);
+        broadcaster.subscribe(null);
+
+        Ride ride = Ride.builder()
+                .id("507f1f77bcf86cd799439011")
+                .userId("passenger-1")
+                .pickupLocation("Central Station")
+                .dropLocation("Airport")
+                .pickupPoint(new GeoPoint(77.59, 12.97))
+                .dropPoint(new GeoPoint(77.70, 13.20))
+                .status(RideStatus.REQUESTED)
+                .createdAt(new Date())
+                .build();
+        broadcaster.publish(RideEvent.created(ride));
+
+        assertTrue(fast.received(2, 5000), "Stream got " + fast.sends.get() + " events");
+        PendingRideCard card = assertInstanceOf(PendingRideCard.class, fast.data.get(1));
+        assertEquals(ride.getId(), card.getId());
+        assertEquals("Central Station", card.getPickupLocation());
+        assertEquals(ride.getPickupPoint(), card.getPickupPoint());
+        assertEquals(ride.getCreatedAt(), card.getCreatedAt());
+    }
+
+    @Test
+    void closeReturnsWhileAWriteIsStuck() throws Exception {
+        broadcaster = broadcaster(1);
+        SlowEmitter stuck = new SlowEmitter(true);
+        FastEmitter waiting = new FastEmitter();
+        emitters.add(stuck);
+        emitters.add(waiting);
+
+        broadcaster.subscribe(null);
+        assertTrue(stuck.writing.await(5, TimeUnit.SECONDS));
+        // Queued behind the stuck write on the only sender thread
+        broadcaster.subscribe(null);
+
+        long start = System.nanoTime();
+        broadcaster.close();
+        long tookMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(tookMs < SEND_TIMEOUT_MS + 2000, "close() took " + tookMs + " ms");
+        assertTrue(waiting.completed, "queued stream not completed");
+    }
+
+    private RideEventBroadcaster broadcaster(int senderThreads) {
+        return new RideEventBroadcaster(meterRegistry, 16, 100, 60000, 60000, senderThreads, SEND_TIMEOUT_MS) {
+            @Override
+            SseEmitter createEmitter(long timeoutMs) {
+                return emitters.poll();
+            }
+        };
+    }
+
+    private static void await(BooleanSupplier condition, String what) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting: " + what);
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * FastEmitter - Client that reads every event at once
+     */
+    private static class FastEmitter extends SseEmitter {
+
+        final AtomicInteger sends = new AtomicInteger();
+        // Data of each event, in order
+        final List<Object> data = new CopyOnWriteArrayList<>();
+        volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            Object eventData = null;
+            for (DataWithMediaType part : builder.build()) {
+                if (!(part.getData() instanceof String)) {
+                    eventData = part.getData();
+                }
+            }
+            data.add(eventData);
+            synchronized (sends) {
+                sends.incrementAndGet();
+                sends.notifyAll();
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        boolean received(int count, long timeoutMs) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + timeoutMs;
+            synchronized (sends) {
+                while (sends.get() < count && System.currentTimeMillis() < deadline) {
+                    sends.wait(Math.max(1, deadline - System.currentTimeMillis()));
+                }
+            }
+            return sends.get() >= count;
+        }
+    }
+
+    /**
+     * SlowEmitter - Client that stopped reading: every write blocks
+     */
+    private class SlowEmitter extends SseEmitter {
+
+        // True: the write ignores interrupts until the test releases it
+        private final boolean ignoresInterrupt;
+        final CountDownLatch writing = new CountDownLatch(1);
+        volatile boolean completed;
+
+        SlowEmitter(boolean ignoresInterrupt) {
+            this.ignoresInterrupt = ignoresInterrupt;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            writing.countDown();
+            boolean interrupted = false;
+            while (release.getCount() > 0) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    if (!ignoresInterrupt) {
+                        throw new IOException("Write interrupted", e);
+                    }
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
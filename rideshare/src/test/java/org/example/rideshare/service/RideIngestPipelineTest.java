@@ -0,0 +1,247 @@
+package org.example.rideshare.service;
+
+import com.mongodb.WriteConcern;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.rideshare.dto.CreateRideRequest;
+import org.example.rideshare.exception.GlobalExceptionHandler;
+import org.example.rideshare.exception.ServiceOverloadedException;
+import org.example.rideshare.exception.TooManyRequestsException;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.model.RideStatus;
+import org.example.rideshare.repository.RideRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * RideIngestPipelineTest - Concurrent ride requests are group-committed
+ *
+ * With app.rides.ingest.batched=true, 200 threads create a ride at the same
+ * instant through RideService.createRide(). Every caller must get its stored
+ * ride back (with an ID), every ride must be in MongoDB exactly once, and the
+ * writer must have needed far fewer insertMany calls than rides.
+ *
+ * Also checks, on pipelines of their own:
+ * - A full queue rejects at once with 429 + Retry-After and counts
+ * rides.ingest.rejected (writer held in a mocked insertMany)
+ * - A caller whose ride is not acknowledged in time gets 503, and its ride is
+ * not written once the writer gets to it
+ * - A ride whose entry fails (duplicate _id) fails only its own caller
+ * - close() flushes the rides still queued, and later rides are refused
+ *
+ * Requires a local MongoDB (like RideshareApplicationTests); uses its own
+ * database.
+ */
+@SpringBootTest(properties = {
+        "spring.data.mongodb.uri=mongodb://localhost:27017/rideshare_ingest_test",
+        "app.rides.ingest.batched=true",
+        "app.rides.ingest.max-delay-ms=20",
+        "app.rides.ingest.write-concern=JOURNALED" })
+class RideIngestPipelineTest {
+
+    private static final int PASSENGERS = 200;
+
+    @Autowired
+    private RideService rideService;
+
+    @Autowired
+    private RideRepository rideRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RideIngestPipeline rideIngestPipeline;
+
+    @AfterEach
+    void tearDown() {
+        rideRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentRequestsAreWrittenInBatches() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(PASSENGERS);
+        CountDownLatch ready = new CountDownLatch(PASSENGERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Ride>> results = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < PASSENGERS; i++) {
+                CreateRideRequest request = new CreateRideRequest();
+                request.setPickupLocation("Pickup " + i);
+                request.setDropLocation("Drop " + i);
+                String userId = "ingest-user-" + i;
+                results.add(executor.submit(() -> {
+                    ready.countDown();
+                    start.await();
+                    return rideService.createRide(request, userId);
+                }));
+            }
+
+            assertTrue(ready.await(30, TimeUnit.SECONDS), "Passengers did not start");
+            start.countDown();
+            for (Future<Ride> result : results) {
+                Ride ride = result.get(60, TimeUnit.SECONDS);
+                assertNotNull(ride.getId());
+                assertEquals(RideStatus.REQUESTED, ride.getStatus());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(PASSENGERS, rideRepository.count());
+        DistributionSummary batches = meterRegistry.get("rides.ingest.batch.size").summary();
+        assertEquals(PASSENGERS, (long) batches.totalAmount());
+        assertTrue(batches.count() < PASSENGERS / 4, "insertMany calls: " + batches.count());
+    }
+
+    @Test
+    void fullQueueIsRejectedWithRetryAfter() throws Exception {
+        BlockedRepository blocked = new BlockedRepository();
+        MeterRegistry registry = new SimpleMeterRegistry();
+        RideIngestPipeline pipeline = new RideIngestPipeline(blocked.repository, registry, true, 1, 1, 0, "W1", 7,
+                60_000);
+        try {
+            CompletableFuture<Ride> writing = pipeline.submit(ride("first"));
+            assertTrue(blocked.writing.await(5, TimeUnit.SECONDS));
+            CompletableFuture<Ride> queued = pipeline.submit(ride("queued"));
+
+            TooManyRequestsException rejected = assertThrows(TooManyRequestsException.class,
+                    () -> pipeline.submit(ride("rejected")));
+            ResponseEntity<Map<String, Object>> response = new GlobalExceptionHandler().handleTooManyRequests(rejected);
+            assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+            assertEquals("7", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+            assertEquals(1, registry.get("rides.ingest.rejected").counter().count());
+
+            blocked.release.countDown();
+            assertEquals("first", writing.get(5, TimeUnit.SECONDS).getPickupLocation());
+            assertEquals("queued", queued.get(5, TimeUnit.SECONDS).getPickupLocation());
+        } finally {
+            blocked.release.countDown();
+            pipeline.close();
+        }
+    }
+
+    @Test
+    void unacknowledgedRideTimesOutAndIsNotWritten() throws Exception {
+        BlockedRepository blocked = new BlockedRepository();
+        RideIngestPipeline pipeline = new RideIngestPipeline(blocked.repository, new SimpleMeterRegistry(), true,
+                10, 1, 0, "W1", 1, 200);
+        try {
+            pipeline.submit(ride("first"));
+            assertTrue(blocked.writing.await(5, TimeUnit.SECONDS));
+            CompletableFuture<Ride> late = pipeline.submit(ride("late"));
+
+            ExecutionException error = assertThrows(ExecutionException.class, () -> late.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(ServiceOverloadedException.class, error.getCause());
+
+            blocked.release.countDown();
+            CompletableFuture<Ride> next = pipeline.submit(ride("next"));
+            next.get(5, TimeUnit.SECONDS);
+            assertEquals(List.of("first", "next"), blocked.written);
+        } finally {
+            blocked.release.countDown();
+            pipeline.close();
+        }
+    }
+
+    @Test
+    void failedEntryFailsOnlyItsCaller() throws Exception {
+        Ride existing = rideRepository.save(ride("existing"));
+        Ride duplicate = ride("duplicate");
+        duplicate.setId(existing.getId());
+
+        CompletableFuture<Ride> before = rideIngestPipeline.submit(ride("before"));
+        CompletableFuture<Ride> failed = rideIngestPipeline.submit(duplicate);
+        CompletableFuture<Ride> after = rideIngestPipeline.submit(ride("after"));
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> failed.get(30, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+        assertTrue(error.getCause().getMessage().contains("duplicate key"), error.getCause().getMessage());
+        assertNotNull(before.get(30, TimeUnit.SECONDS).getId());
+        assertNotNull(after.get(30, TimeUnit.SECONDS).getId());
+        assertEquals(3, rideRepository.count());
+        assertEquals("existing", rideRepository.findById(existing.getId()).orElseThrow().getPickupLocation());
+    }
+
+    @Test
+    void closeFlushesQueuedRides() throws Exception {
+        // Rides wait up to 500 ms for their batch, so they are still queued when close() starts
+        RideIngestPipeline pipeline = new RideIngestPipeline(rideRepository, new SimpleMeterRegistry(), true, 100,
+                100, 500, "W1", 1, 60_000);
+        List<CompletableFuture<Ride>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(pipeline.submit(ride("flush-" + i)));
+        }
+
+        pipeline.close();
+
+        for (CompletableFuture<Ride> future : futures) {
+            assertTrue(future.isDone());
+            assertNotNull(future.get().getId());
+        }
+        assertEquals(5, rideRepository.count());
+        assertThrows(ServiceOverloadedException.class, () -> pipeline.submit(ride("too-late")));
+    }
+
+    private static Ride ride(String pickup) {
+        return Ride.builder()
+                .userId("ingest-user")
+                .pickupLocation(pickup)
+                .dropLocation("Drop")
+                .status(RideStatus.REQUESTED)
+                .createdAt(new Date())
+                .build();
+    }
+
+    /**
+     * BlockedRepository - Mocked RideRepository whose first insertMany waits
+     * for release, recording the rides it writes
+     */
+    private static class BlockedRepository {
+
+        final RideRepository repository = mock(RideRepository.class);
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<String> written = new CopyOnWriteArrayList<>();
+
+        BlockedRepository() {
+            when(repository.insertAllUnordered(anyList(), any(WriteConcern.class))).thenAnswer(invocation -> {
+                List<Ride> rides = invocation.getArgument(0);
+                rides.forEach(ride -> written.add(ride.getPickupLocation()));
+                writing.countDown();
+                release.await();
+                return List.of();
+            });
+        }
+    }
+}
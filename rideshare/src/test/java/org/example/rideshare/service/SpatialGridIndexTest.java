@@ -0,0 +1,109 @@
+package org.example.rideshare.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * SpatialGridIndexTest - Radius queries where the grid wraps or degenerates
+ *
+ * Checks queries whose circle crosses the 180th meridian and queries close to
+ * or at the poles, where a cell spans almost no distance in longitude. Besides
+ * fixed cases, random points and queries in those regions are compared with a
+ * brute-force haversine scan for several cell sizes (including one that does
+ * not divide 360 degrees, so the last column is narrower).
+ */
+class SpatialGridIndexTest {
+
+    private static final double[] CELL_DEGREES = { 0.01, 0.25, 0.7, 10 };
+
+    @Test
+    void findsEntriesAcrossTheAntimeridian() {
+        SpatialGridIndex<String> index = new SpatialGridIndex<>(0.01);
+        index.put("east", -16.5, 179.9998, "east");
+        index.put("west", -16.5, -179.998, "west");
+        index.put("far", -16.5, 179.9, "far");
+
+        List<SpatialGridIndex.Hit<String>> fromWest = index.within(-16.5, -179.9995, 1000, 10);
+        assertEquals(List.of("east", "west"), ids(fromWest));
+        assertTrue(fromWest.get(0).distanceMeters() < 100, "Distance across 180: " + fromWest.get(0));
+
+        assertEquals(List.of("east", "west"), ids(index.within(-16.5, 180, 1000, 10)));
+        assertEquals(List.of("far", "east", "west"), ids(index.within(-16.5, 179.93, 10_000, 10)));
+    }
+
+    @Test
+    void findsEntriesAroundThePoles() {
+        SpatialGridIndex<String> index = new SpatialGridIndex<>(0.01);
+        // Ring of points 100 m from the north pole, and one at the pole itself
+        for (int longitude = -180; longitude < 180; longitude += 45) {
+            index.put("n" + longitude, 90 - 100 / 111_195.0, longitude, "north");
+        }
+        index.put("pole", 90, 0, "pole");
+        index.put("south", -89.9995, 123, "south");
+
+        // Opposite sides of the ring are 200 m apart, whatever the longitude of the query
+        assertEquals(9, index.within(89.9995, 0, 300, 20).size());
+        assertEquals(9, index.within(90, 57, 150, 20).size());
+        assertEquals(List.of("pole"), ids(index.within(90, -120, 50, 20)));
+        assertEquals(List.of("south"), ids(index.within(-90, 0, 100, 20)));
+        assertEquals(List.of("south"), ids(index.within(-89.9999, -60, 100, 20)));
+    }
+
+    @Test
+    void matchesBruteForceNearTheAntimeridianAndThePoles() {
+        SplittableRandom random = new SplittableRandom(18);
+        for (double cellDegrees : CELL_DEGREES) {
+            SpatialGridIndex<String> index = new SpatialGridIndex<>(cellDegrees);
+            List<double[]> points = new ArrayList<>();
+            for (int i = 0; i < 3000; i++) {
+                double[] point = randomPoint(random);
+                points.add(point);
+                index.put(Integer.toString(i), point[0], point[1], "p" + i);
+            }
+
+            // Up to a few cells wide (small cells near a pole mean many cells per row)
+            double maxRadius = Math.min(200_000, cellDegrees * 3_000_000);
+            for (int q = 0; q < 200; q++) {
+                double[] center = randomPoint(random);
+                double radius = random.nextDouble(10, maxRadius);
+                TreeSet<String> expected = new TreeSet<>();
+                for (int i = 0; i < points.size(); i++) {
+                    double[] point = points.get(i);
+                    if (SpatialGridIndex.distanceMeters(center[0], center[1], point[0], point[1]) <= radius) {
+                        expected.add(Integer.toString(i));
+                    }
+                }
+                TreeSet<String> actual = new TreeSet<>(ids(index.within(center[0], center[1], radius,
+                        points.size())));
+                assertEquals(expected, actual, String.format("cell %s, query (%.5f, %.5f) r=%.0f m",
+                        cellDegrees, center[0], center[1], radius));
+            }
+        }
+    }
+
+    // A point within 1.5 degrees of the antimeridian, the north pole or the south pole
+    private static double[] randomPoint(SplittableRandom random) {
+        return switch (random.nextInt(3)) {
+            case 0 -> new double[] { random.nextDouble(-60, 60), wrap(180 + random.nextDouble(-1.5, 1.5)) };
+            case 1 -> new double[] { random.nextDouble(88.5, 90), random.nextDouble(-180, 180) };
+            default -> new double[] { random.nextDouble(-90, -88.5), random.nextDouble(-180, 180) };
+        };
+    }
+
+    private static double wrap(double longitude) {
+        return longitude >= 180 ? longitude - 360 : longitude;
+    }
+
+    private static List<String> ids(List<SpatialGridIndex.Hit<String>> hits) {
+        List<String> ids = new ArrayList<>();
+        hits.forEach(hit -> ids.add(hit.id()));
+        return ids;
+    }
+}
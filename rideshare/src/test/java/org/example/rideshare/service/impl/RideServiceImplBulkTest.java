@@ -0,0 +1,130 @@
+package org.example.rideshare.service.impl;
+
+import com.mongodb.MongoTimeoutException;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.BsonDocument;
+import org.bson.types.ObjectId;
+import org.example.rideshare.dto.BulkRideResponse;
+import org.example.rideshare.dto.CreateRideRequest;
+import org.example.rideshare.dto.RideEvent;
+import org.example.rideshare.model.GeoPoint;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.repository.RideRepository;
+import org.example.rideshare.service.PendingRideIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * RideServiceImplBulkTest - Per-entry results of POST /api/v1/rides/bulk
+ *
+ * RideRepository is mocked with a chunk size of 2. Entries with invalid
+ * coordinates are INVALID and never written, a write error fails only its
+ * entry, and a chunk whose insertMany throws fails only that chunk's entries.
+ * Results stay in request order whatever happens to each chunk.
+ */
+class RideServiceImplBulkTest {
+
+    private RideServiceImpl rideService;
+    private RideRepository rideRepository;
+    private PendingRideIndex pendingRideIndex;
+    private ApplicationEventPublisher eventPublisher;
+
+    // Chunks passed to insertAllUnordered, copied at call time
+    private final List<List<String>> chunks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        rideRepository = mock(RideRepository.class);
+        pendingRideIndex = mock(PendingRideIndex.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        rideService = new RideServiceImpl();
+        ReflectionTestUtils.setField(rideService, "rideRepository", rideRepository);
+        ReflectionTestUtils.setField(rideService, "pendingRideIndex", pendingRideIndex);
+        ReflectionTestUtils.setField(rideService, "eventPublisher", eventPublisher);
+        ReflectionTestUtils.setField(rideService, "bulkChunkSize", 2);
+    }
+
+    @Test
+    void mixedEntriesKeepTheirPositions() {
+        List<CreateRideRequest> requests = List.of(
+                request("r0", null),
+                request("r1", new GeoPoint(200, 0)),
+                request("r2", new GeoPoint(77.59, 12.97)),
+                request("r3", null),
+                request("r4", new GeoPoint(0, 95)),
+                request("r5", null),
+                request("r6", null));
+
+        // Chunk [r0, r2]: r2 is a duplicate; chunk [r3, r5]: times out; chunk [r6]: stored
+        when(rideRepository.insertAllUnordered(anyList())).thenAnswer(invocation -> {
+            List<Ride> chunk = invocation.getArgument(0);
+            List<String> pickups = new ArrayList<>();
+            chunk.forEach(ride -> pickups.add(ride.getPickupLocation()));
+            chunks.add(pickups);
+            if (chunks.size() == 2) {
+                throw new MongoTimeoutException("Timed out waiting for a server");
+            }
+            List<BulkWriteError> errors = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                if (chunk.get(i).getPickupLocation().equals("r2")) {
+                    errors.add(new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), i));
+                } else {
+                    chunk.get(i).setId(new ObjectId().toHexString());
+                }
+            }
+            return errors;
+        });
+
+        BulkRideResponse response = rideService.createRides(requests, "bulk-user");
+
+        assertEquals(List.of(List.of("r0", "r2"), List.of("r3", "r5"), List.of("r6")), chunks);
+        List<BulkRideResponse.Item> results = response.getResults();
+        assertEquals(7, results.size());
+        String[] expected = { "CREATED", "INVALID", "FAILED", "FAILED", "INVALID", "FAILED", "CREATED" };
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(i, results.get(i).getIndex());
+            assertEquals(expected[i], results.get(i).getStatus(), "Entry " + i);
+        }
+        assertNotNull(results.get(0).getId());
+        assertEquals("Invalid pickupPoint", results.get(1).getMessage());
+        assertTrue(results.get(2).getMessage().contains("duplicate key"));
+        assertTrue(results.get(3).getMessage().contains("Timed out"));
+        assertNull(results.get(5).getId());
+        assertEquals(2, response.getCreated());
+
+        // Only stored rides reach the pending index and the driver stream
+        verify(pendingRideIndex, times(2)).add(any(Ride.class));
+        verify(eventPublisher, times(2)).publishEvent(any(RideEvent.class));
+    }
+
+    @Test
+    void rejectsNonPositiveChunkSize() {
+        ReflectionTestUtils.setField(rideService, "bulkChunkSize", 0);
+        assertThrows(IllegalArgumentException.class, () -> rideService.checkBulkChunkSize());
+    }
+
+    private static CreateRideRequest request(String pickup, GeoPoint pickupPoint) {
+        CreateRideRequest request = new CreateRideRequest();
+        request.setPickupLocation(pickup);
+        request.setDropLocation("Drop " + pickup);
+        request.setPickupPoint(pickupPoint);
+        return request;
+    }
+}